@@ -0,0 +1,18 @@
+package com.eaglebank.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Read-through caching for single-resource GETs. Cache names, size and TTL are set
+ * with the {@code spring.cache.*} properties; {@code spring.cache.type=none}
+ * switches caching off without touching the services. The cache advice runs outside
+ * the transaction advice, so a hit doesn't open a transaction.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+    public static final String USERS = "users";
+    public static final String ACCOUNTS = "accounts";
+}
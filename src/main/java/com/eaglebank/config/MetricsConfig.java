@@ -0,0 +1,21 @@
+package com.eaglebank.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Service timers. HTTP endpoint timers, Hikari pool gauges and Hibernate statistics
+ * are registered by Spring Boot itself; everything is scraped from
+ * {@code /actuator/prometheus}.
+ */
+@Configuration
+public class MetricsConfig {
+    public static final String SERVICE_TIMER = "eaglebank.service";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -0,0 +1,58 @@
+package com.eaglebank.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+/**
+ * Splits reads from writes once {@code eaglebank.datasource.replica.url} is set:
+ * {@code @Transactional(readOnly = true)} work uses a pool on the replica and all
+ * other work, including schema migration, the primary configured by
+ * {@code spring.datasource.*}. The replica pool is tuned with
+ * {@code eaglebank.datasource.replica.hikari.*}. Not used with sharding, which
+ * refuses to start when both are configured.
+ */
+@Configuration
+@ConditionalOnProperty(name = "eaglebank.datasource.replica.url")
+@ConditionalOnExpression("'${eaglebank.sharding.urls:}'.isEmpty()")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("eaglebank.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${eaglebank.datasource.replica.url}") String url,
+                                              @Value("${eaglebank.datasource.replica.username:${spring.datasource.username:sa}}") String username,
+                                              @Value("${eaglebank.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource replica = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url).username(username).password(password).build();
+        replica.setPoolName("eaglebank-replica");
+        return replica;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy lazy = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource));
+        // known up front, so the proxy doesn't borrow a connection to find out
+        lazy.setDefaultAutoCommit(true);
+        lazy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return lazy;
+    }
+}
@@ -0,0 +1,50 @@
+package com.eaglebank.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections for read-only transactions to the replica and everything else
+ * to the primary. The key is looked up when a connection is first used, so this sits
+ * behind a lazy proxy that defers that until the transaction's read-only flag is set.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    enum Target {PRIMARY, REPLICA}
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Sends the rest of the current read-only transaction to the primary, for reads that
+     * must see a write the replica may not have applied yet. Does nothing outside a
+     * transaction or when no replica is configured.
+     */
+    public static void usePrimaryForCurrentTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || PRIMARY_REQUIRED.get() != null) {
+            return;
+        }
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                PRIMARY_REQUIRED.remove();
+            }
+        });
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && PRIMARY_REQUIRED.get() == null
+                ? Target.REPLICA
+                : Target.PRIMARY;
+    }
+}
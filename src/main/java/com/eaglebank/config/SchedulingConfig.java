@@ -0,0 +1,15 @@
+package com.eaglebank.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Background jobs such as balance snapshots. {@code eaglebank.scheduling.enabled=false}
+ * turns them all off, e.g. on nodes that only serve reads.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "eaglebank.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
@@ -0,0 +1,63 @@
+package com.eaglebank.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Sends connections to the account shard selected with {@link #onShard}, and to the
+ * global database (users, id sequences) outside of one. The key is looked up when a
+ * connection is first used, so this sits behind a lazy proxy and a transaction may
+ * select its shard after it began; it must not touch a second one.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private final List<? extends DataSource> shards;
+
+    ShardRoutingDataSource(DataSource global, List<? extends DataSource> shards) {
+        this.shards = shards;
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(global);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    /** Runs {@code work} with connections going to {@code shard}, restoring the previous shard afterwards. */
+    public static <T> T onShard(int shard, Supplier<T> work) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return CURRENT.get();
+    }
+
+    /** Closes the shard pools; the global one is a bean of its own. */
+    @Override
+    public void close() throws Exception {
+        for (DataSource shard : shards) {
+            if (shard instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
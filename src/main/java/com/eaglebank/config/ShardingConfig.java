@@ -0,0 +1,93 @@
+package com.eaglebank.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spreads account data over the databases listed in {@code eaglebank.sharding.urls}.
+ * An account's row, ledger, snapshots and outgoing transfers live on the shard its id
+ * hashes to; users and id sequences stay in the global database configured by
+ * {@code spring.datasource.*}. Every shard is migrated on start-up, and shard pools
+ * are tuned with {@code eaglebank.sharding.hikari.*}. Shards are read on their own
+ * primary, so this cannot be combined with {@code eaglebank.datasource.replica.url}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "eaglebank.sharding.urls")
+public class ShardingConfig {
+    // Hibernate hands out ids from one in-memory block whatever shard fetched it, so each
+    // shard's sequences start in their own range and ids never repeat across shards
+    private static final int SEQUENCE_RANGE_BITS = 40;
+    private static final List<String> SEQUENCES = List.of("TRANSACTIONS_SEQ", "TRANSFERS_SEQ");
+
+    public ShardingConfig(@Value("${eaglebank.datasource.replica.url:}") String replicaUrl) {
+        // ReadReplicaConfig stands down when sharding is on, so this is the one place to say why
+        if (!replicaUrl.isBlank()) {
+            throw new IllegalStateException("eaglebank.sharding.urls and eaglebank.datasource.replica.url cannot both be set: " +
+                    "sharded reads do not use replicas");
+        }
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource globalDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(HikariDataSource globalDataSource, Environment environment,
+                                                         @Value("${eaglebank.sharding.urls}") List<String> urls,
+                                                         @Value("${eaglebank.sharding.username:${spring.datasource.username:sa}}") String username,
+                                                         @Value("${eaglebank.sharding.password:${spring.datasource.password:}}") String password) {
+        List<HikariDataSource> shards = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource shard = DataSourceBuilder.create().type(HikariDataSource.class)
+                    .url(urls.get(i)).username(username).password(password).build();
+            Binder.get(environment).bind("eaglebank.sharding.hikari", Bindable.ofInstance(shard));
+            shard.setPoolName("eaglebank-shard-" + i);
+            shards.add(shard);
+
+            Flyway.configure().dataSource(shard).load().migrate();
+            separateSequences(shard, i);
+        }
+        return new ShardRoutingDataSource(globalDataSource, shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        LazyConnectionDataSourceProxy lazy = new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+        lazy.setDefaultAutoCommit(true);
+        lazy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return lazy;
+    }
+
+    private static void separateSequences(DataSource shard, int index) {
+        JdbcTemplate jdbc = new JdbcTemplate(shard);
+        long start = (index + 1L) << SEQUENCE_RANGE_BITS;
+        for (String sequence : SEQUENCES) {
+            Long next = jdbc.queryForObject("select base_value from information_schema.sequences where sequence_name = ?",
+                    Long.class, sequence);
+            if (next == null || next < start) {
+                jdbc.execute("alter sequence " + sequence + " restart with " + start);
+            }
+        }
+    }
+}
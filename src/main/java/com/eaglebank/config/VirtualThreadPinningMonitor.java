@@ -0,0 +1,97 @@
+package com.eaglebank.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier, typically inside a
+ * {@code synchronized} block or native frame on the JDBC path. Pinned threads
+ * hold a carrier for the whole blocking call, so a driver or pool that pins
+ * quietly turns virtual-thread mode back into a small platform-thread pool.
+ * Events are read from the JDK's own {@code jdk.VirtualThreadPinned} JFR event.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int REPORTED_FRAMES = 8;
+
+    private final Duration threshold;
+    private final ObjectProvider<DataSource> dataSource;
+    private final AtomicLong pinnedCount = new AtomicLong();
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(@Value("${eaglebank.virtual-threads.pinning-threshold:20ms}") Duration threshold,
+                                       ObjectProvider<DataSource> dataSource,
+                                       MeterRegistry meterRegistry) {
+        this.threshold = threshold;
+        this.dataSource = dataSource;
+        FunctionCounter.builder("eaglebank.virtual.threads.pinned", pinnedCount, AtomicLong::get)
+                .description("Virtual threads pinned to their carrier for longer than the reporting threshold")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        DataSource ds = dataSource.getIfAvailable();
+        if (ds instanceof HikariDataSource hikari) {
+            log.info("Virtual threads enabled: concurrent JDBC work is bounded by {} maximumPoolSize={}",
+                    hikari.getPoolName(), hikari.getMaximumPoolSize());
+        }
+        RecordingStream rs = new RecordingStream();
+        rs.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        rs.onEvent(PINNED_EVENT, this::report);
+        rs.startAsync();
+        stream = rs;
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream rs = stream;
+        stream = null;
+        if (rs != null) {
+            rs.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    public long getPinnedCount() {
+        return pinnedCount.get();
+    }
+
+    private void report(RecordedEvent event) {
+        pinnedCount.incrementAndGet();
+        StringBuilder frames = new StringBuilder();
+        if (event.getStackTrace() != null) {
+            List<RecordedFrame> stack = event.getStackTrace().getFrames();
+            for (int i = 0; i < Math.min(REPORTED_FRAMES, stack.size()); i++) {
+                RecordedFrame f = stack.get(i);
+                frames.append("\n\tat ").append(f.getMethod().getType().getName())
+                        .append('.').append(f.getMethod().getName())
+                        .append(':').append(f.getLineNumber());
+            }
+        }
+        log.warn("Virtual thread pinned to its carrier for {} ms{}", event.getDuration().toMillis(), frames);
+    }
+}
@@ -0,0 +1,31 @@
+package com.eaglebank.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * CBOR ({@code application/cbor}) and Smile ({@code application/x-jackson-smile})
+ * request and response bodies next to JSON, picked per request from {@code Accept}
+ * and {@code Content-Type}. They map the DTOs with the application's Jackson
+ * settings, so only the encoding differs. These replace the converters Spring MVC
+ * registers for the two formats, in the same place after the JSON one, so a request
+ * without {@code Accept}, or with a wildcard, still gets JSON.
+ */
+@Configuration
+public class WireFormatConfig {
+
+    @Bean
+    MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
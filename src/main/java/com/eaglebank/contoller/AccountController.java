@@ -1,35 +1,109 @@
 package com.eaglebank.contoller;
 
 import com.eaglebank.dto.AccountDTO;
-import com.eaglebank.exception.AccessDeniedException;
+import com.eaglebank.filter.AuthenticationFilter;
 import com.eaglebank.service.AccountService;
+import com.eaglebank.service.StatementService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.zip.GZIPOutputStream;
+
 @RestController
 @RequestMapping("/v1/accounts")
 public class AccountController {
 
+    // private responses, and clients must check back before reusing one
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final AccountService accountService;
+    private final StatementService statementService;
 
-    public AccountController(AccountService accountService) {
+    public AccountController(AccountService accountService, StatementService statementService) {
         this.accountService = accountService;
+        this.statementService = statementService;
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public AccountDTO createAccount(@RequestHeader("user-id") String userId, @Valid @RequestBody AccountDTO accountDTO) {
+    public AccountDTO createAccount(@RequestAttribute(AuthenticationFilter.USER_ID_ATTRIBUTE) String userId,
+                                    @Valid @RequestBody AccountDTO accountDTO) {
         return accountService.createAccount(userId, accountDTO);
     }
 
+    /**
+     * A matching {@code If-None-Match} is answered with 304 from the version alone,
+     * before the account is mapped or serialized. The body is JSON unless {@code Accept}
+     * asks for CBOR or Smile, hence {@code Vary: Accept}, and each format has its own tag.
+     */
     @GetMapping("/{accountId}")
-    public AccountDTO getAccountById(@RequestHeader("user-id") String userId, @PathVariable("accountId") String accountId) {
-        // only allow a user to fetch their own account
-        if (!accountId.equals(userId)) {
-            throw new AccessDeniedException(userId, accountId);
+    public ResponseEntity<AccountDTO> getAccountById(@PathVariable("accountId") String accountId,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                     @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType format = ETags.negotiate(accept);
+        if (ifNoneMatch != null) {
+            long version = accountService.getAccountVersion(accountId);
+            if (ETags.noneMatchHits(ifNoneMatch, version, format)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.of(version, format)).cacheControl(REVALIDATE)
+                        .varyBy(HttpHeaders.ACCEPT).build();
+            }
         }
         AccountDTO accountDTO = accountService.getAccountById(accountId);
-        return accountDTO;
+        return ResponseEntity.ok().eTag(ETags.of(accountDTO.getVersion(), format)).cacheControl(REVALIDATE)
+                .varyBy(HttpHeaders.ACCEPT).body(accountDTO);
+    }
+
+    /**
+     * Streams the account's ledger as CSV or NDJSON, optionally limited to
+     * {@code from} (inclusive) and {@code to} (exclusive). Gzipped when the client
+     * sends {@code Accept-Encoding: gzip}.
+     */
+    @GetMapping("/{accountId}/statement")
+    public void getStatement(@PathVariable("accountId") String accountId,
+                             @RequestParam(value = "format", defaultValue = "csv") String format,
+                             @RequestParam(value = "from", required = false) Instant from,
+                             @RequestParam(value = "to", required = false) Instant to,
+                             @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                             HttpServletResponse response) throws IOException {
+        StatementService.Format statementFormat = StatementService.Format.fromValue(format);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        // headers are only set once the account is found, so a 404 goes out as a normal error response
+        statementService.writeStatement(accountId, from, to, statementFormat, () -> {
+            response.setContentType(statementFormat.mediaType());
+            response.setCharacterEncoding("UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                    .filename("statement-" + accountId + "." + statementFormat.extension()).build().toString());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            OutputStream body = response.getOutputStream();
+            if (!gzip) {
+                return body;
+            }
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return new GZIPOutputStream(body, 8192);
+        });
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,61 @@
+package com.eaglebank.contoller;
+
+import com.eaglebank.dto.AccountDTO;
+import com.eaglebank.dto.PageDTO;
+import com.eaglebank.dto.UserDTO;
+import com.eaglebank.model.AccountType;
+import com.eaglebank.service.AccountProjectionService;
+import com.eaglebank.service.AccountService;
+import com.eaglebank.service.UserService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Listing endpoints for operations and back-office jobs. Pages are keyset-based:
+ * pass {@code nextCursor} from one page as {@code cursor} to get the next.
+ */
+@RestController
+@RequestMapping("/v1/backoffice")
+public class BackofficeController {
+
+    private final AccountService accountService;
+    private final UserService userService;
+    private final AccountProjectionService accountProjectionService;
+
+    public BackofficeController(AccountService accountService, UserService userService,
+                                AccountProjectionService accountProjectionService) {
+        this.accountService = accountService;
+        this.userService = userService;
+        this.accountProjectionService = accountProjectionService;
+    }
+
+    @GetMapping("/accounts")
+    public PageDTO<AccountDTO> listAccounts(
+            @RequestParam(required = false) String accountType,
+            @RequestParam(required = false) Long minBalance,
+            @RequestParam(required = false) Long maxBalance,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return accountService.listAccounts(AccountType.fromValue(accountType), minBalance, maxBalance, cursor, limit);
+    }
+
+    /** Ids of accounts whose balance disagrees with a full replay of their ledger. */
+    @GetMapping("/accounts/audit")
+    public List<String> auditAccounts() {
+        return accountProjectionService.audit();
+    }
+
+    @PostMapping("/accounts/{accountId}/rebuild")
+    public AccountDTO rebuildAccount(@PathVariable("accountId") String accountId) {
+        accountProjectionService.rebuild(accountId);
+        return accountService.getAccountById(accountId);
+    }
+
+    @GetMapping("/users")
+    public PageDTO<UserDTO> listUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return userService.listUsers(cursor, limit);
+    }
+}
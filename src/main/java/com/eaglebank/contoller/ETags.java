@@ -0,0 +1,95 @@
+package com.eaglebank.contoller;
+
+import com.eaglebank.exception.PreconditionFailedException;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+
+/**
+ * Strong entity tags made from an entity's version column and the format the body is
+ * encoded in, so two representations share a tag exactly when the row hasn't been
+ * written in between and they are the same bytes. JSON tags are the bare version;
+ * CBOR and Smile ones carry a suffix, e.g. {@code "3-cbor"}.
+ */
+final class ETags {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    // in the order their converters are registered, which is how ties are broken
+    private static final List<MediaType> FORMATS = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, SMILE);
+    private static final List<String> SUFFIXES = List.of("", "-cbor", "-smile");
+
+    private ETags() {
+    }
+
+    static String of(long version, MediaType format) {
+        return "\"" + version + SUFFIXES.get(FORMATS.indexOf(format)) + "\"";
+    }
+
+    /**
+     * The format a body is written in for this {@code Accept} header: the first of the
+     * most preferred types that JSON, CBOR or Smile satisfies. JSON when there is no
+     * header, or when nothing fits and the request is refused anyway.
+     */
+    static MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException ex) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            for (MediaType format : FORMATS) {
+                if (type.isCompatibleWith(format)) {
+                    return format;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    /** Whether an {@code If-None-Match} header matches the tag for this format, using the weak comparison it calls for. */
+    static boolean noneMatchHits(String ifNoneMatch, long version, MediaType format) {
+        String current = of(version, format);
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*") || tag.equals(current) || tag.equals("W/" + current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The version an {@code If-Match} header requires, or null for {@code *}. Only a
+     * single strong tag can be checked in the UPDATE itself; anything else can never
+     * match one of ours. A tag from any of the formats will do, as they all name the
+     * same version.
+     */
+    static Long requiredVersion(String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.equals("*")) {
+            return null;
+        }
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            String opaque = tag.substring(1, tag.length() - 1);
+            for (int i = SUFFIXES.size() - 1; i > 0; i--) {
+                if (opaque.endsWith(SUFFIXES.get(i))) {
+                    opaque = opaque.substring(0, opaque.length() - SUFFIXES.get(i).length());
+                    break;
+                }
+            }
+            try {
+                return Long.parseLong(opaque);
+            } catch (NumberFormatException ignored) {
+                // not one of ours
+            }
+        }
+        throw new PreconditionFailedException("If-Match must be a single entity tag from this resource, or *");
+    }
+}
@@ -0,0 +1,31 @@
+package com.eaglebank.contoller;
+
+import com.eaglebank.dto.TransactionDTO;
+import com.eaglebank.service.TransactionService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/v1/accounts/{accountId}/transactions")
+public class TransactionController {
+
+    private final TransactionService transactionService;
+
+    public TransactionController(TransactionService transactionService) {
+        this.transactionService = transactionService;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public TransactionDTO createTransaction(@PathVariable("accountId") String accountId,
+                                            @Valid @RequestBody TransactionDTO transactionDTO) {
+        return transactionService.createTransaction(accountId, transactionDTO);
+    }
+
+    @GetMapping("/{transactionId}")
+    public TransactionDTO getTransaction(@PathVariable("accountId") String accountId,
+                                         @PathVariable("transactionId") String transactionId) {
+        return transactionService.getTransaction(accountId, transactionId);
+    }
+}
@@ -0,0 +1,47 @@
+package com.eaglebank.contoller;
+
+import com.eaglebank.dto.TransferDTO;
+import com.eaglebank.dto.TransferRequestDTO;
+import com.eaglebank.filter.AuthenticationFilter;
+import com.eaglebank.service.TransferService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+
+@RestController
+@RequestMapping("/v1/transfers")
+public class TransferController {
+    private static final String PREFER = "Prefer";
+    private static final String RESPOND_ASYNC = "respond-async";
+
+    private final TransferService transferService;
+
+    public TransferController(TransferService transferService) {
+        this.transferService = transferService;
+    }
+
+    // The source is always the caller's own account. With "Prefer: respond-async" and the
+    // async engine enabled the transfer is queued and answered with 202 and a status URL.
+    @PostMapping
+    public ResponseEntity<?> createTransfer(@RequestAttribute(AuthenticationFilter.USER_ID_ATTRIBUTE) String userId,
+                                            @RequestHeader(value = PREFER, required = false) String prefer,
+                                            @Valid @RequestBody TransferDTO transferDTO,
+                                            UriComponentsBuilder uriBuilder) {
+        if (prefer != null && prefer.contains(RESPOND_ASYNC) && transferService.acceptsAsync()) {
+            TransferRequestDTO request = transferService.submit(userId, transferDTO);
+            return ResponseEntity.accepted()
+                    .location(uriBuilder.path("/v1/transfers/requests/{requestId}").build(request.getId()))
+                    .header("Preference-Applied", RESPOND_ASYNC)
+                    .body(request);
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(transferService.transfer(userId, transferDTO));
+    }
+
+    @GetMapping("/requests/{requestId}")
+    public TransferRequestDTO getTransferRequest(@RequestAttribute(AuthenticationFilter.USER_ID_ATTRIBUTE) String userId,
+                                                 @PathVariable("requestId") String requestId) {
+        return transferService.getRequest(userId, requestId);
+    }
+}
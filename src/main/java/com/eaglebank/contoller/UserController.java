@@ -1,28 +1,55 @@
 package com.eaglebank.contoller;
 
 import com.eaglebank.dto.UserDTO;
-import com.eaglebank.exception.AccessDeniedException;
+import com.eaglebank.service.UserImportService;
 import com.eaglebank.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+
 @RestController
 @RequestMapping("/v1/users")
 public class UserController {
 
+    // private responses, and clients must check back before reusing one
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final UserService userService;
+    private final UserImportService userImportService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserImportService userImportService) {
         this.userService = userService;
+        this.userImportService = userImportService;
     }
 
+    /**
+     * A matching {@code If-None-Match} is answered with 304 from the version alone,
+     * before the user is mapped or serialized. The body is JSON unless {@code Accept}
+     * asks for CBOR or Smile, hence {@code Vary: Accept}, and each format has its own tag.
+     */
     @GetMapping("/{userId}")
-    public UserDTO getUser(@RequestHeader("user-id") String userIdHeader, @PathVariable String userId) {
-        if (!userId.equals(userIdHeader)) {
-            throw new AccessDeniedException(userIdHeader, userId);
+    public ResponseEntity<UserDTO> getUser(@PathVariable String userId,
+                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                           @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType format = ETags.negotiate(accept);
+        if (ifNoneMatch != null) {
+            long version = userService.getUserVersion(userId);
+            if (ETags.noneMatchHits(ifNoneMatch, version, format)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.of(version, format)).cacheControl(REVALIDATE)
+                        .varyBy(HttpHeaders.ACCEPT).build();
+            }
         }
-        return userService.getUserById(userIdHeader, userId);
+        UserDTO user = userService.getUserById(userId);
+        return ResponseEntity.ok().eTag(ETags.of(user.getVersion(), format)).cacheControl(REVALIDATE)
+                .varyBy(HttpHeaders.ACCEPT).body(user);
     }
 
     @PostMapping
@@ -31,20 +58,32 @@ public class UserController {
         return userService.createUser(user);
     }
 
+    /**
+     * Creates users from an NDJSON stream or a JSON array and streams back one
+     * NDJSON result line per input record, in input order.
+     */
+    @PostMapping(path = "/bulk",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void bulkCreateUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        userImportService.importUsers(request.getInputStream(), response.getOutputStream());
+    }
+
     @DeleteMapping("/{userId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void deleteUser(@RequestHeader("user-id") String userIdHeader, @PathVariable String userId) {
-        userService.deleteUser(userIdHeader, userId);
+    public void deleteUser(@PathVariable String userId) {
+        userService.deleteUser(userId);
     }
 
+    /** With {@code If-Match} the patch applies only if the user is still at that version, else 412. */
     @PatchMapping("/{userId}")
-    public UserDTO patchUser(
-            @RequestHeader("user-id") String userIdHeader,
-            @PathVariable String userId,
-            @RequestBody UserDTO userDTO) {
-        if (!userId.equals(userIdHeader)) {
-            throw new AccessDeniedException(userIdHeader, userId);
-        }
-        return userService.patchUser(userIdHeader, userId, userDTO);
+    public ResponseEntity<UserDTO> patchUser(@PathVariable String userId, @RequestBody UserDTO userDTO,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                             @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        Long expectedVersion = ifMatch != null ? ETags.requiredVersion(ifMatch) : null;
+        UserDTO user = userService.patchUser(userId, userDTO, expectedVersion);
+        return ResponseEntity.ok().eTag(ETags.of(user.getVersion(), ETags.negotiate(accept))).body(user);
     }
 }
\ No newline at end of file
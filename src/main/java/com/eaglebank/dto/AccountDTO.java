@@ -1,11 +1,15 @@
 package com.eaglebank.dto;
 
 import com.eaglebank.model.AccountType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
 public class AccountDTO {
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String id;
+
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private String accountNumber;
 
@@ -24,6 +28,10 @@ public class AccountDTO {
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private String currency;
 
+    // sent as the ETag header, not in the body
+    @JsonIgnore
+    private Long version;
+
     public AccountDTO() {
     }
 
@@ -36,6 +44,29 @@ public class AccountDTO {
         this.currency = currency;
     }
 
+    public AccountDTO(String id, String accountNumber, String sortCode, String name, AccountType accountType, long balance, String currency) {
+        this(accountNumber, sortCode, name, accountType, balance, currency);
+        this.id = id;
+    }
+
+    public AccountDTO(String id, String accountNumber, String sortCode, String name, AccountType accountType, long balance,
+                      String currency, Long version) {
+        this(id, accountNumber, sortCode, name, accountType, balance, currency);
+        this.version = version;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getAccountNumber() {
         return accountNumber;
     }
@@ -0,0 +1,25 @@
+package com.eaglebank.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset listing. {@code nextCursor} is opaque to clients and is
+ * null on the last page.
+ */
+public class PageDTO<T> {
+    private final List<T> items;
+    private final String nextCursor;
+
+    public PageDTO(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,87 @@
+package com.eaglebank.dto;
+
+import com.eaglebank.model.TransactionType;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.time.Instant;
+
+public class TransactionDTO {
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String id;
+
+    @NotNull(message = "Amount is required")
+    @Positive(message = "Amount must be greater than zero")
+    private Long amount;
+
+    private String currency;
+
+    @NotNull(message = "Transaction type is required and must be either 'deposit' or 'withdrawal'")
+    private TransactionType type;
+
+    private String reference;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long balance;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant createdTimestamp;
+
+    public TransactionDTO() {
+    }
+
+    public TransactionDTO(String id, Long amount, String currency, TransactionType type, String reference, long balance, Instant createdTimestamp) {
+        this.id = id;
+        this.amount = amount;
+        this.currency = currency;
+        this.type = type;
+        this.reference = reference;
+        this.balance = balance;
+        this.createdTimestamp = createdTimestamp;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Long amount) {
+        this.amount = amount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    public void setType(TransactionType type) {
+        this.type = type;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+    public long getBalance() {
+        return balance;
+    }
+
+    public Instant getCreatedTimestamp() {
+        return createdTimestamp;
+    }
+}
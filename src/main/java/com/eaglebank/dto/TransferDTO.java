@@ -0,0 +1,110 @@
+package com.eaglebank.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.time.Instant;
+
+public class TransferDTO {
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String id;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String fromAccountId;
+
+    @NotBlank(message = "Destination account is required")
+    private String toAccountId;
+
+    @NotNull(message = "Amount is required")
+    @Positive(message = "Amount must be greater than zero")
+    private Long amount;
+
+    private String currency;
+
+    private String reference;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String debitTransactionId;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String creditTransactionId;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant createdTimestamp;
+
+    public TransferDTO() {
+    }
+
+    public TransferDTO(String toAccountId, Long amount, String reference) {
+        this.toAccountId = toAccountId;
+        this.amount = amount;
+        this.reference = reference;
+    }
+
+    public TransferDTO(String id, String fromAccountId, String toAccountId, Long amount, String currency, String reference,
+                       String debitTransactionId, String creditTransactionId, Instant createdTimestamp) {
+        this.id = id;
+        this.fromAccountId = fromAccountId;
+        this.toAccountId = toAccountId;
+        this.amount = amount;
+        this.currency = currency;
+        this.reference = reference;
+        this.debitTransactionId = debitTransactionId;
+        this.creditTransactionId = creditTransactionId;
+        this.createdTimestamp = createdTimestamp;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getFromAccountId() {
+        return fromAccountId;
+    }
+
+    public String getToAccountId() {
+        return toAccountId;
+    }
+
+    public void setToAccountId(String toAccountId) {
+        this.toAccountId = toAccountId;
+    }
+
+    public Long getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Long amount) {
+        this.amount = amount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+    public String getDebitTransactionId() {
+        return debitTransactionId;
+    }
+
+    public String getCreditTransactionId() {
+        return creditTransactionId;
+    }
+
+    public Instant getCreatedTimestamp() {
+        return createdTimestamp;
+    }
+}
@@ -0,0 +1,51 @@
+package com.eaglebank.dto;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * State of a transfer accepted for asynchronous processing. {@code transfer} is
+ * set once it completed, {@code failureReason} when it was refused. {@code unknown}
+ * means it was tried but its outcome could not be recorded; it may have been applied,
+ * and is settled when the engine next starts.
+ */
+public class TransferRequestDTO {
+    public enum Status {
+        QUEUED, COMPLETED, FAILED, UNKNOWN;
+
+        @JsonValue
+        public String getValue() {
+            return name().toLowerCase();
+        }
+    }
+
+    private String id;
+    private Status status;
+    private TransferDTO transfer;
+    private String failureReason;
+
+    public TransferRequestDTO() {
+    }
+
+    public TransferRequestDTO(String id, Status status, TransferDTO transfer, String failureReason) {
+        this.id = id;
+        this.status = status;
+        this.transfer = transfer;
+        this.failureReason = failureReason;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public TransferDTO getTransfer() {
+        return transfer;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+}
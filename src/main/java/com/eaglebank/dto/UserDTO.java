@@ -1,5 +1,6 @@
 package com.eaglebank.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
@@ -33,6 +34,10 @@ public class UserDTO {
     )
     private String phoneNumber;
 
+    // sent as the ETag header, not in the body
+    @JsonIgnore
+    private Long version;
+
     public UserDTO() {
     }
 
@@ -50,10 +55,29 @@ public class UserDTO {
         this.phoneNumber = phoneNumber;
     }
 
+    /**
+     * Straight from the columns of a row, so a read builds no entity on the way to the response.
+     * All-null address columns give no address, as Hibernate reads them into the entity.
+     */
+    public UserDTO(String id, String name, String email, String line1, String line2, String line3, String town,
+                   String county, String postcode, String phoneNumber, Long version) {
+        this(id, name, email, line1 == null && line2 == null && line3 == null && town == null && county == null && postcode == null
+                ? null : new AddressDTO(line1, line2, line3, town, county, postcode), phoneNumber);
+        this.version = version;
+    }
+
     public String getId() {
         return id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getName() {
         return name;
     }
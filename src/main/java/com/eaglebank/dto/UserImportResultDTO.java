@@ -0,0 +1,40 @@
+package com.eaglebank.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserImportResultDTO {
+    public static final String CREATED = "created";
+    public static final String INVALID = "invalid";
+    public static final String FAILED = "failed";
+
+    private final int index;
+    private final String status;
+    private final String id;
+    private final List<String> errors;
+
+    public UserImportResultDTO(int index, String status, String id, List<String> errors) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.errors = errors;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
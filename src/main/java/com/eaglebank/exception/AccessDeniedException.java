@@ -1,12 +0,0 @@
-package com.eaglebank.exception;
-
-import org.springframework.http.HttpStatus;
-import org.springframework.web.bind.annotation.ResponseStatus;
-
-@ResponseStatus(HttpStatus.FORBIDDEN)
-public class AccessDeniedException extends RuntimeException {
-    public AccessDeniedException(String userId, String accountId) {
-        super("User " + userId + " is not allowed to access account " + accountId);
-    }
-}
-
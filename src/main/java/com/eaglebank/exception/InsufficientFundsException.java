@@ -0,0 +1,11 @@
+package com.eaglebank.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class InsufficientFundsException extends RuntimeException {
+    public InsufficientFundsException(String accountId) {
+        super("Insufficient funds to process transaction on account " + accountId);
+    }
+}
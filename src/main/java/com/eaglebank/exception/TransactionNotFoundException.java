@@ -0,0 +1,11 @@
+package com.eaglebank.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class TransactionNotFoundException extends RuntimeException {
+    public TransactionNotFoundException(String id) {
+        super("Transaction with id " + id + " not found.");
+    }
+}
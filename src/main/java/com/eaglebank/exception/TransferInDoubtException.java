@@ -0,0 +1,12 @@
+package com.eaglebank.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+public class TransferInDoubtException extends RuntimeException {
+    public TransferInDoubtException(String fromAccountId, String toAccountId, Throwable cause) {
+        super("Transfer from " + fromAccountId + " to " + toAccountId +
+                " was interrupted; it will be completed or reversed shortly, check the account before retrying", cause);
+    }
+}
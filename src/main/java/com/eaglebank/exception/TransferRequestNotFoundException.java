@@ -0,0 +1,11 @@
+package com.eaglebank.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class TransferRequestNotFoundException extends RuntimeException {
+    public TransferRequestNotFoundException(String id) {
+        super("Transfer request with id " + id + " not found.");
+    }
+}
@@ -0,0 +1,109 @@
+package com.eaglebank.filter;
+
+import com.eaglebank.exception.InvalidTokenException;
+import com.eaglebank.security.AuthenticatedUser;
+import com.eaglebank.security.TokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Authenticates every {@code /v1} and {@code /actuator} request from its bearer token and decides
+ * whether the caller may touch the addressed resource, so controllers and
+ * services no longer check ownership themselves:
+ * <ul>
+ *     <li>{@code POST /v1/users} is open, so new customers can sign up;</li>
+ *     <li>{@code /v1/users/{userId}/**} and {@code /v1/accounts/{accountId}/**} belong to that user;</li>
+ *     <li>{@code /v1/transfers/**} is open to any user, as transfers only debit the caller's own account
+ *     and transfer requests are only visible to the user who made them;</li>
+ *     <li>{@code /v1/backoffice/**} and {@code POST /v1/users/bulk} need the backoffice scope;</li>
+ *     <li>so does {@code /actuator/**}, apart from {@code /actuator/health} which stays open for probes.</li>
+ * </ul>
+ * The authenticated user id is exposed to handlers as the {@link #USER_ID_ATTRIBUTE} request attribute.
+ */
+@Component
+@Order(FilterOrder.AUTHENTICATION)
+public class AuthenticationFilter extends OncePerRequestFilter {
+    public static final String USER_ID_ATTRIBUTE = "eaglebank.userId";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final TokenService tokenService;
+
+    public AuthenticationFilter(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        List<String> path = segments(request);
+        boolean signUp = "POST".equals(request.getMethod()) && path.equals(List.of("v1", "users"));
+        boolean probe = path.size() > 1 && path.get(0).equals("actuator") && path.get(1).equals("health");
+        return path.isEmpty() || !(path.get(0).equals("v1") || path.get(0).equals("actuator")) || signUp || probe;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            unauthorized(response, "A bearer token is required");
+            return;
+        }
+        AuthenticatedUser user;
+        try {
+            user = tokenService.verify(authorization.substring(BEARER_PREFIX.length()).trim());
+        } catch (InvalidTokenException ex) {
+            unauthorized(response, ex.getMessage());
+            return;
+        }
+
+        String denied = authorize(user, request.getMethod(), segments(request));
+        if (denied != null) {
+            response.setStatus(HttpStatus.FORBIDDEN.value());
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write(denied);
+            return;
+        }
+        request.setAttribute(USER_ID_ATTRIBUTE, user.userId());
+        chain.doFilter(request, response);
+    }
+
+    /** Returns why the request is not allowed, or null when it is. */
+    private static String authorize(AuthenticatedUser user, String method, List<String> path) {
+        boolean bulkImport = "POST".equals(method) && path.equals(List.of("v1", "users", "bulk"));
+        if (bulkImport || path.get(0).equals("actuator") || (path.size() > 1 && path.get(1).equals("backoffice"))) {
+            return user.hasScope(TokenService.BACKOFFICE_SCOPE) ? null : "The backoffice scope is required";
+        }
+        if (path.size() > 2 && (path.get(1).equals("users") || path.get(1).equals("accounts"))
+                && !path.get(2).equals(user.userId())) {
+            return "User " + user.userId() + " is not allowed to access " + path.get(1) + " " + path.get(2);
+        }
+        return null;
+    }
+
+    /** Decoded path segments without matrix parameters, exactly as handler mappings see them. */
+    private static List<String> segments(HttpServletRequest request) {
+        return RequestPath.parse(request.getRequestURI(), request.getContextPath()).pathWithinApplication().elements().stream()
+                .filter(PathContainer.PathSegment.class::isInstance)
+                .map(e -> ((PathContainer.PathSegment) e).valueToMatch())
+                .toList();
+    }
+
+    private static void unauthorized(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write(message);
+    }
+}
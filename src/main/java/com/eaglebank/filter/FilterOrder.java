@@ -0,0 +1,14 @@
+package com.eaglebank.filter;
+
+/**
+ * Order of the application's servlet filters. They all run after Spring Boot's
+ * own request filters (encoding, observation).
+ */
+public final class FilterOrder {
+    public static final int AUTHENTICATION = 10;
+    public static final int RATE_LIMIT = 20;
+    public static final int IDEMPOTENCY = 30;
+
+    private FilterOrder() {
+    }
+}
@@ -0,0 +1,274 @@
+package com.eaglebank.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes {@code POST /v1/users}, {@code POST /v1/accounts} and {@code POST /v1/transfers} safe to retry. The
+ * first request carrying an {@code Idempotency-Key} runs normally and its
+ * response is kept in a bounded, expiring store; later requests with the same
+ * key and body get that response replayed without reaching the services.
+ * Duplicates that arrive while the first is still running wait for its result
+ * instead of executing again. 5xx responses are not kept, so those can be retried.
+ * Keyed bodies are read into memory to be fingerprinted, so they are capped at
+ * {@code eaglebank.idempotency.max-body}; larger ones get a 413.
+ */
+@Component
+@Order(FilterOrder.IDEMPOTENCY)
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final Set<String> IDEMPOTENT_PATHS = Set.of("/v1/users", "/v1/accounts", "/v1/transfers");
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final Cache<String, Entry> store;
+    private final Duration waitTimeout;
+    private final int maxBody;
+    private final MeterRegistry meterRegistry;
+
+    public IdempotencyFilter(@Value("${eaglebank.idempotency.max-keys:100000}") long maxKeys,
+                             @Value("${eaglebank.idempotency.ttl:24h}") Duration ttl,
+                             @Value("${eaglebank.idempotency.wait-timeout:10s}") Duration waitTimeout,
+                             @Value("${eaglebank.idempotency.max-body:64KB}") DataSize maxBody,
+                             MeterRegistry meterRegistry) {
+        if (maxBody.toBytes() <= 0 || maxBody.toBytes() >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("eaglebank.idempotency.max-body must be between 1 byte and 2GB");
+        }
+        this.store = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(ttl)
+                .build();
+        this.waitTimeout = waitTimeout;
+        this.maxBody = (int) maxBody.toBytes();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || !IDEMPOTENT_PATHS.contains(request.getRequestURI())
+                || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            reject(response, HttpStatus.BAD_REQUEST, IDEMPOTENCY_KEY_HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        if (request.getContentLengthLong() > maxBody) {
+            tooLarge(response);
+            return;
+        }
+        // one byte over the limit is enough to tell a body that doesn't fit, whatever the Content-Length said
+        byte[] body = request.getInputStream().readNBytes(maxBody + 1);
+        if (body.length > maxBody) {
+            tooLarge(response);
+            return;
+        }
+        byte[] fingerprint = sha256(body);
+        // keys are scoped to the caller and endpoint so two clients can't collide or read each other's results
+        String scope = request.getRequestURI() + '\n' + requester(request) + '\n' + key;
+
+        while (true) {
+            Entry mine = new Entry(fingerprint);
+            Entry existing = store.asMap().putIfAbsent(scope, mine);
+            if (existing == null) {
+                execute(scope, mine, new CachedBodyRequest(request, body), response, chain);
+                return;
+            }
+            if (!Arrays.equals(existing.fingerprint, fingerprint)) {
+                count("mismatch");
+                reject(response, HttpStatus.UNPROCESSABLE_ENTITY, IDEMPOTENCY_KEY_HEADER + " was already used with a different request body");
+                return;
+            }
+            StoredResponse stored;
+            try {
+                stored = existing.result.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException ex) {
+                count("in_flight");
+                reject(response, HttpStatus.CONFLICT, "A request with this " + IDEMPOTENCY_KEY_HEADER + " is still being processed");
+                return;
+            } catch (ExecutionException ex) {
+                // the original attempt failed and released the key; compete to run it again
+                continue;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new ServletException(ex);
+            }
+            count("replayed");
+            replay(stored, response);
+            return;
+        }
+    }
+
+    private void execute(String scope, Entry entry, HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, wrapper);
+        } catch (IOException | ServletException | RuntimeException ex) {
+            release(scope, entry, ex);
+            throw ex;
+        }
+        if (wrapper.getStatus() >= 500) {
+            release(scope, entry, new IllegalStateException("Request failed with status " + wrapper.getStatus()));
+        } else {
+            entry.result.complete(new StoredResponse(wrapper.getStatus(), wrapper.getContentType(),
+                    wrapper.getHeader(HttpHeaders.LOCATION), wrapper.getContentAsByteArray()));
+        }
+        count("executed");
+        wrapper.copyBodyToResponse();
+    }
+
+    private void release(String scope, Entry entry, Throwable cause) {
+        store.asMap().remove(scope, entry);
+        entry.result.completeExceptionally(cause);
+    }
+
+    private static void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status);
+        if (stored.contentType != null) {
+            response.setContentType(stored.contentType);
+        }
+        if (stored.location != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.location);
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body.length);
+        response.getOutputStream().write(stored.body);
+    }
+
+    private void tooLarge(HttpServletResponse response) throws IOException {
+        count("too_large");
+        reject(response, HttpStatus.PAYLOAD_TOO_LARGE, "Requests with an " + IDEMPOTENCY_KEY_HEADER + " are limited to " + maxBody + " bytes");
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write(message);
+    }
+
+    private static String requester(HttpServletRequest request) {
+        Object userId = request.getAttribute(AuthenticationFilter.USER_ID_ATTRIBUTE);
+        return userId != null ? userId.toString() : "";
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("eaglebank.idempotency.requests", "outcome", outcome).increment();
+    }
+
+    private static byte[] sha256(byte[] body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static final class Entry {
+        private final byte[] fingerprint;
+        private final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+
+        private Entry(byte[] fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    private record StoredResponse(int status, String contentType, String location, byte[] body) {
+    }
+
+    /** Request whose body has already been read, served again from memory. */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // the whole body is in memory, so it is available at once and never blocks
+                    try {
+                        if (!isFinished()) {
+                            listener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            listener.onAllDataRead();
+                        }
+                    } catch (IOException | RuntimeException ex) {
+                        listener.onError(ex);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.eaglebank.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles {@code POST /v1/users} and {@code POST /v1/accounts}, which each cost
+ * id generation and several existence queries. A request must get a token from
+ * the caller's bucket (when authenticated), its client address's bucket and
+ * the global bucket; otherwise it is answered with 429 and a {@code Retry-After}
+ * header, and the tokens it did get are given back, so a caller refused by a
+ * shared limit keeps its own quota. Per-key buckets live in a bounded map and are dropped after being
+ * idle, by which time they would have refilled anyway.
+ * <p>
+ * The client address is {@link HttpServletRequest#getRemoteAddr()}; behind a
+ * proxy, enable {@code server.forward-headers-strategy} so that it is the real client.
+ */
+@Component
+@Order(FilterOrder.RATE_LIMIT)
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final Set<String> LIMITED_PATHS = Set.of("/v1/users", "/v1/accounts");
+
+    private final Limit user;
+    private final Limit ip;
+    private final TokenBucket global;
+    private final Counter globalRejected;
+    private final Cache<String, TokenBucket> buckets;
+
+    public RateLimitFilter(@Value("${eaglebank.rate-limit.user.per-second:10}") double userRate,
+                           @Value("${eaglebank.rate-limit.user.burst:20}") int userBurst,
+                           @Value("${eaglebank.rate-limit.ip.per-second:50}") double ipRate,
+                           @Value("${eaglebank.rate-limit.ip.burst:200}") int ipBurst,
+                           @Value("${eaglebank.rate-limit.global.per-second:2000}") double globalRate,
+                           @Value("${eaglebank.rate-limit.global.burst:5000}") int globalBurst,
+                           @Value("${eaglebank.rate-limit.max-keys:100000}") long maxKeys,
+                           @Value("${eaglebank.rate-limit.idle-timeout:10m}") Duration idleTimeout,
+                           MeterRegistry meterRegistry) {
+        this.user = new Limit("user:", userRate, userBurst, rejectedCounter(meterRegistry, "user"));
+        this.ip = new Limit("ip:", ipRate, ipBurst, rejectedCounter(meterRegistry, "ip"));
+        this.global = new TokenBucket(globalRate, globalBurst, System.nanoTime());
+        this.globalRejected = rejectedCounter(meterRegistry, "global");
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !LIMITED_PATHS.contains(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.nanoTime();
+        Object userId = request.getAttribute(AuthenticationFilter.USER_ID_ATTRIBUTE);
+        TokenBucket userBucket = userId != null ? bucket(user, userId.toString(), now) : null;
+        TokenBucket ipBucket = bucket(ip, request.getRemoteAddr(), now);
+        long wait = userBucket != null ? acquire(user, userBucket, now) : 0;
+        if (wait == 0) {
+            wait = acquire(ip, ipBucket, now);
+            if (wait > 0 && userBucket != null) {
+                userBucket.release();
+            }
+        }
+        if (wait == 0) {
+            wait = global.tryAcquire(now);
+            if (wait > 0) {
+                globalRejected.increment();
+                ipBucket.release();
+                if (userBucket != null) {
+                    userBucket.release();
+                }
+            }
+        }
+        if (wait > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, ceilSeconds(wait))));
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write("Too many requests, retry later");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private TokenBucket bucket(Limit limit, String key, long now) {
+        return buckets.get(limit.prefix + key, k -> new TokenBucket(limit.perSecond, limit.burst, now));
+    }
+
+    private static long acquire(Limit limit, TokenBucket bucket, long now) {
+        long wait = bucket.tryAcquire(now);
+        if (wait > 0) {
+            limit.rejected.increment();
+        }
+        return wait;
+    }
+
+    private static long ceilSeconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String limit) {
+        return Counter.builder("eaglebank.ratelimit.rejected")
+                .description("Requests refused by a rate limit")
+                .tag("limit", limit)
+                .register(meterRegistry);
+    }
+
+    private record Limit(String prefix, double perSecond, int burst, Counter rejected) {
+    }
+}
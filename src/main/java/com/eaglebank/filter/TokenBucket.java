@@ -0,0 +1,53 @@
+package com.eaglebank.filter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket. Instead of a token count and a refill timestamp the
+ * whole state is one number: the instant at which the bucket would be full
+ * again. Taking a token pushes that instant one refill interval later, and a
+ * request is refused when doing so would need more than the bucket's capacity.
+ * A single compare-and-set per permit keeps it correct under contention without
+ * a lock or a background refill task.
+ */
+public final class TokenBucket {
+    private final long nanosPerToken;
+    private final long capacityNanos;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(double tokensPerSecond, int capacity, long nowNanos) {
+        if (tokensPerSecond <= 0 || capacity < 1) {
+            throw new IllegalArgumentException("Token bucket needs a positive rate and capacity");
+        }
+        this.nanosPerToken = Math.max(1, Math.round(1_000_000_000d / tokensPerSecond));
+        this.capacityNanos = nanosPerToken * capacity;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @return 0 when the token was taken, otherwise how many nanoseconds to wait before one is
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + nanosPerToken;
+            long debt = next - nowNanos - capacityNanos;
+            if (debt > 0) {
+                return debt;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back a token taken by {@link #tryAcquire}, for a request that another
+     * limit refused after all. A bucket that has refilled in the meantime stays full.
+     */
+    public void release() {
+        fullAt.addAndGet(-nanosPerToken);
+    }
+}
@@ -3,7 +3,12 @@ package com.eaglebank.model;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "accounts")
+@Table(name = "accounts", indexes = {
+        // back the keyset listings: filter columns first, then the sort key, then id as tie-breaker
+        @Index(name = "idx_accounts_type_id", columnList = "account_type, id"),
+        @Index(name = "idx_accounts_balance_id", columnList = "balance, id"),
+        @Index(name = "idx_accounts_type_balance_id", columnList = "account_type, balance, id")
+})
 public class Account {
     @Id
     private String id;
@@ -23,6 +28,13 @@ public class Account {
 
     private String currency;
 
+    // sequence of the last ledger event applied to this row
+    @Column(name = "last_event_sequence")
+    private long lastEventSequence;
+
+    @Version
+    private Long version;
+
     public Account() {
     }
 
@@ -64,6 +76,14 @@ public class Account {
         return currency;
     }
 
+    public long getLastEventSequence() {
+        return lastEventSequence;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
     public void setId(String id) {
         this.id = id;
     }
@@ -91,4 +111,8 @@ public class Account {
     public void setCurrency(String currency) {
         this.currency = currency;
     }
+
+    public void setLastEventSequence(long lastEventSequence) {
+        this.lastEventSequence = lastEventSequence;
+    }
 }
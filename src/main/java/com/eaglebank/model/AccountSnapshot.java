@@ -0,0 +1,46 @@
+package com.eaglebank.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Balance of an account as of one of its ledger events. Only the latest snapshot
+ * per account is kept; rebuilding the account starts here and replays the events
+ * after {@code sequence}.
+ */
+@Entity
+@Table(name = "account_snapshots")
+public class AccountSnapshot {
+    @Id
+    @Column(name = "account_id")
+    private String accountId;
+
+    @Column(name = "event_sequence", nullable = false)
+    private long sequence;
+
+    @Column(nullable = false)
+    private long balance;
+
+    @Column(name = "taken_at", nullable = false)
+    private Instant takenAt;
+
+    public AccountSnapshot() {
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getBalance() {
+        return balance;
+    }
+
+    public Instant getTakenAt() {
+        return takenAt;
+    }
+}
@@ -0,0 +1,64 @@
+package com.eaglebank.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+
+/**
+ * The side of a transfer between shards that committed first: its ledger event, and
+ * the event the other side was to write on the counterpart account's shard. Lives on
+ * the shard of {@code accountId} until that other event is known to have committed or
+ * this side has been reversed. {@code transferId} is set when the transfer row was
+ * written here too, i.e. when the source account is on this shard.
+ */
+@Entity
+@Immutable
+@Table(name = "cross_shard_legs")
+public class CrossShardLeg {
+    @Id
+    @Column(name = "transaction_id")
+    private Long transactionId;
+
+    @Column(name = "account_id", nullable = false, updatable = false)
+    private String accountId;
+
+    @Column(name = "counterpart_account_id", nullable = false, updatable = false)
+    private String counterpartAccountId;
+
+    @Column(name = "counterpart_transaction_id", nullable = false, updatable = false)
+    private long counterpartTransactionId;
+
+    @Column(name = "transfer_id", updatable = false)
+    private Long transferId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    public CrossShardLeg() {
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public String getCounterpartAccountId() {
+        return counterpartAccountId;
+    }
+
+    public long getCounterpartTransactionId() {
+        return counterpartTransactionId;
+    }
+
+    public Long getTransferId() {
+        return transferId;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
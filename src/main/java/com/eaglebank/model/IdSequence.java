@@ -0,0 +1,38 @@
+package com.eaglebank.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Persistent high-water mark for a named id sequence. Nodes reserve whole blocks
+ * by advancing {@code nextValue} under a row lock and then hand the ids out from
+ * memory.
+ */
+@Entity
+@Table(name = "id_sequences")
+public class IdSequence {
+    @Id
+    private String name;
+
+    @Column(name = "next_value", nullable = false)
+    private long nextValue;
+
+    public IdSequence() {
+    }
+
+    public IdSequence(String name, long nextValue) {
+        this.name = name;
+        this.nextValue = nextValue;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getNextValue() {
+        return nextValue;
+    }
+
+    public void setNextValue(long nextValue) {
+        this.nextValue = nextValue;
+    }
+}
@@ -0,0 +1,33 @@
+package com.eaglebank.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+
+/**
+ * The ledger of a closed account, queued to be deleted in chunks rather than in the
+ * transaction that closed it. Lives on the account's shard, next to the ledger.
+ */
+@Entity
+@Immutable
+@Table(name = "ledger_purges")
+public class LedgerPurge {
+    @Id
+    @Column(name = "account_id")
+    private String accountId;
+
+    @Column(name = "requested_at", nullable = false, updatable = false)
+    private Instant requestedAt;
+
+    public LedgerPurge() {
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public Instant getRequestedAt() {
+        return requestedAt;
+    }
+}
@@ -0,0 +1,80 @@
+package com.eaglebank.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A change to a user or account waiting to be relayed downstream. Rows are written
+ * in the transaction that made the change and deleted once a sink has taken them.
+ * {@code eventId} is stable across redeliveries, so consumers can drop duplicates.
+ */
+@Entity
+@Immutable
+@Table(name = "outbox_events")
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false, updatable = false)
+    private UUID eventId;
+
+    @Column(name = "aggregate_type", nullable = false, updatable = false, length = 32)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false, updatable = false)
+    private String aggregateId;
+
+    @Column(name = "event_type", nullable = false, updatable = false, length = 64)
+    private String eventType;
+
+    @Column(nullable = false, updatable = false, length = 4000)
+    private String payload;
+
+    @Column(name = "created_timestamp", nullable = false, updatable = false)
+    private Instant createdTimestamp;
+
+    public OutboxEvent() {
+    }
+
+    public OutboxEvent(String aggregateType, String aggregateId, String eventType, String payload, Instant createdTimestamp) {
+        this.eventId = UUID.randomUUID();
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdTimestamp = createdTimestamp;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public UUID getEventId() {
+        return eventId;
+    }
+
+    public String getAggregateType() {
+        return aggregateType;
+    }
+
+    public String getAggregateId() {
+        return aggregateId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    /** The changed resource as JSON. */
+    public String getPayload() {
+        return payload;
+    }
+
+    public Instant getCreatedTimestamp() {
+        return createdTimestamp;
+    }
+}
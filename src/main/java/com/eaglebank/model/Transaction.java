@@ -0,0 +1,101 @@
+package com.eaglebank.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+
+/**
+ * Append-only ledger entry and the event stream of its account. Rows are never
+ * updated once written; {@code sequence} numbers an account's events 1, 2, 3...
+ * and the owning {@link Account#getBalance()} is the projection of all of them.
+ */
+@Entity
+@Immutable
+@Table(name = "transactions", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_transactions_account_sequence", columnNames = {"account_id", "event_sequence"})
+}, indexes = {
+        // covers everything a replay reads, so replays never touch the table rows
+        @Index(name = "idx_transactions_replay", columnList = "account_id, event_sequence, type, amount")
+})
+public class Transaction {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false, updatable = false)
+    private String accountId;
+
+    @Column(name = "event_sequence", nullable = false, updatable = false)
+    private long sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private TransactionType type;
+
+    @Column(nullable = false, updatable = false)
+    private long amount;
+
+    @Column(name = "balance_after", nullable = false, updatable = false)
+    private long balanceAfter;
+
+    @Column(nullable = false, updatable = false)
+    private String currency;
+
+    @Column(updatable = false)
+    private String reference;
+
+    @Column(name = "created_timestamp", nullable = false, updatable = false)
+    private Instant createdTimestamp;
+
+    public Transaction() {
+    }
+
+    public Transaction(String accountId, long sequence, TransactionType type, long amount, long balanceAfter, String currency, String reference, Instant createdTimestamp) {
+        this.accountId = accountId;
+        this.sequence = sequence;
+        this.type = type;
+        this.amount = amount;
+        this.balanceAfter = balanceAfter;
+        this.currency = currency;
+        this.reference = reference;
+        this.createdTimestamp = createdTimestamp;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    public long getAmount() {
+        return amount;
+    }
+
+    public long getBalanceAfter() {
+        return balanceAfter;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public Instant getCreatedTimestamp() {
+        return createdTimestamp;
+    }
+}
@@ -0,0 +1,34 @@
+package com.eaglebank.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+public enum TransactionType {
+    DEPOSIT("deposit"),
+    WITHDRAWAL("withdrawal");
+
+    private final String value;
+
+    TransactionType(String value) {
+        this.value = value;
+    }
+
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+
+    @JsonCreator
+    public static TransactionType fromValue(String v) {
+        if (v == null) return null;
+        String norm = v.trim().toLowerCase();
+        switch (norm) {
+            case "deposit":
+                return DEPOSIT;
+            case "withdrawal":
+                return WITHDRAWAL;
+            default:
+                throw new IllegalArgumentException("Invalid transaction type: " + v);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.eaglebank.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+
+/**
+ * Movement of money between two accounts. The money itself moves through the
+ * two ledger entries it points at: a withdrawal on the source account and a
+ * deposit on the destination, written in the same database transaction.
+ */
+@Entity
+@Immutable
+@Table(name = "transfers", indexes = {
+        @Index(name = "idx_transfers_from_account", columnList = "from_account_id"),
+        @Index(name = "idx_transfers_to_account", columnList = "to_account_id")
+})
+public class Transfer {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transfers_seq")
+    @SequenceGenerator(name = "transfers_seq", sequenceName = "transfers_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "from_account_id", nullable = false, updatable = false)
+    private String fromAccountId;
+
+    @Column(name = "to_account_id", nullable = false, updatable = false)
+    private String toAccountId;
+
+    @Column(nullable = false, updatable = false)
+    private long amount;
+
+    @Column(nullable = false, updatable = false)
+    private String currency;
+
+    @Column(updatable = false)
+    private String reference;
+
+    @Column(name = "debit_transaction_id", nullable = false, updatable = false)
+    private long debitTransactionId;
+
+    @Column(name = "credit_transaction_id", nullable = false, updatable = false)
+    private long creditTransactionId;
+
+    @Column(name = "created_timestamp", nullable = false, updatable = false)
+    private Instant createdTimestamp;
+
+    // set for transfers accepted asynchronously, so a replayed journal entry can tell it was applied
+    @Column(name = "request_id", unique = true, updatable = false)
+    private String requestId;
+
+    public Transfer() {
+    }
+
+    public Transfer(String fromAccountId, String toAccountId, long amount, String currency, String reference,
+                    long debitTransactionId, long creditTransactionId, Instant createdTimestamp) {
+        this.fromAccountId = fromAccountId;
+        this.toAccountId = toAccountId;
+        this.amount = amount;
+        this.currency = currency;
+        this.reference = reference;
+        this.debitTransactionId = debitTransactionId;
+        this.creditTransactionId = creditTransactionId;
+        this.createdTimestamp = createdTimestamp;
+    }
+
+    public Transfer(String fromAccountId, String toAccountId, long amount, String currency, String reference,
+                    long debitTransactionId, long creditTransactionId, Instant createdTimestamp, String requestId) {
+        this(fromAccountId, toAccountId, amount, currency, reference, debitTransactionId, creditTransactionId, createdTimestamp);
+        this.requestId = requestId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getFromAccountId() {
+        return fromAccountId;
+    }
+
+    public String getToAccountId() {
+        return toAccountId;
+    }
+
+    public long getAmount() {
+        return amount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public long getDebitTransactionId() {
+        return debitTransactionId;
+    }
+
+    public long getCreditTransactionId() {
+        return creditTransactionId;
+    }
+
+    public Instant getCreatedTimestamp() {
+        return createdTimestamp;
+    }
+
+    public String getRequestId() {
+        return requestId;
+    }
+}
@@ -24,6 +24,9 @@ public class User {
 
     private String phoneNumber;
 
+    @Version
+    private Long version;
+
     public User() {
     }
 
@@ -61,6 +64,10 @@ public class User {
         return phoneNumber;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public void setId(String id) {
         this.id = id;
     }
@@ -82,6 +89,8 @@ public class User {
     }
 
     public UserDTO toDTO() {
-        return new UserDTO(this.id, this.name, this.email, this.address != null ? this.address.toDTO() : null, this.phoneNumber);
+        UserDTO dto = new UserDTO(this.id, this.name, this.email, this.address != null ? this.address.toDTO() : null, this.phoneNumber);
+        dto.setVersion(this.version);
+        return dto;
     }
 }
@@ -1,12 +1,95 @@
 package com.eaglebank.repository;
 
 import com.eaglebank.model.Account;
+import com.eaglebank.model.AccountType;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface AccountRepository extends JpaRepository<Account, String> {
-    boolean existsByAccountNumber(String accountNumber);
-    boolean existsBySortCode(String sortCode);
-}
+public interface AccountRepository extends JpaRepository<Account, String>, AccountStatementRepository, AccountViewRepository {
+
+    /** Loads the account with SELECT ... FOR UPDATE, blocking writers on other nodes until commit. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.id = :id")
+    Optional<Account> findByIdForUpdate(@Param("id") String id);
+
+    /** Locks several accounts in one statement, in id order like {@link #findByIdForUpdate} callers do. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.id in :ids order by a.id")
+    List<Account> findAllByIdForUpdate(@Param("ids") Collection<String> ids);
+
+    /** The version alone, read without loading the entity. */
+    @Query("select a.version from Account a where a.id = :id")
+    Optional<Long> findVersionById(@Param("id") String id);
+
+    /**
+     * Deletes the account only while its balance is zero. The DELETE takes the row lock
+     * and checks the balance under it, so a concurrent posting either lands first and
+     * keeps the account, or waits and then finds it gone.
+     */
+    @Modifying
+    @Query("delete from Account a where a.id = :id and a.balance = 0")
+    int deleteIfSettled(@Param("id") String id);
+
+    // Keyset queries: each one seeks straight to the cursor through an index and reads
+    // at most `limit` rows, so a page deep into the table costs the same as the first.
+    // The typed queries also sort by the (constant) account type so the planner sees that
+    // the index order already matches and stops after `limit` rows instead of sorting.
+
+    List<Account> findByIdGreaterThanOrderByIdAsc(String afterId, Limit limit);
 
+    List<Account> findByAccountTypeAndIdGreaterThanOrderByAccountTypeAscIdAsc(AccountType accountType, String afterId, Limit limit);
+
+    @Query("select a from Account a where a.balance >= :afterBalance and a.balance <= :maxBalance " +
+            "and (a.balance > :afterBalance or a.id > :afterId) order by a.balance, a.id")
+    List<Account> findPageByBalance(@Param("afterBalance") long afterBalance, @Param("afterId") String afterId,
+                                    @Param("maxBalance") long maxBalance, Limit limit);
+
+    @Query("select a from Account a where a.accountType = :accountType " +
+            "and a.balance >= :afterBalance and a.balance <= :maxBalance " +
+            "and (a.balance > :afterBalance or a.id > :afterId) order by a.accountType, a.balance, a.id")
+    List<Account> findPageByTypeAndBalance(@Param("accountType") AccountType accountType,
+                                           @Param("afterBalance") long afterBalance, @Param("afterId") String afterId,
+                                           @Param("maxBalance") long maxBalance, Limit limit);
+
+    // Projection rebuild: latest snapshot plus the signed amounts of the events after it.
+    // The tail is an index range seek on idx_transactions_replay per account, so the cost
+    // depends on the events since the snapshot rather than on the account's whole history.
+    String REPLAYED_PROJECTION = "select a.id as account_id, " +
+            "coalesce(s.balance, 0) + coalesce(sum(case when t.type = 'DEPOSIT' then t.amount else -t.amount end), 0) as balance, " +
+            "coalesce(max(t.event_sequence), s.event_sequence, 0) as last_event_sequence " +
+            "from accounts a left join account_snapshots s on s.account_id = a.id " +
+            "left join transactions t on t.account_id = a.id and t.event_sequence > coalesce(s.event_sequence, 0) ";
+    // rows that already agree are left alone, so a rebuild only writes (and versions) what drifted
+    String APPLY_PROJECTION = "on p.id = e.account_id when matched " +
+            "and (p.balance <> e.balance or p.last_event_sequence <> e.last_event_sequence) then update set " +
+            "balance = e.balance, last_event_sequence = e.last_event_sequence, version = version + 1";
+
+    @Modifying
+    @Query(nativeQuery = true, value = "merge into accounts p using (" + REPLAYED_PROJECTION +
+            "where a.id = :accountId group by a.id, s.balance, s.event_sequence) e " + APPLY_PROJECTION)
+    int rebuildProjection(@Param("accountId") String accountId);
+
+    @Modifying
+    @Query(nativeQuery = true, value = "merge into accounts p using (" + REPLAYED_PROJECTION +
+            "group by a.id, s.balance, s.event_sequence) e " + APPLY_PROJECTION)
+    int rebuildAllProjections();
+
+    /** Ids of accounts whose row disagrees with a full replay of their events, ignoring snapshots. */
+    @Query(nativeQuery = true, value = "select a.id from accounts a left join (" +
+            "select t.account_id, sum(case when t.type = 'DEPOSIT' then t.amount else -t.amount end) as balance, " +
+            "max(t.event_sequence) as last_event_sequence from transactions t group by t.account_id) e " +
+            "on e.account_id = a.id " +
+            "where a.balance <> coalesce(e.balance, 0) or a.last_event_sequence <> coalesce(e.last_event_sequence, 0)")
+    List<String> findIdsDivergingFromLedger();
+}
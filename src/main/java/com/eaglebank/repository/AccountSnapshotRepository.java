@@ -0,0 +1,35 @@
+package com.eaglebank.repository;
+
+import com.eaglebank.model.AccountSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface AccountSnapshotRepository extends JpaRepository<AccountSnapshot, String> {
+
+    /**
+     * Moves the snapshot of every account that has at least {@code minEvents} events
+     * since its last one up to its latest event. The balance is taken from that
+     * event's {@code balance_after}, so snapshots derive from the ledger alone.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "merge into account_snapshots s using (" +
+            "select a.id as account_id, t.event_sequence, t.balance_after from accounts a " +
+            "join transactions t on t.account_id = a.id and t.event_sequence = a.last_event_sequence " +
+            "left join account_snapshots p on p.account_id = a.id " +
+            "where a.last_event_sequence - coalesce(p.event_sequence, 0) >= :minEvents) e " +
+            "on s.account_id = e.account_id " +
+            "when matched then update set event_sequence = e.event_sequence, balance = e.balance_after, taken_at = :takenAt " +
+            "when not matched then insert (account_id, event_sequence, balance, taken_at) " +
+            "values (e.account_id, e.event_sequence, e.balance_after, :takenAt)")
+    int refreshSnapshots(@Param("minEvents") long minEvents, @Param("takenAt") Instant takenAt);
+
+    @Modifying
+    @Query("delete from AccountSnapshot s where s.accountId = :accountId")
+    int deleteSnapshot(@Param("accountId") String accountId);
+}
@@ -0,0 +1,21 @@
+package com.eaglebank.repository;
+
+import com.eaglebank.model.TransactionType;
+
+import java.time.Instant;
+import java.util.function.Consumer;
+
+public interface AccountStatementRepository {
+
+    /**
+     * Reads one account's ledger in event order through a forward-only cursor and
+     * hands each line to {@code consumer} as it is read, so nothing is collected on
+     * the heap. {@code from} (inclusive) and {@code to} (exclusive) may be null.
+     * Must run inside a transaction, which holds the cursor's connection.
+     */
+    void streamStatement(String accountId, Instant from, Instant to, Consumer<StatementLine> consumer);
+
+    record StatementLine(long id, TransactionType type, long amount, String currency, String reference,
+                         long balanceAfter, Instant createdTimestamp) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.eaglebank.repository;
+
+import com.eaglebank.model.TransactionType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+class AccountStatementRepositoryImpl implements AccountStatementRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    AccountStatementRepositoryImpl(DataSource dataSource,
+                                   @Value("${eaglebank.statements.fetch-size:500}") int fetchSize) {
+        // the transaction's connection is shared with JPA, so this sees the same shard and snapshot
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    @Override
+    public void streamStatement(String accountId, Instant from, Instant to, Consumer<StatementLine> consumer) {
+        // a range seek on uk_transactions_account_sequence, already in the order we return
+        StringBuilder sql = new StringBuilder("select id, type, amount, currency, reference, balance_after, created_timestamp " +
+                "from transactions where account_id = ?");
+        List<Object> args = new ArrayList<>(3);
+        args.add(accountId);
+        if (from != null) {
+            sql.append(" and created_timestamp >= ?");
+            args.add(from.atOffset(ZoneOffset.UTC));
+        }
+        if (to != null) {
+            sql.append(" and created_timestamp < ?");
+            args.add(to.atOffset(ZoneOffset.UTC));
+        }
+        sql.append(" order by event_sequence");
+
+        // JdbcTemplate statements are TYPE_FORWARD_ONLY / CONCUR_READ_ONLY, and a row
+        // callback consumes each row before the next is fetched
+        jdbcTemplate.query(sql.toString(), rs -> {
+            consumer.accept(new StatementLine(
+                    rs.getLong(1),
+                    TransactionType.valueOf(rs.getString(2)),
+                    rs.getLong(3),
+                    rs.getString(4),
+                    rs.getString(5),
+                    rs.getLong(6),
+                    rs.getObject(7, OffsetDateTime.class).toInstant()));
+        }, args.toArray());
+    }
+}
@@ -0,0 +1,14 @@
+package com.eaglebank.repository;
+
+import com.eaglebank.dto.AccountDTO;
+
+import java.util.Optional;
+
+public interface AccountViewRepository {
+
+    /**
+     * The account as the API returns it, mapped straight from the row: no entity
+     * or persistence-context entry on the way. Must run on the account's shard.
+     */
+    Optional<AccountDTO> findDTOById(String id);
+}
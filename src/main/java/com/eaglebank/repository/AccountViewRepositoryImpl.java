@@ -0,0 +1,33 @@
+package com.eaglebank.repository;
+
+import com.eaglebank.dto.AccountDTO;
+import com.eaglebank.model.AccountType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Optional;
+
+class AccountViewRepositoryImpl implements AccountViewRepository {
+    private static final String SELECT = "select id, account_number, sort_code, name, account_type, balance, currency, version " +
+            "from accounts where id = ?";
+    private static final RowMapper<AccountDTO> ROW = (rs, n) -> {
+        String type = rs.getString(5);
+        return new AccountDTO(rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                type != null ? AccountType.valueOf(type) : null, rs.getLong(6), rs.getString(7), rs.getObject(8, Long.class));
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    AccountViewRepositoryImpl(DataSource dataSource) {
+        // the transaction's connection is shared with JPA, so this sees the same shard and snapshot
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public Optional<AccountDTO> findDTOById(String id) {
+        List<AccountDTO> rows = jdbcTemplate.query(SELECT, ROW, id);
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+}
@@ -0,0 +1,35 @@
+package com.eaglebank.repository;
+
+import com.eaglebank.model.CrossShardLeg;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface CrossShardLegRepository extends JpaRepository<CrossShardLeg, Long> {
+
+    /** A plain insert; {@code save} would first look the id up to decide between insert and merge. */
+    @Modifying
+    @Query(nativeQuery = true, value = "insert into cross_shard_legs " +
+            "(transaction_id, account_id, counterpart_account_id, counterpart_transaction_id, transfer_id, created_at) " +
+            "values (:transactionId, :accountId, :counterpartAccountId, :counterpartTransactionId, :transferId, :createdAt)")
+    void record(@Param("transactionId") long transactionId,
+                @Param("accountId") String accountId,
+                @Param("counterpartAccountId") String counterpartAccountId,
+                @Param("counterpartTransactionId") long counterpartTransactionId,
+                @Param("transferId") Long transferId,
+                @Param("createdAt") Instant createdAt);
+
+    /** Drops the leg and returns 1, or 0 when it was already settled. */
+    @Modifying
+    @Query(nativeQuery = true, value = "delete from cross_shard_legs where transaction_id = :transactionId")
+    int release(@Param("transactionId") long transactionId);
+
+    List<CrossShardLeg> findByCreatedAtBeforeOrderByCreatedAtAsc(Instant before, Limit limit);
+}
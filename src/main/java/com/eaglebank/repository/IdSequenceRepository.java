@@ -0,0 +1,18 @@
+package com.eaglebank.repository;
+
+import com.eaglebank.model.IdSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface IdSequenceRepository extends JpaRepository<IdSequence, String> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from IdSequence s where s.name = :name")
+    Optional<IdSequence> findForUpdate(@Param("name") String name);
+}
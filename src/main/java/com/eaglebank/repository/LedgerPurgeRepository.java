@@ -0,0 +1,23 @@
+package com.eaglebank.repository;
+
+import com.eaglebank.model.LedgerPurge;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface LedgerPurgeRepository extends JpaRepository<LedgerPurge, String> {
+
+    /** A plain insert; {@code save} would first look the id up to decide between insert and merge. */
+    @Modifying
+    @Query(nativeQuery = true, value = "insert into ledger_purges (account_id, requested_at) values (:accountId, :requestedAt)")
+    void schedule(@Param("accountId") String accountId, @Param("requestedAt") Instant requestedAt);
+
+    List<LedgerPurge> findAllByOrderByRequestedAtAsc(Limit limit);
+}
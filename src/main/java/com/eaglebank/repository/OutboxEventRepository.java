@@ -0,0 +1,27 @@
+package com.eaglebank.repository;
+
+import com.eaglebank.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * The oldest pending events, locked so a relay on another node waits for this
+     * batch to be delivered and deleted instead of sending it again out of order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from OutboxEvent e order by e.id")
+    List<OutboxEvent> findOldestForUpdate(Limit limit);
+
+    @Query("select min(e.createdTimestamp) from OutboxEvent e")
+    Instant findOldestCreatedTimestamp();
+}
@@ -0,0 +1,30 @@
+package com.eaglebank.repository;
+
+import com.eaglebank.model.Transaction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+    Optional<Transaction> findByIdAndAccountId(Long id, String accountId);
+    long countByAccountId(String accountId);
+
+    // native: Hibernate refuses bulk mutations of @Immutable entities, and a derived
+    // deleteByAccountId would load and remove the events one by one
+
+    /** Deletes the account's whole ledger in one statement. */
+    @Modifying
+    @Query(nativeQuery = true, value = "delete from transactions where account_id = :accountId")
+    int deleteLedger(@Param("accountId") String accountId);
+
+    /** Deletes at most {@code limit} of the account's events, so a large ledger can go in short transactions. */
+    @Modifying
+    @Query(nativeQuery = true, value = "delete from transactions where id in (" +
+            "select id from transactions where account_id = :accountId fetch first :limit rows only)")
+    int deleteLedgerChunk(@Param("accountId") String accountId, @Param("limit") int limit);
+}
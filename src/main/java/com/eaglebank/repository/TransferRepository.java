@@ -0,0 +1,21 @@
+package com.eaglebank.repository;
+
+import com.eaglebank.model.Transfer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TransferRepository extends JpaRepository<Transfer, Long> {
+    Optional<Transfer> findByRequestId(String requestId);
+    boolean existsByRequestId(String requestId);
+
+    // native: Hibernate refuses bulk mutations of @Immutable entities
+    @Modifying
+    @Query(nativeQuery = true, value = "delete from transfers where id = :id")
+    int deleteTransfer(@Param("id") long id);
+}
@@ -0,0 +1,16 @@
+package com.eaglebank.repository;
+
+import com.eaglebank.model.User;
+
+import java.util.Map;
+import java.util.Optional;
+
+public interface UserPatchRepository {
+
+    /**
+     * Sets only the given columns of one user and bumps its version in a single
+     * statement that also returns the updated row. When {@code expectedVersion} is
+     * not null the update only applies to that version. Empty when no row matched.
+     */
+    Optional<User> patchColumns(String userId, Map<String, Object> columns, Long expectedVersion);
+}
@@ -0,0 +1,49 @@
+package com.eaglebank.repository;
+
+import com.eaglebank.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+class UserPatchRepositoryImpl implements UserPatchRepository {
+
+    private final EntityManager entityManager;
+
+    UserPatchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public Optional<User> patchColumns(String userId, Map<String, Object> columns, Long expectedVersion) {
+        // FINAL TABLE reads the row as the UPDATE left it, so no follow-up SELECT is needed
+        // (UPDATE ... RETURNING * on databases that have it). Column names come from
+        // UserService's fixed mapping, never from the request, and values are bound.
+        StringBuilder sql = new StringBuilder("select * from final table (update users set ");
+        for (String column : columns.keySet()) {
+            sql.append(column).append(" = ?, ");
+        }
+        sql.append("version = version + 1 where id = ?");
+        if (expectedVersion != null) {
+            sql.append(" and version = ?");
+        }
+        sql.append(')');
+
+        Query query = entityManager.createNativeQuery(sql.toString(), User.class);
+        int position = 1;
+        for (Object value : columns.values()) {
+            query.setParameter(position++, value);
+        }
+        query.setParameter(position++, userId);
+        if (expectedVersion != null) {
+            query.setParameter(position, expectedVersion);
+        }
+        List<User> updated = query.getResultList();
+        return updated.stream().findFirst();
+    }
+}
@@ -1,9 +1,27 @@
 package com.eaglebank.repository;
 import com.eaglebank.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 
 @Repository
-public interface UserRepository extends JpaRepository<User, String> {
+public interface UserRepository extends JpaRepository<User, String>, UserPatchRepository, UserViewRepository {
+
+    List<User> findByIdGreaterThanOrderByIdAsc(String afterId, Limit limit);
+
+    /** The version alone, read from the primary key index without loading the entity. */
+    @Query("select u.version from User u where u.id = :id")
+    Optional<Long> findVersionById(@Param("id") String id);
+
+    /** One DELETE by primary key, where {@code deleteById} would load the user first. */
+    @Modifying
+    @Query("delete from User u where u.id = :id")
+    int deleteUser(@Param("id") String id);
 }
@@ -0,0 +1,14 @@
+package com.eaglebank.repository;
+
+import com.eaglebank.dto.UserDTO;
+
+import java.util.Optional;
+
+public interface UserViewRepository {
+
+    /**
+     * The user as the API returns it, mapped straight from the row: no entity,
+     * persistence-context entry or {@code User.toDTO()} copy on the way.
+     */
+    Optional<UserDTO> findDTOById(String id);
+}
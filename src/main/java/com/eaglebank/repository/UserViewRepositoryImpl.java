@@ -0,0 +1,31 @@
+package com.eaglebank.repository;
+
+import com.eaglebank.dto.UserDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Optional;
+
+class UserViewRepositoryImpl implements UserViewRepository {
+    private static final String SELECT = "select id, name, email, address_line1, address_line2, address_line3, " +
+            "address_town, address_county, address_postcode, phone_number, version from users where id = ?";
+    private static final RowMapper<UserDTO> ROW = (rs, n) -> new UserDTO(
+            rs.getString(1), rs.getString(2), rs.getString(3),
+            rs.getString(4), rs.getString(5), rs.getString(6), rs.getString(7), rs.getString(8), rs.getString(9),
+            rs.getString(10), rs.getObject(11, Long.class));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    UserViewRepositoryImpl(DataSource dataSource) {
+        // the transaction's connection is shared with JPA, so this reads what JPA would
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public Optional<UserDTO> findDTOById(String id) {
+        List<UserDTO> rows = jdbcTemplate.query(SELECT, ROW, id);
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+}
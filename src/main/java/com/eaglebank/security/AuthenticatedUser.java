@@ -0,0 +1,12 @@
+package com.eaglebank.security;
+
+import java.time.Instant;
+import java.util.Set;
+
+/** Claims of a bearer token whose signature has been checked. */
+public record AuthenticatedUser(String userId, Set<String> scopes, Instant expiresAt) {
+
+    public boolean hasScope(String scope) {
+        return scopes.contains(scope);
+    }
+}
@@ -0,0 +1,57 @@
+package com.eaglebank.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed pool of striped locks used to serialise balance updates per account
+ * inside this node. Accounts hash onto a stripe, so unrelated accounts rarely
+ * contend while postings to the same account queue up instead of failing their
+ * optimistic version check.
+ */
+@Component
+public class AccountLocks {
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public AccountLocks(@Value("${eaglebank.account-locks.stripes:256}") int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("eaglebank.account-locks.stripes must be positive");
+        }
+        int size = Integer.highestOneBit(stripeCount - 1) << 1;
+        if (size <= 0) size = 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    public Lock lockFor(String accountId) {
+        return stripes[stripeOf(accountId)];
+    }
+
+    /**
+     * Locks covering all the given accounts, each stripe once, in ascending stripe
+     * order. Acquiring them in this order means two threads locking overlapping sets
+     * can never each hold one lock and wait for the other.
+     */
+    public List<Lock> orderedLocksFor(Collection<String> accountIds) {
+        return accountIds.stream()
+                .mapToInt(this::stripeOf)
+                .sorted()
+                .distinct()
+                .mapToObj(stripe -> (Lock) stripes[stripe])
+                .toList();
+    }
+
+    public int stripeOf(String accountId) {
+        int h = accountId.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,104 @@
+package com.eaglebank.service;
+
+import com.eaglebank.config.CacheConfig;
+import com.eaglebank.config.MetricsConfig;
+import com.eaglebank.exception.AccountNotFoundException;
+import com.eaglebank.repository.AccountRepository;
+import com.eaglebank.repository.AccountSnapshotRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Treats the ledger as the source of truth for balances. {@code Account.balance}
+ * is a projection kept current by {@link TransactionService}; this service
+ * snapshots it periodically so a rebuild only replays the events after the
+ * latest snapshot, and audits the projection against a full replay.
+ */
+@Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
+public class AccountProjectionService {
+    private static final Logger log = LoggerFactory.getLogger(AccountProjectionService.class);
+
+    private final AccountRepository accountRepository;
+    private final AccountSnapshotRepository snapshotRepository;
+    private final AccountLocks accountLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountShards accountShards;
+    private final long snapshotMinEvents;
+
+    public AccountProjectionService(AccountRepository accountRepository,
+                                    AccountSnapshotRepository snapshotRepository,
+                                    AccountLocks accountLocks,
+                                    TransactionTemplate transactionTemplate,
+                                    AccountShards accountShards,
+                                    @Value("${eaglebank.snapshots.min-events:100}") long snapshotMinEvents) {
+        if (snapshotMinEvents <= 0) {
+            throw new IllegalArgumentException("eaglebank.snapshots.min-events must be positive");
+        }
+        this.accountRepository = accountRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.accountLocks = accountLocks;
+        this.transactionTemplate = transactionTemplate;
+        this.accountShards = accountShards;
+        this.snapshotMinEvents = snapshotMinEvents;
+    }
+
+    /**
+     * Snapshots every account with at least {@code eaglebank.snapshots.min-events}
+     * events since its last snapshot, which bounds how much a rebuild replays.
+     */
+    @Scheduled(fixedDelayString = "${eaglebank.snapshots.interval:60s}", initialDelayString = "${eaglebank.snapshots.interval:60s}")
+    public int takeSnapshots() {
+        Instant now = Instant.now();
+        int taken = accountShards.onEachShard(() -> transactionTemplate.execute(status ->
+                snapshotRepository.refreshSnapshots(snapshotMinEvents, now))).stream().mapToInt(Integer::intValue).sum();
+        if (taken > 0) {
+            log.debug("Snapshotted {} accounts", taken);
+        }
+        return taken;
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.ACCOUNTS, key = "#accountId")
+    public void rebuild(String accountId) {
+        // same stripe lock as postings, so no event lands between the replay and the write
+        Lock lock = accountLocks.lockFor(accountId);
+        lock.lock();
+        try {
+            accountShards.onShardOf(accountId, () -> transactionTemplate.executeWithoutResult(status -> {
+                if (!accountRepository.existsById(accountId)) {
+                    throw new AccountNotFoundException(accountId);
+                }
+                accountRepository.rebuildProjection(accountId);
+            }));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Rebuilds every account in one statement and returns how many had drifted.
+     * Meant for recovery with postings stopped: it does not take the per-account locks.
+     */
+    @CacheEvict(cacheNames = CacheConfig.ACCOUNTS, allEntries = true)
+    public int rebuildAll() {
+        return accountShards.onEachShard(() -> transactionTemplate.execute(status -> accountRepository.rebuildAllProjections()))
+                .stream().mapToInt(Integer::intValue).sum();
+    }
+
+    public List<String> audit() {
+        return accountShards.onEachShard(accountRepository::findIdsDivergingFromLedger).stream()
+                .flatMap(List::stream)
+                .sorted()
+                .toList();
+    }
+}
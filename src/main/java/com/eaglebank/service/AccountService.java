@@ -1,34 +1,79 @@
 package com.eaglebank.service;
 
+import com.eaglebank.config.CacheConfig;
+import com.eaglebank.config.MetricsConfig;
 import com.eaglebank.dto.AccountDTO;
+import com.eaglebank.dto.PageDTO;
 import com.eaglebank.exception.AccountNotFoundException;
 import com.eaglebank.model.Account;
 import com.eaglebank.model.AccountType;
 import com.eaglebank.repository.AccountRepository;
+import com.eaglebank.repository.AccountSnapshotRepository;
+import com.eaglebank.repository.LedgerPurgeRepository;
+import com.eaglebank.repository.TransactionRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-
-import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
 @Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 public class AccountService {
     private final AccountRepository accountRepository;
-    private static final AtomicLong ACCOUNT_COUNTER = new AtomicLong(1234567L);
-    private static final AtomicLong SORT_COUNTER = new AtomicLong(101010L);
+    private final AccountSnapshotRepository snapshotRepository;
+    private final TransactionRepository transactionRepository;
+    private final LedgerPurgeRepository ledgerPurgeRepository;
+    private final IdBlockAllocator accountNumbers;
+    private final IdBlockAllocator sortCodes;
+    private final RecentWrites recentWrites;
+    private final AccountShards accountShards;
+    private final Outbox outbox;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache accounts;
+    private final boolean purgeLedgerLater;
 
     private static final Pattern USER_ID_PATTERN = Pattern.compile("^usr-[A-Za-z0-9]{5}$");
 
-    public AccountService(AccountRepository accountRepository) {
+    public AccountService(AccountRepository accountRepository, AccountSnapshotRepository snapshotRepository,
+                          TransactionRepository transactionRepository, LedgerPurgeRepository ledgerPurgeRepository,
+                          IdAllocationService idAllocationService, RecentWrites recentWrites,
+                          AccountShards accountShards, Outbox outbox, TransactionTemplate transactionTemplate,
+                          CacheManager cacheManager,
+                          @Value("${eaglebank.ledger-purge.mode:sync}") String ledgerPurgeMode) {
+        if (!ledgerPurgeMode.equals("sync") && !ledgerPurgeMode.equals("async")) {
+            throw new IllegalArgumentException("eaglebank.ledger-purge.mode must be sync or async, was " + ledgerPurgeMode);
+        }
         this.accountRepository = accountRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.transactionRepository = transactionRepository;
+        this.ledgerPurgeRepository = ledgerPurgeRepository;
+        this.purgeLedgerLater = ledgerPurgeMode.equals("async");
+        this.recentWrites = recentWrites;
+        this.accountShards = accountShards;
+        this.outbox = outbox;
+        this.transactionTemplate = transactionTemplate;
+        this.accounts = cacheManager.getCache(CacheConfig.ACCOUNTS);
+        this.accountNumbers = idAllocationService.allocator("account_number", 1234567L, 100_000_000L);
+        this.sortCodes = idAllocationService.allocator("sort_code", 101010L, 1_000_000L);
     }
 
     public AccountDTO createAccount(String userId, AccountDTO dto) {
         if (userId == null || !USER_ID_PATTERN.matcher(userId).matches()) {
-            throw new IllegalArgumentException("user-id header is required and must match pattern 'usr-xxxxx'");
-        }
-
-        if (accountRepository.existsById(userId)) {
-            throw new IllegalStateException("An account with the provided user-id already exists");
+            throw new IllegalArgumentException("Authenticated user id must match pattern 'usr-xxxxx'");
         }
 
         AccountType type = dto.getAccountType();
@@ -36,56 +81,158 @@ public class AccountService {
             throw new IllegalArgumentException("accountType is required and must be one of 'personal' or 'business'");
         }
 
-        String accountNumber;
-        String sortCode;
-
-        int attempts = 0;
-        final int maxAttempts = 10;
-        do {
-            accountNumber = generateAccountNumber();
-            attempts++;
-        } while (accountRepository.existsByAccountNumber(accountNumber) && attempts < maxAttempts);
-
-        if (accountRepository.existsByAccountNumber(accountNumber)) {
-            throw new IllegalStateException("Failed to generate unique account number");
-        }
-
-        attempts = 0;
-        do {
-            sortCode = generateSortCode();
-            attempts++;
-        } while (accountRepository.existsBySortCode(sortCode) && attempts < maxAttempts);
-
-        if (accountRepository.existsBySortCode(sortCode)) {
-            throw new IllegalStateException("Failed to generate unique sort code");
-        }
-
+        // Allocated numbers are unique by construction, so no existence checks are needed;
+        // a second account for the same user is caught by the primary key on insert. The
+        // allocators live in the global database, which keeps numbers unique across shards.
         Account account = new Account();
         account.setId(userId);
-        account.setAccountNumber(accountNumber);
-        account.setSortCode(sortCode);
+        account.setAccountNumber(generateAccountNumber());
+        account.setSortCode(generateSortCode());
         account.setName(dto.getName());
         account.setAccountType(type);
         account.setBalance(0L);
         account.setCurrency("GBP");
 
-        Account saved = accountRepository.save(account);
-        return new AccountDTO(saved.getAccountNumber(), saved.getSortCode(), saved.getName(), saved.getAccountType(), saved.getBalance(), saved.getCurrency());
+        AccountDTO created;
+        try {
+            // the event goes to the account's shard, in the transaction that inserts it
+            created = accountShards.onShardOf(userId, () -> transactionTemplate.execute(status -> {
+                AccountDTO saved = toDTO(accountRepository.saveAndFlush(account));
+                // checked after the insert, which waits for a concurrent close of the same id
+                // to commit, so a purge queued by that close is visible here
+                if (ledgerPurgeRepository.existsById(userId)) {
+                    throw new IllegalStateException("The previous account of user " + userId
+                            + " is still being closed; try again shortly");
+                }
+                outbox.append(Outbox.ACCOUNT, userId, "AccountCreated", saved);
+                return saved;
+            }));
+        } catch (DataIntegrityViolationException ex) {
+            throw new IllegalStateException("An account already exists for user " + userId);
+        }
+        recentWrites.record(userId);
+        return created;
+    }
+
+    /**
+     * Removes the account with id {@code accountId}, its snapshot and its ledger, in a
+     * handful of bulk statements however long the ledger is. Nothing is loaded. An
+     * account still holding money is refused with an {@link IllegalStateException};
+     * an account that does not exist is not an error. With
+     * {@code eaglebank.ledger-purge.mode=async} the ledger is queued for
+     * {@link LedgerPurger} instead of deleted here. Transfer records are kept: they
+     * are also the counterparty's history.
+     * <p>
+     * Runs in the caller's transaction, which must be on the account's shard. Callers
+     * evict the account from the cache.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void closeAccount(String accountId) {
+        if (accountRepository.deleteIfSettled(accountId) == 0) {
+            if (accountRepository.existsById(accountId)) {
+                throw new IllegalStateException("Account " + accountId + " still holds a balance; "
+                        + "withdraw or transfer it before deleting the user");
+            }
+            return;
+        }
+        snapshotRepository.deleteSnapshot(accountId);
+        if (purgeLedgerLater) {
+            ledgerPurgeRepository.schedule(accountId, Instant.now());
+        } else {
+            transactionRepository.deleteLedger(accountId);
+        }
+        outbox.append(Outbox.ACCOUNT, accountId, "AccountClosed", Map.of("id", accountId));
+        recentWrites.record(accountId);
     }
 
+    @Cacheable(cacheNames = CacheConfig.ACCOUNTS, key = "#id")
+    @Transactional(readOnly = true)
     public AccountDTO getAccountById(String id) {
-        return accountRepository.findById(id)
-                .map(a -> new AccountDTO(a.getAccountNumber(), a.getSortCode(), a.getName(), a.getAccountType(), a.getBalance(), a.getCurrency()))
+        recentWrites.beforeRead(id);
+        return accountShards.onShardOf(id, () -> accountRepository.findDTOById(id))
+                .orElseThrow(() -> new AccountNotFoundException(id));
+    }
+
+    /**
+     * The account's current version, for answering conditional requests without building
+     * an {@link AccountDTO}: taken from the cached one when there is one, else a lookup
+     * of the version column alone.
+     */
+    @Transactional(readOnly = true)
+    public long getAccountVersion(String id) {
+        AccountDTO cached = accounts != null ? accounts.get(id, AccountDTO.class) : null;
+        if (cached != null) {
+            return cached.getVersion();
+        }
+        recentWrites.beforeRead(id);
+        return accountShards.onShardOf(id, () -> accountRepository.findVersionById(id))
                 .orElseThrow(() -> new AccountNotFoundException(id));
     }
 
+    /**
+     * Lists accounts by keyset, optionally filtered by type and balance range. Without a
+     * balance range pages are ordered by id; with one they are ordered by (balance, id) so
+     * the range itself is an index seek. Each shard returns its own first page after the
+     * cursor and the pages are merged, so a page costs one seek per shard.
+     */
+    public PageDTO<AccountDTO> listAccounts(AccountType accountType, Long minBalance, Long maxBalance, String cursor, int limit) {
+        Limit fetch = KeysetCursor.fetchLimit(limit);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+
+        Supplier<List<Account>> page;
+        Comparator<Account> order;
+        if (minBalance == null && maxBalance == null) {
+            page = accountType == null
+                    ? () -> accountRepository.findByIdGreaterThanOrderByIdAsc(after.id(), fetch)
+                    : () -> accountRepository.findByAccountTypeAndIdGreaterThanOrderByAccountTypeAscIdAsc(accountType, after.id(), fetch);
+            order = Comparator.comparing(Account::getId);
+        } else {
+            long min = minBalance != null ? minBalance : Long.MIN_VALUE;
+            long max = maxBalance != null ? maxBalance : Long.MAX_VALUE;
+            if (min > max) {
+                throw new IllegalArgumentException("minBalance must not be greater than maxBalance");
+            }
+            // the first page starts at the bottom of the range; "" sorts before every id
+            KeysetCursor from = after.sortValue() < min ? new KeysetCursor(min, "") : after;
+            page = accountType == null
+                    ? () -> accountRepository.findPageByBalance(from.sortValue(), from.id(), max, fetch)
+                    : () -> accountRepository.findPageByTypeAndBalance(accountType, from.sortValue(), from.id(), max, fetch);
+            order = Comparator.comparingLong(Account::getBalance).thenComparing(Account::getId);
+        }
+        List<Account> rows = merge(accountShards.onEachShard(page), order, fetch.max());
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            Account last = rows.get(limit - 1);
+            nextCursor = new KeysetCursor(last.getBalance(), last.getId()).encode();
+        }
+        return new PageDTO<>(rows.stream().map(AccountService::toDTO).toList(), nextCursor);
+    }
+
+    private static List<Account> merge(List<List<Account>> pages, Comparator<Account> order, int max) {
+        if (pages.size() == 1) {
+            return pages.get(0);
+        }
+        return pages.stream()
+                .flatMap(List::stream)
+                .sorted(order)
+                .limit(max)
+                .toList();
+    }
+
+    private static AccountDTO toDTO(Account a) {
+        return new AccountDTO(a.getId(), a.getAccountNumber(), a.getSortCode(), a.getName(), a.getAccountType(),
+                a.getBalance(), a.getCurrency(), a.getVersion());
+    }
+
     private String generateAccountNumber() {
-        long next = ACCOUNT_COUNTER.getAndIncrement();
+        long next = accountNumbers.next();
         return String.format("%08d", next);
     }
 
     private String generateSortCode() {
-        long next = SORT_COUNTER.getAndIncrement();
+        long next = sortCodes.next();
         String raw = String.format("%06d", next);
         return raw.substring(0,2) + "-" + raw.substring(2,4) + "-" + raw.substring(4,6);
     }
@@ -0,0 +1,93 @@
+package com.eaglebank.service;
+
+import com.eaglebank.config.ShardRoutingDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Maps account ids to the shard holding their data and runs work there. With
+ * {@code eaglebank.sharding.urls} unset there is a single shard and work runs
+ * as it is, against the one database.
+ */
+@Component
+public class AccountShards implements DisposableBean {
+    private final int count;
+    private final ExecutorService scatter;
+
+    public AccountShards(@Value("${eaglebank.sharding.urls:}") List<String> urls) {
+        this.count = Math.max(1, urls.size());
+        this.scatter = count > 1 ? Executors.newFixedThreadPool(count, Thread.ofPlatform().name("shard-scatter-", 0).daemon().factory()) : null;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /** The shard of {@code accountId}: a mixed hash of the id, so neighbouring ids land apart. */
+    public int shardOf(String accountId) {
+        if (count == 1) {
+            return 0;
+        }
+        int h = accountId.hashCode() * 0x9E3779B9;
+        return Math.floorMod(h ^ (h >>> 16), count);
+    }
+
+    public boolean sameShard(String accountId, String otherAccountId) {
+        return shardOf(accountId) == shardOf(otherAccountId);
+    }
+
+    /** Runs {@code work}, including any transaction it starts, against the shard of {@code accountId}. */
+    public <T> T onShardOf(String accountId, Supplier<T> work) {
+        return count == 1 ? work.get() : ShardRoutingDataSource.onShard(shardOf(accountId), work);
+    }
+
+    public void onShardOf(String accountId, Runnable work) {
+        onShardOf(accountId, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs {@code work} on every shard at once and returns the results in shard order.
+     * Each run needs its own transaction: one transaction can only reach one shard.
+     */
+    public <T> List<T> onEachShard(Supplier<T> work) {
+        if (count == 1) {
+            return List.of(work.get());
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(count);
+        for (int shard = 0; shard < count; shard++) {
+            int target = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> ShardRoutingDataSource.onShard(target, work), scatter));
+        }
+        List<T> results = new ArrayList<>(count);
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+        return results;
+    }
+
+    @Override
+    public void destroy() {
+        if (scatter != null) {
+            scatter.shutdownNow();
+        }
+    }
+}
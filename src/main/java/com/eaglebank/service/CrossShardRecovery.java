@@ -0,0 +1,193 @@
+package com.eaglebank.service;
+
+import com.eaglebank.config.CacheConfig;
+import com.eaglebank.model.Account;
+import com.eaglebank.model.CrossShardLeg;
+import com.eaglebank.model.Transaction;
+import com.eaglebank.model.TransactionType;
+import com.eaglebank.repository.AccountRepository;
+import com.eaglebank.repository.CrossShardLegRepository;
+import com.eaglebank.repository.TransactionRepository;
+import com.eaglebank.repository.TransferRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Settles the legs {@link CrossShardTransfers} leaves in {@code cross_shard_legs} when
+ * the other side of a transfer failed or the node died before dropping them. A leg is
+ * settled by locking the counterpart account: the transfer's other transaction held
+ * that row lock until it ended, so it has committed or rolled back by then. If its
+ * event is there the leg is just dropped; otherwise the leg is reversed with an
+ * opposite event and its transfer row deleted. Legs older than
+ * {@code eaglebank.transfers.cross-shard.recovery-interval} are settled on every shard
+ * at that interval.
+ */
+@Component
+public class CrossShardRecovery {
+    private static final Logger log = LoggerFactory.getLogger(CrossShardRecovery.class);
+    private static final Limit LEGS_PER_PASS = Limit.of(100);
+
+    private final AccountRepository accountRepository;
+    private final TransferRepository transferRepository;
+    private final TransactionRepository transactionRepository;
+    private final CrossShardLegRepository legRepository;
+    private final Ledger ledger;
+    private final AccountShards accountShards;
+    private final AccountLocks accountLocks;
+    private final RecentWrites recentWrites;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate outer;
+    private final TransactionTemplate nested;
+    private final Duration recoveryInterval;
+    private final Counter confirmed;
+    private final Counter reversed;
+    private final Counter unsettled;
+
+    public CrossShardRecovery(AccountRepository accountRepository,
+                              TransferRepository transferRepository,
+                              TransactionRepository transactionRepository,
+                              CrossShardLegRepository legRepository,
+                              Ledger ledger,
+                              AccountShards accountShards,
+                              AccountLocks accountLocks,
+                              RecentWrites recentWrites,
+                              CacheManager cacheManager,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${eaglebank.transfers.cross-shard.recovery-interval:30s}") Duration recoveryInterval) {
+        this.accountRepository = accountRepository;
+        this.transferRepository = transferRepository;
+        this.transactionRepository = transactionRepository;
+        this.legRepository = legRepository;
+        this.ledger = ledger;
+        this.accountShards = accountShards;
+        this.accountLocks = accountLocks;
+        this.recentWrites = recentWrites;
+        this.cacheManager = cacheManager;
+        this.outer = new TransactionTemplate(transactionManager);
+        this.nested = new TransactionTemplate(transactionManager);
+        this.nested.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.recoveryInterval = recoveryInterval;
+        this.confirmed = settledCounter(meterRegistry, "confirmed");
+        this.reversed = settledCounter(meterRegistry, "reversed");
+        this.unsettled = Counter.builder("eaglebank.transfers.cross-shard.unsettled")
+                .description("Legs of transfers between shards that could not be settled and were left for the next pass")
+                .register(meterRegistry);
+    }
+
+    /** Settles the legs older than the recovery interval on every shard and returns how many it settled. */
+    @Scheduled(fixedDelayString = "${eaglebank.transfers.cross-shard.recovery-interval:30s}",
+            initialDelayString = "${eaglebank.transfers.cross-shard.recovery-interval:30s}")
+    public int recover() {
+        if (accountShards.count() == 1) {
+            return 0;
+        }
+        Instant cutoff = Instant.now().minus(recoveryInterval);
+        return accountShards.onEachShard(() -> {
+            // on the primary, as a read-only transaction could be answered by a lagging replica
+            List<CrossShardLeg> legs = outer.execute(status -> legRepository.findByCreatedAtBeforeOrderByCreatedAtAsc(cutoff, LEGS_PER_PASS));
+            int settled = 0;
+            for (CrossShardLeg leg : legs) {
+                List<Lock> locks = accountLocks.orderedLocksFor(List.of(leg.getAccountId(), leg.getCounterpartAccountId()));
+                locks.forEach(Lock::lock);
+                try {
+                    settle(leg);
+                    settled++;
+                } catch (RuntimeException ex) {
+                    unsettled.increment();
+                    log.error("Could not settle the transfer leg {} on account {}, it will be retried",
+                            leg.getTransactionId(), leg.getAccountId(), ex);
+                } finally {
+                    for (int i = locks.size() - 1; i >= 0; i--) {
+                        locks.get(i).unlock();
+                    }
+                }
+            }
+            return settled;
+        }).stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /**
+     * Settles one leg right away, for a transfer whose other side just failed. Returns
+     * whether the other side committed after all, or empty when the leg was already
+     * settled elsewhere. Callers hold the stripe locks of both accounts.
+     */
+    Optional<Boolean> settle(String accountId, long legTransactionId) {
+        return accountShards.onShardOf(accountId, () -> outer.execute(status -> legRepository.findById(legTransactionId)))
+                .map(this::settle);
+    }
+
+    private boolean settle(CrossShardLeg leg) {
+        Settlement settlement = accountShards.onShardOf(leg.getCounterpartAccountId(), () -> outer.execute(outerStatus -> {
+            if (accountRepository.findByIdForUpdate(leg.getCounterpartAccountId()).isEmpty()) {
+                // its ledger went with it, so there is no telling whether the event was ever written
+                throw new IllegalStateException("Account " + leg.getCounterpartAccountId() + " no longer exists");
+            }
+            boolean written = transactionRepository.existsById(leg.getCounterpartTransactionId());
+            boolean released = accountShards.onShardOf(leg.getAccountId(), () -> nested.execute(nestedStatus -> {
+                if (legRepository.release(leg.getTransactionId()) == 0) {
+                    return false;
+                }
+                if (!written) {
+                    reverse(leg);
+                }
+                return true;
+            }));
+            return new Settlement(written, released);
+        }));
+        if (!settlement.released()) {
+            // settled by another node meanwhile
+            return settlement.committed();
+        }
+        (settlement.committed() ? confirmed : reversed).increment();
+        if (!settlement.committed()) {
+            log.warn("Reversed transfer leg {} on account {}: the counterpart event {} on account {} was never committed",
+                    leg.getTransactionId(), leg.getAccountId(), leg.getCounterpartTransactionId(), leg.getCounterpartAccountId());
+            recentWrites.record(leg.getAccountId());
+            Cache accounts = cacheManager.getCache(CacheConfig.ACCOUNTS);
+            if (accounts != null) {
+                accounts.evict(leg.getAccountId());
+            }
+        }
+        return settlement.committed();
+    }
+
+    private void reverse(CrossShardLeg leg) {
+        Transaction event = transactionRepository.findById(leg.getTransactionId())
+                .orElseThrow(() -> new IllegalStateException("Transfer leg " + leg.getTransactionId() + " has no ledger event"));
+        Account account = accountRepository.findByIdForUpdate(leg.getAccountId())
+                .orElseThrow(() -> new IllegalStateException("Account " + leg.getAccountId() + " no longer exists"));
+        TransactionType opposite = event.getType() == TransactionType.DEPOSIT ? TransactionType.WITHDRAWAL : TransactionType.DEPOSIT;
+        ledger.append(account, opposite, event.getAmount(), "Reversal of " + TransactionService.ID_PREFIX + event.getId(), Instant.now());
+        if (leg.getTransferId() != null) {
+            transferRepository.deleteTransfer(leg.getTransferId());
+        }
+    }
+
+    private record Settlement(boolean committed, boolean released) {
+    }
+
+    private static Counter settledCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("eaglebank.transfers.cross-shard.settled")
+                .description("Legs of transfers between shards settled by recovery")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
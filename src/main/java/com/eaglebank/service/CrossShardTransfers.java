@@ -0,0 +1,149 @@
+package com.eaglebank.service;
+
+import com.eaglebank.exception.AccountNotFoundException;
+import com.eaglebank.exception.TransferInDoubtException;
+import com.eaglebank.model.Account;
+import com.eaglebank.model.Transaction;
+import com.eaglebank.model.TransactionType;
+import com.eaglebank.model.Transfer;
+import com.eaglebank.repository.AccountRepository;
+import com.eaglebank.repository.CrossShardLegRepository;
+import com.eaglebank.repository.TransferRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Posts transfers between accounts on different shards. No transaction spans two
+ * shards, so each side runs in a local transaction on its own shard, the second
+ * nested in the first. Rows are locked in id order as in a local transfer, and the
+ * transfer row lives on the source account's shard.
+ * <p>
+ * The nested side commits first. The outer side is flushed before it starts, so all
+ * that can still fail there afterwards is the commit itself, and the nested side
+ * records itself in {@code cross_shard_legs} in its own transaction. That record is
+ * dropped once the outer side has committed. If the outer side fails instead, the
+ * leg is settled on the spot by {@link CrossShardRecovery}, which reverses it unless
+ * the outer commit went through after all; a leg left behind by a crash is settled by
+ * its next pass.
+ */
+@Component
+class CrossShardTransfers {
+    private static final Logger log = LoggerFactory.getLogger(CrossShardTransfers.class);
+
+    private final AccountRepository accountRepository;
+    private final TransferRepository transferRepository;
+    private final CrossShardLegRepository legRepository;
+    private final Ledger ledger;
+    private final AccountShards accountShards;
+    private final CrossShardRecovery recovery;
+    private final EntityManager entityManager;
+    private final TransactionTemplate outer;
+    private final TransactionTemplate nested;
+
+    CrossShardTransfers(AccountRepository accountRepository,
+                        TransferRepository transferRepository,
+                        CrossShardLegRepository legRepository,
+                        Ledger ledger,
+                        AccountShards accountShards,
+                        CrossShardRecovery recovery,
+                        EntityManager entityManager,
+                        PlatformTransactionManager transactionManager) {
+        this.accountRepository = accountRepository;
+        this.transferRepository = transferRepository;
+        this.legRepository = legRepository;
+        this.ledger = ledger;
+        this.accountShards = accountShards;
+        this.recovery = recovery;
+        this.entityManager = entityManager;
+        this.outer = new TransactionTemplate(transactionManager);
+        this.nested = new TransactionTemplate(transactionManager);
+        this.nested.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /** Callers hold the stripe locks of both accounts. */
+    Transfer transfer(String fromAccountId, String toAccountId, long amount, String reference, String requestId) {
+        boolean sourceFirst = fromAccountId.compareTo(toAccountId) < 0;
+        String firstId = sourceFirst ? fromAccountId : toAccountId;
+        String secondId = sourceFirst ? toAccountId : fromAccountId;
+        Instant now = Instant.now();
+        // set once the nested side has committed, and the outer side's result once it is built
+        Leg[] committedLeg = new Leg[1];
+        Transfer[] result = new Transfer[1];
+
+        try {
+            accountShards.onShardOf(firstId, () -> outer.executeWithoutResult(outerStatus -> {
+                Account first = lockAccount(firstId);
+                // ids are assigned on persist, so the nested side can refer to this event
+                Transaction firstEvent = ledger.append(first, sourceFirst ? TransactionType.WITHDRAWAL : TransactionType.DEPOSIT,
+                        amount, reference, now);
+                entityManager.flush();
+
+                committedLeg[0] = accountShards.onShardOf(secondId, () -> nested.execute(nestedStatus -> {
+                    Account second = lockAccount(secondId);
+                    if (!first.getCurrency().equals(second.getCurrency())) {
+                        throw new IllegalArgumentException("Accounts " + fromAccountId + " and " + toAccountId + " hold different currencies");
+                    }
+                    Transaction secondEvent = ledger.append(second, sourceFirst ? TransactionType.DEPOSIT : TransactionType.WITHDRAWAL,
+                            amount, reference, now);
+                    Transaction debit = sourceFirst ? firstEvent : secondEvent;
+                    Transaction credit = sourceFirst ? secondEvent : firstEvent;
+                    Transfer posted = new Transfer(fromAccountId, toAccountId, amount, second.getCurrency(), reference,
+                            debit.getId(), credit.getId(), now, requestId);
+                    Transfer saved = sourceFirst ? posted : transferRepository.save(posted);
+                    legRepository.record(secondEvent.getId(), secondId, firstId, firstEvent.getId(),
+                            sourceFirst ? null : saved.getId(), now);
+                    return new Leg(secondEvent.getId(), saved);
+                }));
+                result[0] = sourceFirst ? transferRepository.save(committedLeg[0].transfer()) : committedLeg[0].transfer();
+            }));
+        } catch (RuntimeException ex) {
+            if (committedLeg[0] == null) {
+                // the nested side rolled back with the outer one
+                throw ex;
+            }
+            return settleAfterFailure(fromAccountId, toAccountId, secondId, committedLeg[0], result[0], ex);
+        }
+
+        try {
+            accountShards.onShardOf(secondId, () -> nested.executeWithoutResult(status -> legRepository.release(committedLeg[0].transactionId())));
+        } catch (RuntimeException ex) {
+            log.warn("Could not drop the settled transfer leg {}, recovery will", committedLeg[0].transactionId(), ex);
+        }
+        return result[0];
+    }
+
+    private Transfer settleAfterFailure(String fromAccountId, String toAccountId, String legAccountId, Leg leg, Transfer result,
+                                        RuntimeException failure) {
+        Optional<Boolean> committed;
+        try {
+            committed = recovery.settle(legAccountId, leg.transactionId());
+        } catch (RuntimeException ex) {
+            failure.addSuppressed(ex);
+            throw new TransferInDoubtException(fromAccountId, toAccountId, failure);
+        }
+        if (committed.isEmpty()) {
+            throw new TransferInDoubtException(fromAccountId, toAccountId, failure);
+        }
+        if (committed.get()) {
+            // only the acknowledgement of the outer commit was lost
+            return result;
+        }
+        throw failure;
+    }
+
+    private Account lockAccount(String accountId) {
+        return accountRepository.findByIdForUpdate(accountId)
+                .orElseThrow(() -> new AccountNotFoundException(accountId));
+    }
+
+    private record Leg(long transactionId, Transfer transfer) {
+    }
+}
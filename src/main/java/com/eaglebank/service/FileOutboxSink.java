@@ -0,0 +1,75 @@
+package com.eaglebank.service;
+
+import com.eaglebank.model.OutboxEvent;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends events to an NDJSON file for a downstream process to tail. Each batch is
+ * one write followed by a sync, so an acknowledged batch is on disk before the relay
+ * deletes it from the outbox.
+ */
+@Component
+@ConditionalOnProperty(name = "eaglebank.outbox.sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink, DisposableBean {
+    private final ObjectMapper objectMapper;
+    private final FileChannel channel;
+
+    public FileOutboxSink(ObjectMapper objectMapper,
+                          @Value("${eaglebank.outbox.file:outbox-events.ndjson}") Path file) throws IOException {
+        this.objectMapper = objectMapper;
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(events.size() * 256);
+        try {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(buffer)) {
+                // NDJSON: one value per line, terminated by '\n' rather than Jackson's default ' ' separator
+                generator.setRootValueSeparator(null);
+                for (OutboxEvent event : events) {
+                    generator.writeStartObject();
+                    generator.writeStringField("eventId", event.getEventId().toString());
+                    generator.writeStringField("aggregateType", event.getAggregateType());
+                    generator.writeStringField("aggregateId", event.getAggregateId());
+                    generator.writeStringField("eventType", event.getEventType());
+                    generator.writeStringField("createdTimestamp", event.getCreatedTimestamp().toString());
+                    generator.writeFieldName("payload");
+                    generator.writeRawValue(event.getPayload());
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                }
+            }
+            ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,84 @@
+package com.eaglebank.service;
+
+import com.eaglebank.model.IdSequence;
+import com.eaglebank.repository.IdSequenceRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Reserves blocks of ids from the {@code id_sequences} table. The row lock taken
+ * while advancing a sequence makes reservations safe across several app nodes,
+ * and each reservation runs in its own transaction so callers never hold it.
+ */
+@Service
+public class IdAllocationService {
+    private final IdSequenceRepository idSequenceRepository;
+    private final TransactionTemplate requiresNew;
+    private final int blockSize;
+    private final EntityManager entityManager;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, IdBlockAllocator> allocators = new ConcurrentHashMap<>();
+
+    public IdAllocationService(IdSequenceRepository idSequenceRepository,
+                               EntityManager entityManager,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${eaglebank.id-allocator.block-size:100}") int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("eaglebank.id-allocator.block-size must be positive");
+        }
+        this.idSequenceRepository = idSequenceRepository;
+        this.entityManager = entityManager;
+        this.meterRegistry = meterRegistry;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Returns the allocator for {@code sequence}, which yields values in
+     * {@code [initialValue, maxValueExclusive)}.
+     */
+    public IdBlockAllocator allocator(String sequence, long initialValue, long maxValueExclusive) {
+        return allocators.computeIfAbsent(sequence,
+                name -> new IdBlockAllocator(name, initialValue, maxValueExclusive, this));
+    }
+
+    long[] reserveBlock(String sequence, long initialValue, long maxValueExclusive) {
+        meterRegistry.counter("eaglebank.id.blocks.reserved", "sequence", sequence).increment();
+        try {
+            return requiresNew.execute(status -> reserve(sequence, initialValue, maxValueExclusive));
+        } catch (DataIntegrityViolationException | PersistenceException ex) {
+            // another node created the sequence row first; it exists now, so lock and advance it
+            meterRegistry.counter("eaglebank.id.block.reservation.retries", "sequence", sequence).increment();
+            return requiresNew.execute(status -> reserve(sequence, initialValue, maxValueExclusive));
+        }
+    }
+
+    private long[] reserve(String sequence, long initialValue, long maxValueExclusive) {
+        IdSequence row = idSequenceRepository.findForUpdate(sequence).orElse(null);
+        long start = row != null ? row.getNextValue() : initialValue;
+        if (start >= maxValueExclusive) {
+            throw new IllegalStateException("Id sequence '" + sequence + "' is exhausted");
+        }
+        long end = Math.min(start + blockSize, maxValueExclusive);
+        if (row == null) {
+            // persist rather than save: a merge would silently overwrite a row another node just inserted
+            entityManager.persist(new IdSequence(sequence, end));
+            entityManager.flush();
+        } else {
+            row.setNextValue(end);
+        }
+        return new long[]{start, end};
+    }
+}
@@ -0,0 +1,66 @@
+package com.eaglebank.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out ids from a block reserved in the {@code id_sequences} table. The hot
+ * path is a single {@code getAndIncrement} on the current block; only the thread
+ * that finds the block exhausted takes the refill lock and goes to the database.
+ * Ids left in a block when the node stops are skipped, never reused.
+ */
+public class IdBlockAllocator {
+    private final String sequence;
+    private final long initialValue;
+    private final long maxValueExclusive;
+    private final IdAllocationService allocationService;
+    private final ReentrantLock refillLock = new ReentrantLock();
+    private volatile Block current;
+
+    IdBlockAllocator(String sequence, long initialValue, long maxValueExclusive, IdAllocationService allocationService) {
+        this.sequence = sequence;
+        this.initialValue = initialValue;
+        this.maxValueExclusive = maxValueExclusive;
+        this.allocationService = allocationService;
+    }
+
+    public long next() {
+        while (true) {
+            Block block = current;
+            if (block != null) {
+                long value = block.next.getAndIncrement();
+                if (value < block.end) {
+                    return value;
+                }
+            }
+            refill(block);
+        }
+    }
+
+    public String getSequence() {
+        return sequence;
+    }
+
+    private void refill(Block exhausted) {
+        refillLock.lock();
+        try {
+            // another thread may have refilled while we waited for the lock
+            if (current == exhausted) {
+                long[] range = allocationService.reserveBlock(sequence, initialValue, maxValueExclusive);
+                current = new Block(range[0], range[1]);
+            }
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.eaglebank.service;
+
+import com.eaglebank.model.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the most recent events in memory, for tests and the in-memory datastore
+ * where nothing downstream is listening. Older events are dropped past
+ * {@code eaglebank.outbox.memory.capacity}.
+ */
+@Component
+@ConditionalOnProperty(name = "eaglebank.outbox.sink", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOutboxSink implements OutboxSink {
+    private final int capacity;
+    private final Deque<OutboxEvent> events = new ArrayDeque<>();
+
+    public InMemoryOutboxSink(@Value("${eaglebank.outbox.memory.capacity:10000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> batch) {
+        for (OutboxEvent event : batch) {
+            if (events.size() == capacity) {
+                events.removeFirst();
+            }
+            events.addLast(event);
+        }
+    }
+
+    /** The retained events, oldest first. */
+    public synchronized List<OutboxEvent> events() {
+        return new ArrayList<>(events);
+    }
+}
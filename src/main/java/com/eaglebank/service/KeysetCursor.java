@@ -0,0 +1,42 @@
+package com.eaglebank.service;
+
+import org.springframework.data.domain.Limit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position after the last row of a page: its sort value and id. Encoded as
+ * opaque base64url so clients pass it back unchanged rather than building one.
+ */
+record KeysetCursor(long sortValue, String id) {
+
+    static final KeysetCursor START = new KeysetCursor(Long.MIN_VALUE, "");
+    static final int MAX_PAGE_SIZE = 500;
+
+    /** One row more than the page, so a full page can tell whether anything follows it. */
+    static Limit fetchLimit(int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return Limit.of(pageSize + 1);
+    }
+
+    static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf(':');
+            return new KeysetCursor(Long.parseLong(raw.substring(0, sep)), raw.substring(sep + 1));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((sortValue + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
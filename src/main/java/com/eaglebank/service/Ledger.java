@@ -0,0 +1,45 @@
+package com.eaglebank.service;
+
+import com.eaglebank.exception.InsufficientFundsException;
+import com.eaglebank.model.Account;
+import com.eaglebank.model.Transaction;
+import com.eaglebank.model.TransactionType;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Appends an event to an account's stream and applies it to the account row.
+ * Callers hold the account's stripe lock and an open transaction in which the
+ * account is managed; its row is written by the flush at commit, once however
+ * many events were applied.
+ */
+@Component
+class Ledger {
+    private final EntityManager entityManager;
+
+    Ledger(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    Transaction append(Account account, TransactionType type, long amount, String reference, Instant at) {
+        long newBalance;
+        if (type == TransactionType.DEPOSIT) {
+            newBalance = Math.addExact(account.getBalance(), amount);
+        } else {
+            if (account.getBalance() < amount) {
+                throw new InsufficientFundsException(account.getId());
+            }
+            newBalance = account.getBalance() - amount;
+        }
+        long sequence = account.getLastEventSequence() + 1;
+        account.setBalance(newBalance);
+        account.setLastEventSequence(sequence);
+
+        // persisted directly: a repository call per event costs more than the insert in large batches
+        Transaction entry = new Transaction(account.getId(), sequence, type, amount, newBalance, account.getCurrency(), reference, at);
+        entityManager.persist(entry);
+        return entry;
+    }
+}
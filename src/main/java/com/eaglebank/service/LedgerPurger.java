@@ -0,0 +1,90 @@
+package com.eaglebank.service;
+
+import com.eaglebank.model.LedgerPurge;
+import com.eaglebank.repository.LedgerPurgeRepository;
+import com.eaglebank.repository.TransactionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Deletes the ledgers queued by {@link AccountService#closeAccount} with
+ * {@code eaglebank.ledger-purge.mode=async}, a chunk of events per transaction, so
+ * closing an account with millions of events neither holds locks nor grows the undo
+ * log for long. An account's purge entry goes once its last event has; until then no
+ * account can be opened under its id. Every shard is purged on its own.
+ */
+@Component
+public class LedgerPurger {
+    private static final Logger log = LoggerFactory.getLogger(LedgerPurger.class);
+    private static final Limit ACCOUNTS_PER_PASS = Limit.of(100);
+
+    private final LedgerPurgeRepository ledgerPurgeRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountShards accountShards;
+    private final int batchSize;
+    private final Counter purged;
+
+    public LedgerPurger(LedgerPurgeRepository ledgerPurgeRepository,
+                        TransactionRepository transactionRepository,
+                        TransactionTemplate transactionTemplate,
+                        AccountShards accountShards,
+                        MeterRegistry meterRegistry,
+                        @Value("${eaglebank.ledger-purge.batch-size:10000}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("eaglebank.ledger-purge.batch-size must be positive");
+        }
+        this.ledgerPurgeRepository = ledgerPurgeRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.accountShards = accountShards;
+        this.batchSize = batchSize;
+        this.purged = Counter.builder("eaglebank.ledger.purged")
+                .description("Ledger events of closed accounts deleted in the background")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${eaglebank.ledger-purge.interval:5s}")
+    public void purge() {
+        accountShards.onEachShard(() -> {
+            try {
+                return purgeQueued();
+            } catch (RuntimeException ex) {
+                log.warn("Ledger purge failed, it will be retried", ex);
+                return 0L;
+            }
+        });
+    }
+
+    /** Purges queued ledgers until none are left and returns how many events went. */
+    private long purgeQueued() {
+        long total = 0;
+        List<LedgerPurge> queued;
+        do {
+            // on the primary, as a read-only transaction could be answered by a lagging replica
+            queued = transactionTemplate.execute(status -> ledgerPurgeRepository.findAllByOrderByRequestedAtAsc(ACCOUNTS_PER_PASS));
+            for (LedgerPurge purge : queued) {
+                String accountId = purge.getAccountId();
+                int deleted;
+                do {
+                    deleted = Objects.requireNonNull(transactionTemplate.execute(
+                            status -> transactionRepository.deleteLedgerChunk(accountId, batchSize)));
+                    purged.increment(deleted);
+                    total += deleted;
+                } while (deleted == batchSize);
+                transactionTemplate.executeWithoutResult(status -> ledgerPurgeRepository.deleteById(accountId));
+            }
+        } while (queued.size() == ACCOUNTS_PER_PASS.max());
+        return total;
+    }
+}
@@ -0,0 +1,53 @@
+package com.eaglebank.service;
+
+import com.eaglebank.model.OutboxEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Records events in the outbox table as part of the caller's transaction, so an
+ * event exists exactly when its change was committed. {@link OutboxRelay} sends them on.
+ */
+@Component
+class Outbox {
+    static final String USER = "user";
+    static final String ACCOUNT = "account";
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    Outbox(EntityManager entityManager, ObjectMapper objectMapper) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String aggregateType, String aggregateId, String eventType, Object payload) {
+        appendAll(aggregateType, eventType, Map.of(aggregateId, payload));
+    }
+
+    /** One event per entry of {@code payloadsById}, in iteration order. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(String aggregateType, String eventType, Map<String, ?> payloadsById) {
+        // Write the changes first so their row locks are held before the events take their
+        // ids: events for one aggregate are then numbered in the order their changes commit.
+        entityManager.flush();
+        Instant now = Instant.now();
+        payloadsById.forEach((aggregateId, payload) -> {
+            String json;
+            try {
+                json = objectMapper.writeValueAsString(payload);
+            } catch (JsonProcessingException ex) {
+                throw new IllegalArgumentException("Cannot serialize " + eventType + " event for " + aggregateId, ex);
+            }
+            entityManager.persist(new OutboxEvent(aggregateType, aggregateId, eventType, json, now));
+        });
+    }
+}
@@ -0,0 +1,111 @@
+package com.eaglebank.service;
+
+import com.eaglebank.model.OutboxEvent;
+import com.eaglebank.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Drains the outbox to the {@link OutboxSink} in id order, a batch per transaction:
+ * the batch is locked, published, then deleted, so a crash or a failing sink means
+ * the batch is sent again (at-least-once) and never skipped. Each database is drained
+ * on its own: the global one for users and, when sharded, every account shard.
+ * <p>
+ * {@code eaglebank.outbox.lag} is the age of the oldest event still waiting, as of
+ * the last pass, in seconds.
+ */
+@Component
+public class OutboxRelay {
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountShards accountShards;
+    private final int maxBatch;
+    private final Counter relayed;
+    private final Counter failures;
+    private final AtomicReference<Instant> oldestPending = new AtomicReference<>();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxSink sink,
+                       TransactionTemplate transactionTemplate,
+                       AccountShards accountShards,
+                       MeterRegistry meterRegistry,
+                       @Value("${eaglebank.outbox.max-batch:500}") int maxBatch) {
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("eaglebank.outbox.max-batch must be positive");
+        }
+        this.outboxEventRepository = outboxEventRepository;
+        this.sink = sink;
+        this.transactionTemplate = transactionTemplate;
+        this.accountShards = accountShards;
+        this.maxBatch = maxBatch;
+        this.relayed = Counter.builder("eaglebank.outbox.relayed")
+                .description("Outbox events delivered to the sink")
+                .register(meterRegistry);
+        this.failures = Counter.builder("eaglebank.outbox.failures")
+                .description("Outbox batches that failed and will be delivered again")
+                .register(meterRegistry);
+        Gauge.builder("eaglebank.outbox.lag", this, relay -> relay.lag().toMillis() / 1000.0)
+                .description("Age of the oldest undelivered outbox event")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${eaglebank.outbox.poll-interval:250ms}")
+    public void relay() {
+        Instant oldest = drain();
+        if (accountShards.count() > 1) {
+            for (Instant shardOldest : accountShards.onEachShard(this::drain)) {
+                if (shardOldest != null && (oldest == null || shardOldest.isBefore(oldest))) {
+                    oldest = shardOldest;
+                }
+            }
+        }
+        oldestPending.set(oldest);
+    }
+
+    /** How long the oldest waiting event has waited; zero when the outbox was empty at the last pass. */
+    public Duration lag() {
+        Instant oldest = oldestPending.get();
+        return oldest == null ? Duration.ZERO : Duration.between(oldest, Instant.now());
+    }
+
+    /** Relays full batches until the outbox runs low, then returns the oldest event left. */
+    private Instant drain() {
+        try {
+            int sent;
+            do {
+                sent = Objects.requireNonNull(transactionTemplate.execute(status -> {
+                    List<OutboxEvent> batch = outboxEventRepository.findOldestForUpdate(Limit.of(maxBatch));
+                    if (!batch.isEmpty()) {
+                        sink.publish(batch);
+                        outboxEventRepository.deleteAllByIdInBatch(batch.stream().map(OutboxEvent::getId).toList());
+                    }
+                    return batch.size();
+                }));
+                relayed.increment(sent);
+            } while (sent == maxBatch);
+        } catch (RuntimeException ex) {
+            failures.increment();
+            log.warn("Outbox relay failed, the batch will be sent again", ex);
+        }
+        // on the primary, as a read-only transaction could be answered by a lagging replica
+        return transactionTemplate.execute(status -> outboxEventRepository.findOldestCreatedTimestamp());
+    }
+}
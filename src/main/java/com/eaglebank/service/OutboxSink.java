@@ -0,0 +1,20 @@
+package com.eaglebank.service;
+
+import com.eaglebank.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Where {@link OutboxRelay} delivers events: a broker, a webhook, a file. The built-in
+ * sinks are picked with {@code eaglebank.outbox.sink=memory|file}; any other value
+ * leaves it to a bean of this type defined elsewhere.
+ */
+public interface OutboxSink {
+
+    /**
+     * Delivers {@code events}, oldest first. Returning acknowledges the whole batch;
+     * throwing leaves all of it to be delivered again, so a sink may see an event more
+     * than once but never out of order for its aggregate.
+     */
+    void publish(List<OutboxEvent> events);
+}
@@ -0,0 +1,92 @@
+package com.eaglebank.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Maps a persistent sequence onto the {@code usr-xxxxx} keyspace with a keyed
+ * format-preserving permutation. Each sequence value maps to exactly one 5-char
+ * suffix, so ids are unique by construction, while consecutive users still get
+ * unrelated-looking ids. A small Feistel network permutes 30-bit values, and
+ * cycle-walking keeps results inside the 62^5 keyspace.
+ */
+@Component
+@ConditionalOnProperty(name = "eaglebank.user-id.generator", havingValue = "permuted", matchIfMissing = true)
+public class PermutedSequenceUserIdGenerator implements UserIdGenerator {
+    private static final String ID_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+    private static final int ID_LENGTH = 5;
+    static final long KEYSPACE = 916_132_832L; // 62^5
+    private static final int HALF_BITS = 15;
+    private static final long HALF_MASK = (1L << HALF_BITS) - 1;
+    private static final int ROUNDS = 6;
+
+    private final IdBlockAllocator sequence;
+    private final long[] roundKeys;
+
+    public PermutedSequenceUserIdGenerator(IdAllocationService idAllocationService,
+                                           @Value("${eaglebank.user-id.permutation-key:eaglebank-user-ids}") String key) {
+        this.sequence = idAllocationService.allocator("user_id", 0L, KEYSPACE);
+        this.roundKeys = roundKeys(key);
+    }
+
+    @Override
+    public String nextId() {
+        return format(sequence.next());
+    }
+
+    /** The id assigned to the given sequence value. */
+    public String format(long sequenceValue) {
+        long permuted = permute(sequenceValue);
+        char[] suffix = new char[ID_LENGTH];
+        for (int i = ID_LENGTH - 1; i >= 0; i--) {
+            suffix[i] = ID_ALPHABET.charAt((int) (permuted % ID_ALPHABET.length()));
+            permuted /= ID_ALPHABET.length();
+        }
+        return ID_PREFIX + new String(suffix);
+    }
+
+    long permute(long value) {
+        if (value < 0 || value >= KEYSPACE) {
+            throw new IllegalArgumentException("Value outside the user id keyspace: " + value);
+        }
+        // the Feistel network permutes [0, 2^30); walk the cycle until we land back inside [0, 62^5)
+        long result = value;
+        do {
+            result = feistel(result);
+        } while (result >= KEYSPACE);
+        return result;
+    }
+
+    private long feistel(long value) {
+        long left = (value >>> HALF_BITS) & HALF_MASK;
+        long right = value & HALF_MASK;
+        for (int round = 0; round < ROUNDS; round++) {
+            long next = left ^ (mix(right ^ roundKeys[round]) & HALF_MASK);
+            left = right;
+            right = next;
+        }
+        return (left << HALF_BITS) | right;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long[] roundKeys(String key) {
+        long seed = 0x9e3779b97f4a7c15L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            seed = mix(seed ^ b);
+        }
+        long[] keys = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            seed = mix(seed + 0x9e3779b97f4a7c15L);
+            keys[i] = seed;
+        }
+        return keys;
+    }
+}
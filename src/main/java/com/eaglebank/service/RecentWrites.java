@@ -0,0 +1,40 @@
+package com.eaglebank.service;
+
+import com.eaglebank.config.ReplicaRoutingDataSource;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Ids of users and accounts written within the replica's maximum lag. Reads of those
+ * ids go to the primary, so a client sees its own writes and a row the replica hasn't
+ * caught up on never lands in a cache. Without a replica nothing is tracked.
+ */
+@Component
+class RecentWrites {
+    private final Cache<String, Boolean> written;
+
+    RecentWrites(@Value("${eaglebank.datasource.replica.url:}") String replicaUrl,
+                 @Value("${eaglebank.datasource.replica.max-lag:5s}") Duration maxLag) {
+        this.written = replicaUrl.isEmpty() ? null : Caffeine.newBuilder()
+                .maximumSize(1_000_000)
+                .expireAfterWrite(maxLag)
+                .build();
+    }
+
+    void record(String id) {
+        if (written != null) {
+            written.put(id, Boolean.TRUE);
+        }
+    }
+
+    /** Called at the start of a read-only transaction that reads {@code id}. */
+    void beforeRead(String id) {
+        if (written != null && written.getIfPresent(id) != null) {
+            ReplicaRoutingDataSource.usePrimaryForCurrentTransaction();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.eaglebank.service;
+
+import com.eaglebank.config.MetricsConfig;
+import com.eaglebank.exception.AccountNotFoundException;
+import com.eaglebank.repository.AccountRepository;
+import com.eaglebank.repository.AccountStatementRepository.StatementLine;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Writes account statements straight from the ledger cursor to the response, one
+ * line per event as it is read, so memory use is the same for ten events or ten
+ * million. The read runs in one read-only transaction, which keeps a connection
+ * for as long as the client takes to receive the statement.
+ */
+@Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
+public class StatementService {
+    private final AccountRepository accountRepository;
+    private final ObjectMapper objectMapper;
+    private final AccountShards accountShards;
+    private final RecentWrites recentWrites;
+    private final TransactionTemplate readOnly;
+
+    public StatementService(AccountRepository accountRepository,
+                            ObjectMapper objectMapper,
+                            AccountShards accountShards,
+                            RecentWrites recentWrites,
+                            PlatformTransactionManager transactionManager) {
+        this.accountRepository = accountRepository;
+        this.objectMapper = objectMapper;
+        this.accountShards = accountShards;
+        this.recentWrites = recentWrites;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+    }
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON(MediaType.APPLICATION_NDJSON_VALUE, "ndjson");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public String mediaType() {
+            return mediaType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format fromValue(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported statement format: " + value + ", expected csv or ndjson");
+        }
+    }
+
+    /** Where the statement goes, opened only once the account is known to exist. */
+    @FunctionalInterface
+    public interface Sink {
+        OutputStream open() throws IOException;
+    }
+
+    /**
+     * Streams the events of {@code accountId} from {@code from} (inclusive) to {@code to}
+     * (exclusive), either of which may be null, and closes the sink's stream.
+     */
+    public void writeStatement(String accountId, Instant from, Instant to, Format format, Sink sink) throws IOException {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        recentWrites.beforeRead(accountId);
+        try {
+            accountShards.onShardOf(accountId, () -> readOnly.executeWithoutResult(status -> {
+                if (!accountRepository.existsById(accountId)) {
+                    throw new AccountNotFoundException(accountId);
+                }
+                try (LineWriter writer = format == Format.CSV ? new CsvWriter(sink.open()) : new NdjsonWriter(sink.open())) {
+                    accountRepository.streamStatement(accountId, from, to, line -> {
+                        try {
+                            writer.write(line);
+                        } catch (IOException ex) {
+                            throw new UncheckedIOException(ex);
+                        }
+                    });
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }));
+        } catch (UncheckedIOException ex) {
+            // usually the client going away; the cursor and its transaction are already released
+            throw ex.getCause();
+        }
+    }
+
+    private interface LineWriter extends Closeable {
+        void write(StatementLine line) throws IOException;
+    }
+
+    private static final class CsvWriter implements LineWriter {
+        private final Writer out;
+
+        CsvWriter(OutputStream stream) throws IOException {
+            this.out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+            out.write("id,createdTimestamp,type,amount,currency,balance,reference\n");
+        }
+
+        @Override
+        public void write(StatementLine line) throws IOException {
+            out.write(TransactionService.ID_PREFIX);
+            out.write(Long.toString(line.id()));
+            out.write(',');
+            out.write(line.createdTimestamp().toString());
+            out.write(',');
+            out.write(line.type().getValue());
+            out.write(',');
+            out.write(Long.toString(line.amount()));
+            out.write(',');
+            out.write(line.currency());
+            out.write(',');
+            out.write(Long.toString(line.balanceAfter()));
+            out.write(',');
+            if (line.reference() != null) {
+                writeQuoted(line.reference());
+            }
+            out.write('\n');
+        }
+
+        /** RFC 4180 quoting, plus a leading quote mark on anything a spreadsheet would run as a formula. */
+        private void writeQuoted(String value) throws IOException {
+            boolean formula = !value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0;
+            if (!formula && value.chars().noneMatch(c -> c == ',' || c == '"' || c == '\n' || c == '\r')) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            if (formula) {
+                out.write('\'');
+            }
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    private final class NdjsonWriter implements LineWriter {
+        private final JsonGenerator generator;
+
+        NdjsonWriter(OutputStream stream) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(stream);
+            // NDJSON: one value per line, terminated by '\n' rather than Jackson's default ' ' separator
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(StatementLine line) throws IOException {
+            // the fields of TransactionDTO, written directly rather than through one object per row
+            generator.writeStartObject();
+            generator.writeStringField("id", TransactionService.ID_PREFIX + line.id());
+            generator.writeNumberField("amount", line.amount());
+            generator.writeStringField("currency", line.currency());
+            generator.writeStringField("type", line.type().getValue());
+            generator.writeStringField("reference", line.reference());
+            generator.writeNumberField("balance", line.balanceAfter());
+            generator.writeStringField("createdTimestamp", line.createdTimestamp().toString());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.eaglebank.service;
+
+import com.eaglebank.config.CacheConfig;
+import com.eaglebank.config.MetricsConfig;
+import com.eaglebank.dto.TransactionDTO;
+import com.eaglebank.exception.AccountNotFoundException;
+import com.eaglebank.exception.TransactionNotFoundException;
+import com.eaglebank.model.Account;
+import com.eaglebank.model.Transaction;
+import com.eaglebank.model.TransactionType;
+import com.eaglebank.repository.AccountRepository;
+import com.eaglebank.repository.TransactionRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.concurrent.locks.Lock;
+
+@Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
+public class TransactionService {
+    static final String ID_PREFIX = "tan-";
+    private static final String CURRENCY = "GBP";
+    private static final int MAX_VERSION_CONFLICT_RETRIES = 5;
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountLocks accountLocks;
+    private final Ledger ledger;
+    private final TransactionTemplate transactionTemplate;
+    private final RecentWrites recentWrites;
+    private final AccountShards accountShards;
+    private final Counter versionConflicts;
+
+    public TransactionService(AccountRepository accountRepository,
+                              TransactionRepository transactionRepository,
+                              AccountLocks accountLocks,
+                              Ledger ledger,
+                              TransactionTemplate transactionTemplate,
+                              RecentWrites recentWrites,
+                              AccountShards accountShards,
+                              MeterRegistry meterRegistry) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.accountLocks = accountLocks;
+        this.ledger = ledger;
+        this.transactionTemplate = transactionTemplate;
+        this.recentWrites = recentWrites;
+        this.accountShards = accountShards;
+        this.versionConflicts = Counter.builder("eaglebank.ledger.version.conflicts")
+                .description("Postings retried after another node updated the account first")
+                .register(meterRegistry);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.ACCOUNTS, key = "#accountId")
+    public TransactionDTO createTransaction(String accountId, TransactionDTO dto) {
+        TransactionType type = dto.getType();
+        if (type == null) {
+            throw new IllegalArgumentException("type is required and must be one of 'deposit' or 'withdrawal'");
+        }
+        if (dto.getAmount() == null || dto.getAmount() <= 0) {
+            throw new IllegalArgumentException("amount is required and must be greater than zero");
+        }
+        if (dto.getCurrency() != null && !CURRENCY.equals(dto.getCurrency())) {
+            throw new IllegalArgumentException("Unsupported currency: " + dto.getCurrency());
+        }
+
+        // The stripe lock keeps postings to one account from racing on this node;
+        // the @Version check on Account covers postings arriving through other nodes.
+        Lock lock = accountLocks.lockFor(accountId);
+        lock.lock();
+        try {
+            int attempts = 0;
+            while (true) {
+                try {
+                    Transaction saved = accountShards.onShardOf(accountId, () -> transactionTemplate.execute(status ->
+                            post(accountId, type, dto.getAmount(), dto.getReference())));
+                    recentWrites.record(accountId);
+                    return toDTO(saved);
+                } catch (OptimisticLockingFailureException ex) {
+                    versionConflicts.increment();
+                    if (++attempts >= MAX_VERSION_CONFLICT_RETRIES) {
+                        throw new IllegalStateException("Account " + accountId + " is being updated concurrently, please retry");
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public TransactionDTO getTransaction(String accountId, String transactionId) {
+        Long id = parseId(transactionId);
+        return accountShards.onShardOf(accountId, () -> {
+            if (id == null || !accountRepository.existsById(accountId)) {
+                throw new TransactionNotFoundException(transactionId);
+            }
+            return transactionRepository.findByIdAndAccountId(id, accountId)
+                    .map(this::toDTO)
+                    .orElseThrow(() -> new TransactionNotFoundException(transactionId));
+        });
+    }
+
+    private Transaction post(String accountId, TransactionType type, long amount, String reference) {
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new AccountNotFoundException(accountId));
+        return ledger.append(account, type, amount, reference, Instant.now());
+    }
+
+    private TransactionDTO toDTO(Transaction t) {
+        return new TransactionDTO(ID_PREFIX + t.getId(), t.getAmount(), t.getCurrency(), t.getType(), t.getReference(), t.getBalanceAfter(), t.getCreatedTimestamp());
+    }
+
+    private static Long parseId(String transactionId) {
+        if (transactionId == null || !transactionId.startsWith(ID_PREFIX)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(transactionId.substring(ID_PREFIX.length()));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
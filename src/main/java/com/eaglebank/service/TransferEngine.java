@@ -0,0 +1,453 @@
+package com.eaglebank.service;
+
+import com.eaglebank.config.CacheConfig;
+import com.eaglebank.dto.TransferRequestDTO;
+import com.eaglebank.exception.AccountNotFoundException;
+import com.eaglebank.exception.InsufficientFundsException;
+import com.eaglebank.exception.TransferInDoubtException;
+import com.eaglebank.exception.TransferQueueFullException;
+import com.eaglebank.model.Account;
+import com.eaglebank.model.Transaction;
+import com.eaglebank.model.TransactionType;
+import com.eaglebank.model.Transfer;
+import com.eaglebank.repository.AccountRepository;
+import com.eaglebank.repository.TransferRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies asynchronously accepted transfers on a single writer thread. Each flush
+ * drains up to {@code max-batch} queued transfers and applies them in one database
+ * transaction: the touched accounts are locked once, every posting is applied in
+ * memory, and the flush writes one UPDATE per account plus the ledger and transfer
+ * inserts as JDBC batches. With several shards each shard's share of a flush is a
+ * transaction of its own, and transfers between shards are applied one at a time.
+ * The queue is bounded; when it is full new transfers are refused rather than buffered.
+ * <p>
+ * Accepted transfers are journaled before they are acknowledged, and the journal
+ * records each outcome after its batch commits. On start-up the transfers without
+ * an outcome are queued again, except those whose batch committed just before a
+ * crash, which are recognised by their request id on the transfer row.
+ */
+@Component
+@ConditionalOnProperty(name = "eaglebank.transfers.async.enabled", havingValue = "true")
+public class TransferEngine implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(TransferEngine.class);
+    private static final String REQUEST_PREFIX = "req-";
+    private static final long JOURNAL_TRUNCATE_BYTES = 64L * 1024 * 1024;
+
+    private final AccountRepository accountRepository;
+    private final TransferRepository transferRepository;
+    private final AccountLocks accountLocks;
+    private final Ledger ledger;
+    private final TransactionTemplate transactionTemplate;
+    private final RecentWrites recentWrites;
+    private final AccountShards accountShards;
+    private final CrossShardTransfers crossShardTransfers;
+    private final CacheManager cacheManager;
+    private final TransferJournal journal;
+    private final int maxBatch;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Semaphore capacity;
+    private final Cache<String, Status> statuses;
+    private final Counter rejected;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public TransferEngine(AccountRepository accountRepository,
+                          TransferRepository transferRepository,
+                          AccountLocks accountLocks,
+                          Ledger ledger,
+                          TransactionTemplate transactionTemplate,
+                          RecentWrites recentWrites,
+                          AccountShards accountShards,
+                          CrossShardTransfers crossShardTransfers,
+                          CacheManager cacheManager,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${eaglebank.transfers.async.journal:transfer-journal.log}") Path journalPath,
+                          @Value("${eaglebank.transfers.async.queue-capacity:10000}") int queueCapacity,
+                          @Value("${eaglebank.transfers.async.max-batch:500}") int maxBatch,
+                          @Value("${eaglebank.transfers.async.status-ttl:1h}") Duration statusTtl) {
+        if (queueCapacity <= 0 || maxBatch <= 0) {
+            throw new IllegalArgumentException("eaglebank.transfers.async.queue-capacity and max-batch must be positive");
+        }
+        this.accountRepository = accountRepository;
+        this.transferRepository = transferRepository;
+        this.accountLocks = accountLocks;
+        this.ledger = ledger;
+        this.transactionTemplate = transactionTemplate;
+        this.recentWrites = recentWrites;
+        this.accountShards = accountShards;
+        this.crossShardTransfers = crossShardTransfers;
+        this.cacheManager = cacheManager;
+        this.journal = new TransferJournal(journalPath, objectMapper);
+        this.maxBatch = maxBatch;
+        this.capacity = new Semaphore(queueCapacity);
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(Math.max(100_000, queueCapacity))
+                .expireAfterWrite(statusTtl)
+                .build();
+        this.rejected = Counter.builder("eaglebank.transfers.async.rejected")
+                .description("Transfers refused because the queue was full")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("eaglebank.transfers.async.batch.size")
+                .description("Transfers applied per flush")
+                .register(meterRegistry);
+        Gauge.builder("eaglebank.transfers.async.queue", queue, BlockingQueue::size)
+                .description("Transfers accepted and not yet applied")
+                .register(meterRegistry);
+    }
+
+    /** Queues a validated transfer; it is durable once this returns. */
+    public TransferRequestDTO submit(String fromAccountId, String toAccountId, long amount, String reference) {
+        if (!running || !capacity.tryAcquire()) {
+            rejected.increment();
+            throw new TransferQueueFullException();
+        }
+        String requestId = REQUEST_PREFIX + UUID.randomUUID();
+        Pending pending = new Pending(requestId, fromAccountId, toAccountId, amount, reference, true);
+        try {
+            journal.sync(journal.append(List.of(TransferJournal.Entry.accepted(requestId, fromAccountId, toAccountId, amount, reference))));
+        } catch (RuntimeException ex) {
+            capacity.release();
+            throw ex;
+        }
+        Status status = new Status(fromAccountId, new TransferRequestDTO(requestId, TransferRequestDTO.Status.QUEUED, null, null));
+        statuses.put(requestId, status);
+        queue.add(pending);
+        return status.request();
+    }
+
+    /** Status of a request made by {@code accountId}, if known. */
+    public Optional<TransferRequestDTO> status(String accountId, String requestId) {
+        Status status = statuses.getIfPresent(requestId);
+        if (status != null) {
+            if (!status.owner().equals(accountId)) {
+                return Optional.empty();
+            }
+            if (status.request().getStatus() != TransferRequestDTO.Status.UNKNOWN) {
+                return Optional.of(status.request());
+            }
+            // it may have committed before whatever kept its outcome from being recorded
+            return Optional.of(findApplied(accountId, requestId).orElse(status.request()));
+        }
+        // statuses are kept in memory only; applied transfers can still be found by request id
+        return findApplied(accountId, requestId);
+    }
+
+    private Optional<TransferRequestDTO> findApplied(String accountId, String requestId) {
+        return accountShards.onShardOf(accountId, () -> transferRepository.findByRequestId(requestId))
+                .filter(t -> t.getFromAccountId().equals(accountId))
+                .map(t -> new TransferRequestDTO(requestId, TransferRequestDTO.Status.COMPLETED, TransferService.toDTO(t), null));
+    }
+
+    @Override
+    public void start() {
+        List<TransferJournal.Entry> recovered;
+        try {
+            recovered = journal.recover();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read the transfer journal", ex);
+        }
+        List<TransferJournal.Entry> applied = new ArrayList<>();
+        for (TransferJournal.Entry entry : recovered) {
+            if (accountShards.onShardOf(entry.fromAccountId(), () -> transferRepository.existsByRequestId(entry.requestId()))) {
+                applied.add(TransferJournal.Entry.resolved(entry.requestId()));
+                continue;
+            }
+            // recovered entries don't count against the queue's capacity
+            queue.add(new Pending(entry.requestId(), entry.fromAccountId(), entry.toAccountId(), entry.amount(), entry.reference(), false));
+            statuses.put(entry.requestId(), new Status(entry.fromAccountId(),
+                    new TransferRequestDTO(entry.requestId(), TransferRequestDTO.Status.QUEUED, null, null)));
+        }
+        if (!applied.isEmpty()) {
+            journal.sync(journal.append(applied));
+        }
+        if (!recovered.isEmpty()) {
+            log.info("Recovered {} journaled transfers, {} already applied", recovered.size(), applied.size());
+        }
+
+        running = true;
+        writer = new Thread(this::run, "transfer-engine");
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (writer != null) {
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // anything still queued stays in the journal and is applied on the next start
+        try {
+            journal.close();
+        } catch (IOException ex) {
+            log.warn("Could not close the transfer journal", ex);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        List<Outcome> outcomes = new ArrayList<>(maxBatch);
+        while (running) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                int permits = (int) batch.stream().filter(Pending::permit).count();
+                capacity.release(permits);
+                flush(batch, outcomes);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                // the batch stays unresolved in the journal and is settled on the next start
+                log.error("Could not apply {} transfers", batch.size(), ex);
+                reportAfterFailure(batch, outcomes);
+            } finally {
+                batch.clear();
+                outcomes.clear();
+            }
+        }
+    }
+
+    /** Applies the batch, adding each outcome to {@code outcomes} as it is reached. */
+    private void flush(List<Pending> batch, List<Outcome> outcomes) {
+        // a transaction reaches one shard: each shard's transfers are applied as a batch
+        // of their own, and transfers between shards one at a time
+        Map<Integer, List<Pending>> byShard = new TreeMap<>();
+        List<Pending> crossShard = new ArrayList<>();
+        for (Pending p : batch) {
+            if (accountShards.sameShard(p.fromAccountId(), p.toAccountId())) {
+                byShard.computeIfAbsent(accountShards.shardOf(p.fromAccountId()), shard -> new ArrayList<>()).add(p);
+            } else {
+                crossShard.add(p);
+            }
+        }
+        for (List<Pending> group : byShard.values()) {
+            outcomes.addAll(applyOrSplit(group));
+        }
+        for (Pending p : crossShard) {
+            outcomes.add(applyAcrossShards(p));
+        }
+        batchSizes.record(batch.size());
+
+        List<TransferJournal.Entry> resolved = new ArrayList<>(outcomes.size());
+        for (Outcome outcome : outcomes) {
+            if (publish(outcome)) {
+                resolved.add(TransferJournal.Entry.resolved(outcome.pending().requestId()));
+            }
+        }
+        journal.sync(journal.append(resolved));
+        journal.truncateIfDrained(JOURNAL_TRUNCATE_BYTES);
+    }
+
+    /**
+     * Makes an outcome visible to status requests and readers of the accounts, and
+     * returns whether it is final. One in doubt is reported as unknown; it stays
+     * unresolved in the journal, and on the next start it is found applied or tried again.
+     */
+    private boolean publish(Outcome outcome) {
+        Pending p = outcome.pending();
+        if (outcome.transfer() == null && outcome.failureReason() == null) {
+            statuses.put(p.requestId(), new Status(p.fromAccountId(), unknown(p)));
+            return false;
+        }
+        if (outcome.transfer() != null) {
+            recentWrites.record(p.fromAccountId());
+            recentWrites.record(p.toAccountId());
+            org.springframework.cache.Cache accounts = cacheManager.getCache(CacheConfig.ACCOUNTS);
+            if (accounts != null) {
+                accounts.evict(p.fromAccountId());
+                accounts.evict(p.toAccountId());
+            }
+        }
+        TransferRequestDTO request = outcome.transfer() != null
+                ? new TransferRequestDTO(p.requestId(), TransferRequestDTO.Status.COMPLETED, TransferService.toDTO(outcome.transfer()), null)
+                : new TransferRequestDTO(p.requestId(), TransferRequestDTO.Status.FAILED, null, outcome.failureReason());
+        statuses.put(p.requestId(), new Status(p.fromAccountId(), request));
+        return true;
+    }
+
+    /**
+     * After a flush failed part way: the outcomes reached before the failure are
+     * reported, and the rest of the batch as unknown rather than still queued, as
+     * some of it may have been applied.
+     */
+    private void reportAfterFailure(List<Pending> batch, List<Outcome> outcomes) {
+        Set<String> reported = new HashSet<>();
+        for (Outcome outcome : outcomes) {
+            try {
+                publish(outcome);
+                reported.add(outcome.pending().requestId());
+            } catch (RuntimeException ex) {
+                log.warn("Could not report the outcome of transfer {}", outcome.pending().requestId(), ex);
+            }
+        }
+        for (Pending p : batch) {
+            if (!reported.contains(p.requestId())) {
+                statuses.put(p.requestId(), new Status(p.fromAccountId(), unknown(p)));
+            }
+        }
+    }
+
+    private static TransferRequestDTO unknown(Pending p) {
+        return new TransferRequestDTO(p.requestId(), TransferRequestDTO.Status.UNKNOWN, null, null);
+    }
+
+    private List<Outcome> applyOrSplit(List<Pending> batch) {
+        try {
+            return applyBatch(batch);
+        } catch (RuntimeException ex) {
+            // one bad transfer must not sink the others: fall back to one transaction each
+            log.warn("Batch of {} transfers failed, applying them one by one", batch.size(), ex);
+            List<Outcome> outcomes = new ArrayList<>();
+            for (Pending pending : batch) {
+                try {
+                    outcomes.addAll(applyBatch(List.of(pending)));
+                } catch (RuntimeException single) {
+                    outcomes.add(Outcome.failed(pending, "Transfer could not be applied"));
+                }
+            }
+            return outcomes;
+        }
+    }
+
+    /** Applies a batch of transfers whose accounts are all on one shard. */
+    private List<Outcome> applyBatch(List<Pending> batch) {
+        TreeSet<String> accountIds = new TreeSet<>();
+        for (Pending p : batch) {
+            accountIds.add(p.fromAccountId());
+            accountIds.add(p.toAccountId());
+        }
+        // same lock order as synchronous transfers: stripes by index, then rows by id
+        List<Lock> locks = accountLocks.orderedLocksFor(accountIds);
+        locks.forEach(Lock::lock);
+        try {
+            return accountShards.onShardOf(batch.get(0).fromAccountId(), () -> transactionTemplate.execute(status -> {
+                Map<String, Account> accounts = accountRepository.findAllByIdForUpdate(accountIds).stream()
+                        .collect(Collectors.toMap(Account::getId, Function.identity()));
+                Instant now = Instant.now();
+                List<Outcome> outcomes = new ArrayList<>(batch.size());
+                for (Pending p : batch) {
+                    outcomes.add(apply(p, accounts.get(p.fromAccountId()), accounts.get(p.toAccountId()), now));
+                }
+                return outcomes;
+            }));
+        } finally {
+            for (int i = locks.size() - 1; i >= 0; i--) {
+                locks.get(i).unlock();
+            }
+        }
+    }
+
+    private Outcome applyAcrossShards(Pending p) {
+        List<Lock> locks = accountLocks.orderedLocksFor(List.of(p.fromAccountId(), p.toAccountId()));
+        locks.forEach(Lock::lock);
+        try {
+            return new Outcome(p, crossShardTransfers.transfer(p.fromAccountId(), p.toAccountId(), p.amount(), p.reference(), p.requestId()), null);
+        } catch (AccountNotFoundException | InsufficientFundsException | IllegalArgumentException ex) {
+            return Outcome.failed(p, ex.getMessage());
+        } catch (TransferInDoubtException ex) {
+            log.warn("Transfer {} between shards is in doubt until recovery settles it", p.requestId(), ex);
+            return Outcome.inDoubt(p);
+        } catch (RuntimeException ex) {
+            log.warn("Transfer {} between shards failed", p.requestId(), ex);
+            return Outcome.failed(p, "Transfer could not be applied");
+        } finally {
+            for (int i = locks.size() - 1; i >= 0; i--) {
+                locks.get(i).unlock();
+            }
+        }
+    }
+
+    // Postings only change the managed entities; the flush at commit writes each account once.
+    private Outcome apply(Pending p, Account source, Account destination, Instant now) {
+        if (source == null) {
+            return Outcome.failed(p, "Account with id " + p.fromAccountId() + " not found.");
+        }
+        if (destination == null) {
+            return Outcome.failed(p, "Account with id " + p.toAccountId() + " not found.");
+        }
+        if (source.getBalance() < p.amount()) {
+            return Outcome.failed(p, "Insufficient funds to process transaction on account " + p.fromAccountId());
+        }
+        if (!source.getCurrency().equals(destination.getCurrency())
+                || Long.MAX_VALUE - destination.getBalance() < p.amount()) {
+            return Outcome.failed(p, "Account " + p.toAccountId() + " cannot receive this transfer");
+        }
+        Transaction debit = ledger.append(source, TransactionType.WITHDRAWAL, p.amount(), p.reference(), now);
+        Transaction credit = ledger.append(destination, TransactionType.DEPOSIT, p.amount(), p.reference(), now);
+        Transfer transfer = transferRepository.save(new Transfer(p.fromAccountId(), p.toAccountId(), p.amount(),
+                source.getCurrency(), p.reference(), debit.getId(), credit.getId(), now, p.requestId()));
+        return new Outcome(p, transfer, null);
+    }
+
+    private record Pending(String requestId, String fromAccountId, String toAccountId, long amount, String reference,
+                           boolean permit) {
+    }
+
+    private record Outcome(Pending pending, Transfer transfer, String failureReason) {
+        static Outcome failed(Pending pending, String reason) {
+            return new Outcome(pending, null, reason);
+        }
+
+        /** Neither applied nor refused yet: one side is waiting for {@link CrossShardRecovery}. */
+        static Outcome inDoubt(Pending pending) {
+            return new Outcome(pending, null, null);
+        }
+    }
+
+    private record Status(String owner, TransferRequestDTO request) {
+    }
+}
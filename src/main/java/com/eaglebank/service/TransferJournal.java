@@ -0,0 +1,156 @@
+package com.eaglebank.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local append-only log of asynchronously accepted transfers and their outcomes,
+ * one JSON document per line. A transfer is forced to disk before the client is
+ * told it was accepted, and after a crash the entries without an outcome are
+ * handed back by {@link #recover()}. Concurrent writers share fsyncs: one force
+ * covers every entry written before it started.
+ */
+final class TransferJournal implements Closeable {
+    static final String ACCEPTED = "accepted";
+    static final String RESOLVED = "resolved";
+
+    record Entry(String op, String requestId, String fromAccountId, String toAccountId, Long amount, String reference) {
+        static Entry accepted(String requestId, String fromAccountId, String toAccountId, long amount, String reference) {
+            return new Entry(ACCEPTED, requestId, fromAccountId, toAccountId, amount, reference);
+        }
+
+        static Entry resolved(String requestId) {
+            return new Entry(RESOLVED, requestId, null, null, null, null);
+        }
+    }
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    private final Object syncLock = new Object();
+    private FileChannel channel;
+    // number of appends so far, used as the position for sync()
+    private long written;
+    private long synced;
+    private int outstanding;
+
+    TransferJournal(Path path, ObjectMapper objectMapper) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the accepted entries that have no outcome, oldest first, and rewrites
+     * the journal to hold only those. A torn last line from a crash is dropped; it
+     * was never acknowledged to a client.
+     */
+    synchronized List<Entry> recover() throws IOException {
+        Map<String, Entry> pending = new LinkedHashMap<>();
+        if (Files.exists(path)) {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                Entry entry;
+                try {
+                    entry = objectMapper.readValue(line, Entry.class);
+                } catch (JsonProcessingException ex) {
+                    break;
+                }
+                if (ACCEPTED.equals(entry.op())) {
+                    pending.put(entry.requestId(), entry);
+                } else {
+                    pending.remove(entry.requestId());
+                }
+            }
+        } else if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+
+        Path rewritten = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(rewritten, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Entry entry : pending.values()) {
+                out.write(encode(entry));
+            }
+            out.force(true);
+        }
+        Files.move(rewritten, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        outstanding = pending.size();
+        return new ArrayList<>(pending.values());
+    }
+
+    /** Writes the entries and returns the position to pass to {@link #sync(long)}. */
+    synchronized long append(List<Entry> entries) {
+        try {
+            for (Entry entry : entries) {
+                ByteBuffer buffer = encode(entry);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                outstanding += ACCEPTED.equals(entry.op()) ? 1 : -1;
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return written += entries.size();
+    }
+
+    /** Returns once everything appended up to {@code position} is on disk. */
+    void sync(long position) {
+        synchronized (syncLock) {
+            if (synced >= position) {
+                return;
+            }
+            long target;
+            synchronized (this) {
+                target = written;
+            }
+            try {
+                channel.force(false);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            synced = target;
+        }
+    }
+
+    /** Empties the file once it has grown past {@code maxBytes} and no entry is awaiting an outcome. */
+    synchronized void truncateIfDrained(long maxBytes) {
+        try {
+            if (outstanding == 0 && channel.size() > maxBytes) {
+                channel.truncate(0);
+                channel.force(true);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private ByteBuffer encode(Entry entry) throws JsonProcessingException {
+        byte[] json = objectMapper.writeValueAsBytes(entry);
+        ByteBuffer buffer = ByteBuffer.allocate(json.length + 1);
+        buffer.put(json).put((byte) '\n').flip();
+        return buffer;
+    }
+}
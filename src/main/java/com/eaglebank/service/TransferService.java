@@ -0,0 +1,166 @@
+package com.eaglebank.service;
+
+import com.eaglebank.config.CacheConfig;
+import com.eaglebank.config.MetricsConfig;
+import com.eaglebank.dto.TransferDTO;
+import com.eaglebank.dto.TransferRequestDTO;
+import com.eaglebank.exception.AccountNotFoundException;
+import com.eaglebank.exception.TransferRequestNotFoundException;
+import com.eaglebank.model.Account;
+import com.eaglebank.model.Transaction;
+import com.eaglebank.model.TransactionType;
+import com.eaglebank.model.Transfer;
+import com.eaglebank.repository.AccountRepository;
+import com.eaglebank.repository.TransferRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+
+@Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
+public class TransferService {
+    private static final String ID_PREFIX = "trf-";
+    private static final String CURRENCY = "GBP";
+
+    private final AccountRepository accountRepository;
+    private final TransferRepository transferRepository;
+    private final AccountLocks accountLocks;
+    private final Ledger ledger;
+    private final TransactionTemplate transactionTemplate;
+    private final RecentWrites recentWrites;
+    private final AccountShards accountShards;
+    private final CrossShardTransfers crossShardTransfers;
+    private final TransferEngine engine;
+
+    public TransferService(AccountRepository accountRepository,
+                           TransferRepository transferRepository,
+                           AccountLocks accountLocks,
+                           Ledger ledger,
+                           TransactionTemplate transactionTemplate,
+                           RecentWrites recentWrites,
+                           AccountShards accountShards,
+                           CrossShardTransfers crossShardTransfers,
+                           ObjectProvider<TransferEngine> engine) {
+        this.accountRepository = accountRepository;
+        this.transferRepository = transferRepository;
+        this.accountLocks = accountLocks;
+        this.ledger = ledger;
+        this.transactionTemplate = transactionTemplate;
+        this.recentWrites = recentWrites;
+        this.accountShards = accountShards;
+        this.crossShardTransfers = crossShardTransfers;
+        this.engine = engine.getIfAvailable();
+    }
+
+    /** Whether {@link #submit} is available, i.e. {@code eaglebank.transfers.async.enabled} is set. */
+    public boolean acceptsAsync() {
+        return engine != null;
+    }
+
+    /**
+     * Moves {@code amount} from one account to another as a withdrawal and a deposit
+     * committed together. Locks are always taken in the same order, stripes by index
+     * and then rows by account id, so transfers running in opposite directions between
+     * the same accounts wait for each other instead of deadlocking. Accounts on
+     * different shards are posted by {@link CrossShardTransfers}.
+     */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.ACCOUNTS, key = "#fromAccountId"),
+            @CacheEvict(cacheNames = CacheConfig.ACCOUNTS, key = "#dto.toAccountId")
+    })
+    public TransferDTO transfer(String fromAccountId, TransferDTO dto) {
+        validate(fromAccountId, dto);
+        String toAccountId = dto.getToAccountId();
+
+        List<Lock> locks = accountLocks.orderedLocksFor(List.of(fromAccountId, toAccountId));
+        locks.forEach(Lock::lock);
+        try {
+            Transfer saved = accountShards.sameShard(fromAccountId, toAccountId)
+                    ? accountShards.onShardOf(fromAccountId, () -> transactionTemplate.execute(status ->
+                            post(fromAccountId, toAccountId, dto.getAmount(), dto.getReference())))
+                    : crossShardTransfers.transfer(fromAccountId, toAccountId, dto.getAmount(), dto.getReference(), null);
+            recentWrites.record(fromAccountId);
+            recentWrites.record(toAccountId);
+            return toDTO(saved);
+        } finally {
+            for (int i = locks.size() - 1; i >= 0; i--) {
+                locks.get(i).unlock();
+            }
+        }
+    }
+
+    /**
+     * Accepts the transfer for the asynchronous engine and returns at once; its outcome
+     * is read back with {@link #getRequest}. Balance checks happen when it is applied.
+     */
+    public TransferRequestDTO submit(String fromAccountId, TransferDTO dto) {
+        if (engine == null) {
+            throw new IllegalStateException("Asynchronous transfers are not enabled");
+        }
+        validate(fromAccountId, dto);
+        return engine.submit(fromAccountId, dto.getToAccountId(), dto.getAmount(), dto.getReference());
+    }
+
+    public TransferRequestDTO getRequest(String fromAccountId, String requestId) {
+        return Optional.ofNullable(engine)
+                .flatMap(e -> e.status(fromAccountId, requestId))
+                .orElseThrow(() -> new TransferRequestNotFoundException(requestId));
+    }
+
+    private static void validate(String fromAccountId, TransferDTO dto) {
+        String toAccountId = dto.getToAccountId();
+        if (toAccountId == null || toAccountId.isBlank()) {
+            throw new IllegalArgumentException("toAccountId is required");
+        }
+        if (dto.getAmount() == null || dto.getAmount() <= 0) {
+            throw new IllegalArgumentException("amount is required and must be greater than zero");
+        }
+        if (dto.getCurrency() != null && !CURRENCY.equals(dto.getCurrency())) {
+            throw new IllegalArgumentException("Unsupported currency: " + dto.getCurrency());
+        }
+        if (fromAccountId.equals(toAccountId)) {
+            throw new IllegalArgumentException("Cannot transfer to the same account");
+        }
+    }
+
+    private Transfer post(String fromAccountId, String toAccountId, long amount, String reference) {
+        // row locks in id order too, so writers on other nodes follow the same order
+        Account source;
+        Account destination;
+        if (fromAccountId.compareTo(toAccountId) < 0) {
+            source = lockAccount(fromAccountId);
+            destination = lockAccount(toAccountId);
+        } else {
+            destination = lockAccount(toAccountId);
+            source = lockAccount(fromAccountId);
+        }
+        if (!source.getCurrency().equals(destination.getCurrency())) {
+            throw new IllegalArgumentException("Accounts " + fromAccountId + " and " + toAccountId + " hold different currencies");
+        }
+
+        Instant now = Instant.now();
+        Transaction debit = ledger.append(source, TransactionType.WITHDRAWAL, amount, reference, now);
+        Transaction credit = ledger.append(destination, TransactionType.DEPOSIT, amount, reference, now);
+        return transferRepository.save(new Transfer(fromAccountId, toAccountId, amount, source.getCurrency(), reference,
+                debit.getId(), credit.getId(), now));
+    }
+
+    private Account lockAccount(String accountId) {
+        return accountRepository.findByIdForUpdate(accountId)
+                .orElseThrow(() -> new AccountNotFoundException(accountId));
+    }
+
+    static TransferDTO toDTO(Transfer t) {
+        return new TransferDTO(ID_PREFIX + t.getId(), t.getFromAccountId(), t.getToAccountId(), t.getAmount(), t.getCurrency(),
+                t.getReference(), TransactionService.ID_PREFIX + t.getDebitTransactionId(),
+                TransactionService.ID_PREFIX + t.getCreditTransactionId(), t.getCreatedTimestamp());
+    }
+}
@@ -0,0 +1,12 @@
+package com.eaglebank.service;
+
+/**
+ * Source of server-assigned user ids in the {@code usr-xxxxx} format. Every
+ * implementation must return ids that are unique without asking the database,
+ * so user creation never probes the {@code users} table.
+ */
+public interface UserIdGenerator {
+    String ID_PREFIX = "usr-";
+
+    String nextId();
+}
@@ -0,0 +1,171 @@
+package com.eaglebank.service;
+
+import com.eaglebank.config.MetricsConfig;
+import com.eaglebank.dto.UserDTO;
+import com.eaglebank.dto.UserImportResultDTO;
+import com.eaglebank.model.Address;
+import com.eaglebank.model.User;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams users from NDJSON or a JSON array into the database. Records are read
+ * one at a time, validated, and persisted in JDBC batches; each batch is
+ * committed and detached before the next one is read, so memory stays bounded
+ * by the batch size rather than the payload.
+ * <p>
+ * Per-record results are spooled to a temp file and streamed back once the
+ * request body has been consumed. Most HTTP/1.1 clients do not read the
+ * response until they have finished sending, so writing results while still
+ * reading would deadlock both sides once the socket buffers fill.
+ */
+@Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
+public class UserImportService {
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter resultWriter;
+    private final Validator validator;
+    private final UserIdGenerator userIdGenerator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final RecentWrites recentWrites;
+    private final Outbox outbox;
+    private final int batchSize;
+
+    public UserImportService(ObjectMapper objectMapper,
+                             Validator validator,
+                             UserIdGenerator userIdGenerator,
+                             EntityManager entityManager,
+                             TransactionTemplate transactionTemplate,
+                             RecentWrites recentWrites,
+                             Outbox outbox,
+                             @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}") int batchSize) {
+        this.objectMapper = objectMapper;
+        this.resultWriter = objectMapper.writerFor(UserImportResultDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.validator = validator;
+        this.userIdGenerator = userIdGenerator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.recentWrites = recentWrites;
+        this.outbox = outbox;
+        this.batchSize = batchSize;
+    }
+
+    public void importUsers(InputStream in, OutputStream out) throws IOException {
+        Path spool = Files.createTempFile("user-import-", ".ndjson");
+        try {
+            try (OutputStream spoolOut = new BufferedOutputStream(Files.newOutputStream(spool))) {
+                importUsers(in, objectMapper.getFactory().createGenerator(spoolOut));
+            }
+            Files.copy(spool, out);
+            out.flush();
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+    }
+
+    private void importUsers(InputStream in, JsonGenerator generator) throws IOException {
+        // NDJSON: one value per line, terminated by '\n' rather than Jackson's default ' ' separator
+        generator.setRootValueSeparator(null);
+        List<User> batch = new ArrayList<>(batchSize);
+        List<UserImportResultDTO> results = new ArrayList<>(batchSize);
+
+        // readValues accepts both a root-level JSON array and newline-delimited values
+        try (MappingIterator<UserDTO> records = objectMapper.readerFor(UserDTO.class).readValues(in)) {
+            int index = 0;
+            while (true) {
+                // results of invalid records pile up too, with no valid ones to fill the batch
+                if (results.size() >= batchSize) {
+                    flush(batch, results, generator);
+                }
+                UserDTO dto;
+                try {
+                    if (!records.hasNextValue()) break;
+                    dto = records.nextValue();
+                } catch (JsonParseException ex) {
+                    // malformed JSON cannot be resynchronised; report it and stop reading
+                    results.add(new UserImportResultDTO(index, UserImportResultDTO.INVALID, null, List.of("Malformed JSON: " + ex.getOriginalMessage())));
+                    break;
+                } catch (JsonMappingException ex) {
+                    results.add(new UserImportResultDTO(index++, UserImportResultDTO.INVALID, null, List.of(ex.getOriginalMessage())));
+                    continue;
+                }
+
+                Set<ConstraintViolation<UserDTO>> violations = validator.validate(dto);
+                if (!violations.isEmpty()) {
+                    List<String> errors = violations.stream()
+                            .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                            .sorted()
+                            .toList();
+                    results.add(new UserImportResultDTO(index++, UserImportResultDTO.INVALID, null, errors));
+                    continue;
+                }
+
+                User user = new User(userIdGenerator.nextId(), dto.getName(), dto.getEmail(), Address.fromDTO(dto.getAddress()), dto.getPhoneNumber());
+                batch.add(user);
+                results.add(new UserImportResultDTO(index++, UserImportResultDTO.CREATED, user.getId(), null));
+            }
+        }
+        flush(batch, results, generator);
+        generator.close();
+    }
+
+    private void flush(List<User> batch, List<UserImportResultDTO> results, JsonGenerator generator) throws IOException {
+        if (!batch.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    batch.forEach(entityManager::persist);
+                    Map<String, UserDTO> created = new LinkedHashMap<>();
+                    batch.forEach(user -> created.put(user.getId(), user.toDTO()));
+                    outbox.appendAll(Outbox.USER, "UserCreated", created);
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+                batch.forEach(user -> recentWrites.record(user.getId()));
+            } catch (RuntimeException ex) {
+                log.warn("Could not insert a batch of {} imported users, reporting them as failed", batch.size(), ex);
+                for (int i = 0; i < results.size(); i++) {
+                    UserImportResultDTO r = results.get(i);
+                    if (UserImportResultDTO.CREATED.equals(r.getStatus())) {
+                        results.set(i, new UserImportResultDTO(r.getIndex(), UserImportResultDTO.FAILED, null, List.of("Batch insert failed, record was not created")));
+                    }
+                }
+            }
+        }
+        for (UserImportResultDTO result : results) {
+            resultWriter.writeValue(generator, result);
+            generator.writeRaw('\n');
+        }
+        batch.clear();
+        results.clear();
+    }
+}
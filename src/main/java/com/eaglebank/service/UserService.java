@@ -1,117 +1,204 @@
 package com.eaglebank.service;
 
+import com.eaglebank.config.CacheConfig;
+import com.eaglebank.config.MetricsConfig;
+import com.eaglebank.dto.AddressDTO;
+import com.eaglebank.dto.PageDTO;
 import com.eaglebank.dto.UserDTO;
+import com.eaglebank.exception.PreconditionFailedException;
 import com.eaglebank.exception.UserNotFoundException;
-import com.eaglebank.exception.AccessDeniedException;
 import com.eaglebank.model.Address;
 import com.eaglebank.model.User;
 import com.eaglebank.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.security.SecureRandom;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
+@Timed(value = MetricsConfig.SERVICE_TIMER, histogram = true)
 public class UserService {
     private final UserRepository userRepository;
-    private static final String ID_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
-    private static final SecureRandom RANDOM = new SecureRandom();
-    private static final int DEFAULT_ID_LENGTH = 5;
-    private static final int MAX_ID_GEN_ATTEMPTS = 5;
-    private static final String ID_PREFIX = "usr-";
-
-    public UserService(UserRepository userRepository) {
+    private final UserIdGenerator userIdGenerator;
+    private final RecentWrites recentWrites;
+    private final Outbox outbox;
+    private final AccountService accountService;
+    private final AccountShards accountShards;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate accountTransaction;
+    private final Cache users;
+
+    public UserService(UserRepository userRepository, UserIdGenerator userIdGenerator, RecentWrites recentWrites,
+                       Outbox outbox, AccountService accountService, AccountShards accountShards,
+                       PlatformTransactionManager transactionManager, CacheManager cacheManager) {
         this.userRepository = userRepository;
+        this.userIdGenerator = userIdGenerator;
+        this.recentWrites = recentWrites;
+        this.outbox = outbox;
+        this.accountService = accountService;
+        this.accountShards = accountShards;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // the account's shard can only be reached from a transaction of its own
+        this.accountTransaction = new TransactionTemplate(transactionManager);
+        if (accountShards.count() > 1) {
+            this.accountTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        }
+        this.users = cacheManager.getCache(CacheConfig.USERS);
+    }
+
+    // access is checked by AuthenticationFilter before any of these run, so a cache hit skips nothing
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#userId")
+    @Transactional(readOnly = true)
+    public UserDTO getUserById(String userId) {
+        recentWrites.beforeRead(userId);
+        return userRepository.findDTOById(userId).orElseThrow(() -> new UserNotFoundException(userId));
     }
 
-    public UserDTO getUserById(String requesterId, String userId) {
-        if (!userId.equals(requesterId)) {
-            throw new AccessDeniedException(requesterId, userId);
+    /**
+     * The user's current version, for answering conditional requests without building
+     * a {@link UserDTO}: taken from the cached one when there is one, else a lookup
+     * of the version column alone.
+     */
+    @Transactional(readOnly = true)
+    public long getUserVersion(String userId) {
+        UserDTO cached = users != null ? users.get(userId, UserDTO.class) : null;
+        if (cached != null) {
+            return cached.getVersion();
         }
-        User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(userId));
-        return user.toDTO();
+        recentWrites.beforeRead(userId);
+        return userRepository.findVersionById(userId).orElseThrow(() -> new UserNotFoundException(userId));
     }
 
-    public UserDTO createUser(UserDTO dto) {
-        User user = new User();
+    /** Lists users in id order by keyset, one primary-key range scan per page. */
+    @Transactional(readOnly = true)
+    public PageDTO<UserDTO> listUsers(String cursor, int limit) {
+        Limit fetch = KeysetCursor.fetchLimit(limit);
+        List<User> rows = userRepository.findByIdGreaterThanOrderByIdAsc(KeysetCursor.decode(cursor).id(), fetch);
 
-        // Always generate the id on the server; ignore any client-provided id
-        String id = null;
-        int attempts = 0;
-        do {
-            // generate the alphanumeric suffix and prefix it with 'usr-'
-            id = ID_PREFIX + generateId(DEFAULT_ID_LENGTH);
-            attempts++;
-        } while (userRepository.existsById(id) && attempts < MAX_ID_GEN_ATTEMPTS);
-
-        if (userRepository.existsById(id)) {
-            throw new IllegalStateException("Failed to generate a unique user id after " + MAX_ID_GEN_ATTEMPTS + " attempts");
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            nextCursor = new KeysetCursor(0, rows.get(limit - 1).getId()).encode();
         }
+        return new PageDTO<>(rows.stream().map(User::toDTO).toList(), nextCursor);
+    }
 
-        user.setId(id);
+    public UserDTO createUser(UserDTO dto) {
+        User user = new User();
+
+        // Always generate the id on the server; ignore any client-provided id.
+        // Generated ids are unique by construction, so there is nothing to probe.
+        user.setId(userIdGenerator.nextId());
         user.setName(dto.getName());
         user.setEmail(dto.getEmail());
         user.setAddress(Address.fromDTO(dto.getAddress()));
         user.setPhoneNumber(dto.getPhoneNumber());
 
-        User saved = userRepository.save(user);
-        return new UserDTO(saved.getId(), saved.getName(), saved.getEmail(), saved.getAddress() != null ? saved.getAddress().toDTO() : null, saved.getPhoneNumber());
+        // the id is drawn above, outside this transaction: a new block is allocated in a
+        // transaction of its own, which must not wait for a second pooled connection
+        UserDTO created = transactionTemplate.execute(status -> {
+            UserDTO saved = userRepository.save(user).toDTO();
+            outbox.append(Outbox.USER, saved.getId(), "UserCreated", saved);
+            return saved;
+        });
+        recentWrites.record(user.getId());
+        return created;
     }
 
-    public UserDTO patchUser(String requesterId, String userId, UserDTO userDTO) {
-        if (!userId.equals(requesterId)) {
-            throw new AccessDeniedException(requesterId, userId);
-        }
-
-        User existingUser = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(userId));
-
-        if (userDTO.getName() != null) {
-            existingUser.setName(userDTO.getName());
-        }
-        if (userDTO.getEmail() != null) {
-            existingUser.setEmail(userDTO.getEmail());
-        }
-        if (userDTO.getPhoneNumber() != null) {
-            existingUser.setPhoneNumber(userDTO.getPhoneNumber());
-        }
-
-        if (userDTO.getAddress() != null) {
-            Address existingAddress = existingUser.getAddress();
-            if (existingAddress == null) {
-                existingAddress = new Address();
+    /**
+     * Applies the non-null fields of {@code userDTO}. With {@code expectedVersion} set
+     * the patch only applies while the user is still at that version, checked by the
+     * UPDATE itself.
+     */
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
+    @Transactional
+    public UserDTO patchUser(String userId, UserDTO userDTO, Long expectedVersion) {
+        recentWrites.record(userId);
+        // one UPDATE of just the supplied columns instead of load, merge and save
+        Map<String, Object> columns = patchColumns(userDTO);
+        if (columns.isEmpty()) {
+            UserDTO current = userRepository.findById(userId)
+                    .map(User::toDTO)
+                    .orElseThrow(() -> new UserNotFoundException(userId));
+            if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+                throw versionMismatch(userId);
             }
-            if (userDTO.getAddress().getLine1() != null) existingAddress.setLine1(userDTO.getAddress().getLine1());
-            if (userDTO.getAddress().getLine2() != null) existingAddress.setLine2(userDTO.getAddress().getLine2());
-            if (userDTO.getAddress().getLine3() != null) existingAddress.setLine3(userDTO.getAddress().getLine3());
-            if (userDTO.getAddress().getTown() != null) existingAddress.setTown(userDTO.getAddress().getTown());
-            if (userDTO.getAddress().getCounty() != null) existingAddress.setCounty(userDTO.getAddress().getCounty());
-            if (userDTO.getAddress().getPostcode() != null)
-                existingAddress.setPostcode(userDTO.getAddress().getPostcode());
-            existingUser.setAddress(existingAddress);
+            return current;
         }
-
-        User savedUser = userRepository.save(existingUser);
-        return savedUser.toDTO();
+        UserDTO patched = userRepository.patchColumns(userId, columns, expectedVersion)
+                .map(User::toDTO)
+                .orElseThrow(() -> expectedVersion != null && userRepository.existsById(userId)
+                        ? versionMismatch(userId)
+                        : new UserNotFoundException(userId));
+        outbox.append(Outbox.USER, userId, "UserUpdated", patched);
+        return patched;
     }
 
+    private static PreconditionFailedException versionMismatch(String userId) {
+        return new PreconditionFailedException("User " + userId + " has changed since the version given in If-Match");
+    }
 
-    public void deleteUser(String requesterId, String userId) {
-        if (!userId.equals(requesterId)) {
-            throw new AccessDeniedException(requesterId, userId);
+    /** Maps the non-null fields of a patch to their columns. */
+    private static Map<String, Object> patchColumns(UserDTO dto) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        putIfPresent(columns, "name", dto.getName());
+        putIfPresent(columns, "email", dto.getEmail());
+        putIfPresent(columns, "phone_number", dto.getPhoneNumber());
+        AddressDTO address = dto.getAddress();
+        if (address != null) {
+            putIfPresent(columns, "address_line1", address.getLine1());
+            putIfPresent(columns, "address_line2", address.getLine2());
+            putIfPresent(columns, "address_line3", address.getLine3());
+            putIfPresent(columns, "address_town", address.getTown());
+            putIfPresent(columns, "address_county", address.getCounty());
+            putIfPresent(columns, "address_postcode", address.getPostcode());
         }
-
-        User existingUser = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException(userId));
-
-        userRepository.delete(existingUser);
+        return columns;
     }
 
-    private String generateId(int length) {
-        StringBuilder sb = new StringBuilder(length);
-        for (int i = 0; i < length; i++) {
-            int idx = RANDOM.nextInt(ID_ALPHABET.length());
-            sb.append(ID_ALPHABET.charAt(idx));
+    private static void putIfPresent(Map<String, Object> columns, String column, Object value) {
+        if (value != null) {
+            columns.put(column, value);
         }
-        return sb.toString();
+    }
+
+
+    /**
+     * Deletes the user together with their account, its snapshot and ledger (see
+     * {@link AccountService#closeAccount}), in bulk statements whose number does not
+     * depend on the size of the ledger. The user's account must be empty.
+     * <p>
+     * Unsharded, everything is one transaction. Sharded, the account side runs in a
+     * transaction of its own on the account's shard, nested in the user's one and
+     * committed first: if the user's side then fails, the user is left without their
+     * account, and deleting again finishes it.
+     */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId"),
+            @CacheEvict(cacheNames = CacheConfig.ACCOUNTS, key = "#userId")
+    })
+    public void deleteUser(String userId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (userRepository.deleteUser(userId) == 0) {
+                throw new UserNotFoundException(userId);
+            }
+            outbox.append(Outbox.USER, userId, "UserDeleted", Map.of("id", userId));
+            // an account's id is its user's id
+            accountShards.onShardOf(userId, () -> accountTransaction.executeWithoutResult(
+                    accountStatus -> accountService.closeAccount(userId)));
+        });
+        recentWrites.record(userId);
     }
 }
@@ -0,0 +1,41 @@
+create table users (
+    id                varchar(255) not null,
+    name              varchar(255),
+    email             varchar(255),
+    phone_number      varchar(255),
+    address_line1     varchar(255),
+    address_line2     varchar(255),
+    address_line3     varchar(255),
+    address_town      varchar(255),
+    address_county    varchar(255),
+    address_postcode  varchar(255),
+    version           bigint,
+    primary key (id)
+);
+
+create table accounts (
+    id                   varchar(255) not null,
+    account_number       varchar(255),
+    sort_code            varchar(255),
+    name                 varchar(255),
+    account_type         enum ('BUSINESS', 'PERSONAL'),
+    balance              bigint not null,
+    currency             varchar(255),
+    last_event_sequence  bigint not null default 0,
+    version              bigint,
+    primary key (id),
+    constraint uk_accounts_account_number unique (account_number),
+    constraint uk_accounts_sort_code unique (sort_code)
+);
+
+-- keyset listings: filter columns first, then the sort key, then id as tie-breaker
+create index idx_accounts_type_id on accounts (account_type, id);
+create index idx_accounts_balance_id on accounts (balance, id);
+create index idx_accounts_type_balance_id on accounts (account_type, balance, id);
+
+-- blocks of account numbers and sort codes handed out by IdAllocationService
+create table id_sequences (
+    name        varchar(255) not null,
+    next_value  bigint not null,
+    primary key (name)
+);
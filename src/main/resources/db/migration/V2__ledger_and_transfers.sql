@@ -0,0 +1,46 @@
+create sequence transactions_seq start with 1 increment by 50;
+
+create table transactions (
+    id                 bigint not null,
+    account_id         varchar(255) not null,
+    event_sequence     bigint not null,
+    type               enum ('DEPOSIT', 'WITHDRAWAL') not null,
+    amount             bigint not null,
+    balance_after      bigint not null,
+    currency           varchar(255) not null,
+    reference          varchar(255),
+    created_timestamp  timestamp(6) with time zone not null,
+    primary key (id),
+    constraint uk_transactions_account_sequence unique (account_id, event_sequence)
+);
+
+-- covers everything a replay reads
+create index idx_transactions_replay on transactions (account_id, event_sequence, type, amount);
+
+create table account_snapshots (
+    account_id      varchar(255) not null,
+    event_sequence  bigint not null,
+    balance         bigint not null,
+    taken_at        timestamp(6) with time zone not null,
+    primary key (account_id)
+);
+
+create sequence transfers_seq start with 1 increment by 50;
+
+create table transfers (
+    id                     bigint not null,
+    from_account_id        varchar(255) not null,
+    to_account_id          varchar(255) not null,
+    amount                 bigint not null,
+    currency               varchar(255) not null,
+    reference              varchar(255),
+    debit_transaction_id   bigint not null,
+    credit_transaction_id  bigint not null,
+    created_timestamp      timestamp(6) with time zone not null,
+    request_id             varchar(255),
+    primary key (id),
+    constraint uk_transfers_request_id unique (request_id)
+);
+
+create index idx_transfers_from_account on transfers (from_account_id);
+create index idx_transfers_to_account on transfers (to_account_id);
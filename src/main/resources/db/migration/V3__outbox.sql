@@ -0,0 +1,12 @@
+-- events for downstream systems, written in the same transaction as the change they describe
+-- and deleted once relayed; identity ids are taken at insert, after the aggregate row is locked
+create table outbox_events (
+    id                 bigint generated by default as identity,
+    event_id           uuid not null,
+    aggregate_type     varchar(32) not null,
+    aggregate_id       varchar(255) not null,
+    event_type         varchar(64) not null,
+    payload            varchar(4000) not null,
+    created_timestamp  timestamp(6) with time zone not null,
+    primary key (id)
+);
@@ -0,0 +1,7 @@
+-- accounts whose ledger is still being deleted in the background after their user was deleted;
+-- while a row is here no new account can be opened under the same id
+create table ledger_purges (
+    account_id    varchar(255) not null,
+    requested_at  timestamp(6) with time zone not null,
+    primary key (account_id)
+);
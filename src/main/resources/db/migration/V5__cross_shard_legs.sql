@@ -0,0 +1,13 @@
+-- the leg of a transfer between shards that commits first, kept on that leg's shard until the
+-- other leg is known to have committed; one whose other leg never did is reversed
+create table cross_shard_legs (
+    transaction_id              bigint not null,
+    account_id                  varchar(255) not null,
+    counterpart_account_id      varchar(255) not null,
+    counterpart_transaction_id  bigint not null,
+    transfer_id                 bigint,
+    created_at                  timestamp(6) with time zone not null,
+    primary key (transaction_id)
+);
+
+create index idx_cross_shard_legs_created_at on cross_shard_legs (created_at);
@@ -1,11 +1,13 @@
 package com.eaglebank;
 
+import com.eaglebank.security.TokenService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -21,6 +23,9 @@ public class AccountControllerIntegrationTests {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private TokenService tokenService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -32,7 +37,7 @@ public class AccountControllerIntegrationTests {
                 "}";
 
         String result = mockMvc.perform(post("/v1/accounts")
-                        .header("user-id", "usr-abc12")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-abc12"))
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(payload))
                 .andExpect(status().isCreated())
@@ -55,7 +60,7 @@ public class AccountControllerIntegrationTests {
                 "}";
 
         mockMvc.perform(post("/v1/accounts")
-                        .header("user-id", "usr-xyz09")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-xyz09"))
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(payload))
                 .andExpect(status().isBadRequest());
@@ -63,14 +68,14 @@ public class AccountControllerIntegrationTests {
 
     @Test
     public void getAccount_existingId_returnsAccount() throws Exception {
-        // create an account first with known user-id
+        // create an account first for a known user
         String payload = "{\n" +
                 "  \"name\": \"Fetchable Account\",\n" +
                 "  \"accountType\": \"personal\"\n" +
                 "}";
 
         String createResult = mockMvc.perform(post("/v1/accounts")
-                        .header("user-id", "usr-get01")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-get01"))
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(payload))
                 .andExpect(status().isCreated())
@@ -78,9 +83,9 @@ public class AccountControllerIntegrationTests {
 
         JsonNode created = objectMapper.readTree(createResult);
 
-        // now fetch by the account id (which is the user-id header used when creating)
+        // now fetch by the account id (which is the id of the user who created it)
         String getResult = mockMvc.perform(get("/v1/accounts/usr-get01")
-                        .header("user-id", "usr-get01"))
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-get01")))
                 .andExpect(status().isOk())
                 .andReturn().getResponse().getContentAsString();
 
@@ -93,21 +98,41 @@ public class AccountControllerIntegrationTests {
 
     @Test
     public void getAccount_mismatchedUserId_returnsForbidden() throws Exception {
-        // create an account first with known user-id
+        // create an account first for a known user
         String payload = "{\n" +
                 "  \"name\": \"Private Account\",\n" +
                 "  \"accountType\": \"personal\"\n" +
                 "}";
 
         mockMvc.perform(post("/v1/accounts")
-                        .header("user-id", "usr-pvt01")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-pvt01"))
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(payload))
                 .andExpect(status().isCreated());
 
-        // attempt to fetch with a different valid user-id header (mismatch)
+        // attempt to fetch with a valid token for a different user (mismatch)
         mockMvc.perform(get("/v1/accounts/usr-pvt01")
-                        .header("user-id", "usr-oth01"))
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-oth01")))
                 .andExpect(status().isForbidden());
     }
+
+    @Test
+    public void createAccount_secondAccountForSameUser_returnsConflict() throws Exception {
+        String payload = "{\n" +
+                "  \"name\": \"First Account\",\n" +
+                "  \"accountType\": \"personal\"\n" +
+                "}";
+
+        mockMvc.perform(post("/v1/accounts")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-dup01"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/v1/accounts")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-dup01"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isConflict());
+    }
 }
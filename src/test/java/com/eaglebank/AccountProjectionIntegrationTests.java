@@ -0,0 +1,121 @@
+package com.eaglebank;
+
+import com.eaglebank.dto.TransactionDTO;
+import com.eaglebank.model.AccountSnapshot;
+import com.eaglebank.model.TransactionType;
+import com.eaglebank.repository.AccountSnapshotRepository;
+import com.eaglebank.security.TokenService;
+import com.eaglebank.service.AccountProjectionService;
+import com.eaglebank.service.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class AccountProjectionIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountProjectionService accountProjectionService;
+
+    @Autowired
+    private AccountSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void postings_numberEventsContiguously() throws Exception {
+        createAccount("usr-evt01");
+        for (int i = 0; i < 5; i++) {
+            transactionService.createTransaction("usr-evt01", request(TransactionType.DEPOSIT, 10));
+        }
+
+        assertThat(jdbcTemplate.queryForList(
+                "select event_sequence from transactions where account_id = ? order by event_sequence", Long.class, "usr-evt01"))
+                .containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(jdbcTemplate.queryForObject(
+                "select last_event_sequence from accounts where id = ?", Long.class, "usr-evt01")).isEqualTo(5L);
+    }
+
+    @Test
+    public void rebuild_restoresProjectionFromSnapshotAndLaterEvents() throws Exception {
+        createAccount("usr-evt02");
+        for (int i = 0; i < 120; i++) {
+            transactionService.createTransaction("usr-evt02", request(TransactionType.DEPOSIT, 100));
+        }
+        transactionService.createTransaction("usr-evt02", request(TransactionType.WITHDRAWAL, 50));
+
+        accountProjectionService.takeSnapshots();
+        AccountSnapshot snapshot = snapshotRepository.findById("usr-evt02").orElseThrow();
+        assertThat(snapshot.getSequence()).isEqualTo(121L);
+        assertThat(snapshot.getBalance()).isEqualTo(11_950L);
+
+        // events after the snapshot must be replayed on top of it
+        transactionService.createTransaction("usr-evt02", request(TransactionType.DEPOSIT, 25));
+        jdbcTemplate.update("update accounts set balance = 0, last_event_sequence = 0 where id = ?", "usr-evt02");
+        assertThat(accountProjectionService.audit()).contains("usr-evt02");
+
+        String rebuilt = mockMvc.perform(post("/v1/backoffice/accounts/usr-evt02/rebuild")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.backoffice(tokenService)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readTree(rebuilt).get("balance").asLong()).isEqualTo(11_975L);
+        assertThat(accountProjectionService.audit()).doesNotContain("usr-evt02");
+
+        String account = mockMvc.perform(get("/v1/accounts/usr-evt02")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-evt02")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readTree(account).get("balance").asLong()).isEqualTo(11_975L);
+
+        // postings continue from the rebuilt sequence
+        TransactionDTO next = transactionService.createTransaction("usr-evt02", request(TransactionType.DEPOSIT, 5));
+        assertThat(next.getBalance()).isEqualTo(11_980L);
+    }
+
+    @Test
+    public void rebuild_unknownAccount_returnsNotFound() throws Exception {
+        mockMvc.perform(post("/v1/backoffice/accounts/usr-nope9/rebuild")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.backoffice(tokenService)))
+                .andExpect(status().isNotFound());
+    }
+
+    private void createAccount(String userId) throws Exception {
+        mockMvc.perform(post("/v1/accounts")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, userId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Event Account\", \"accountType\": \"personal\"}"))
+                .andExpect(status().isCreated());
+    }
+
+    private static TransactionDTO request(TransactionType type, long amount) {
+        TransactionDTO dto = new TransactionDTO();
+        dto.setType(type);
+        dto.setAmount(amount);
+        return dto;
+    }
+}
@@ -0,0 +1,166 @@
+package com.eaglebank;
+
+import com.eaglebank.dto.TransactionDTO;
+import com.eaglebank.model.TransactionType;
+import com.eaglebank.security.TokenService;
+import com.eaglebank.service.TransactionService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "eaglebank.transfers.async.enabled=true",
+        "eaglebank.transfers.async.journal=target/async-transfers/journal.log"
+})
+@AutoConfigureMockMvc
+public class AsyncTransferIntegrationTests {
+
+    private static final Path JOURNAL = Path.of("target", "async-transfers", "journal.log");
+
+    static {
+        // an entry accepted before a crash, with no outcome recorded
+        try {
+            Files.createDirectories(JOURNAL.getParent());
+            Files.writeString(JOURNAL, "{\"op\":\"accepted\",\"requestId\":\"req-recovered\",\"fromAccountId\":\"usr-gone1\"," +
+                    "\"toAccountId\":\"usr-gone2\",\"amount\":5,\"reference\":null}\n{\"op\":\"acc");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Test
+    public void preferAsync_acceptsAndAppliesTransfer() throws Exception {
+        createAccount("usr-asy01", 500);
+        createAccount("usr-asy02", 0);
+        String token = TestTokens.bearer(tokenService, "usr-asy01");
+
+        String location = mockMvc.perform(post("/v1/transfers")
+                        .header(HttpHeaders.AUTHORIZATION, token)
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"toAccountId\": \"usr-asy02\", \"amount\": 200, \"reference\": \"queued\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+        assertThat(location).contains("/v1/transfers/requests/req-");
+
+        JsonNode request = awaitOutcome(location, token);
+        assertThat(request.get("status").asText()).isEqualTo("completed");
+        assertThat(request.get("transfer").get("id").asText()).startsWith("trf-");
+        assertThat(balanceOf("usr-asy01")).isEqualTo(300L);
+        assertThat(balanceOf("usr-asy02")).isEqualTo(200L);
+
+        // only the requester can see it
+        mockMvc.perform(get(location).header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-asy02")))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void asyncTransfer_withoutFunds_isReportedAsFailed() throws Exception {
+        createAccount("usr-asy03", 10);
+        createAccount("usr-asy04", 0);
+        String token = TestTokens.bearer(tokenService, "usr-asy03");
+
+        String location = mockMvc.perform(post("/v1/transfers")
+                        .header(HttpHeaders.AUTHORIZATION, token)
+                        .header("Prefer", "respond-async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"toAccountId\": \"usr-asy04\", \"amount\": 11}"))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+
+        JsonNode request = awaitOutcome(location, token);
+        assertThat(request.get("status").asText()).isEqualTo("failed");
+        assertThat(request.get("failureReason").asText()).contains("Insufficient funds");
+        assertThat(balanceOf("usr-asy03")).isEqualTo(10L);
+    }
+
+    @Test
+    public void withoutPreference_transferStaysSynchronous() throws Exception {
+        createAccount("usr-asy05", 10);
+        createAccount("usr-asy06", 0);
+        mockMvc.perform(post("/v1/transfers")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-asy05"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"toAccountId\": \"usr-asy06\", \"amount\": 10}"))
+                .andExpect(status().isCreated());
+        assertThat(balanceOf("usr-asy06")).isEqualTo(10L);
+    }
+
+    @Test
+    public void journaledTransfer_isAppliedAfterRestart() throws Exception {
+        JsonNode request = awaitOutcome("/v1/transfers/requests/req-recovered", TestTokens.bearer(tokenService, "usr-gone1"));
+        // the accounts never existed in this fresh database, so the replayed transfer fails cleanly
+        assertThat(request.get("status").asText()).isEqualTo("failed");
+        // the torn line was dropped and the outcome recorded
+        for (String line : Files.readAllLines(JOURNAL)) {
+            objectMapper.readTree(line);
+        }
+        assertThat(Files.readString(JOURNAL)).contains("\"op\":\"resolved\",\"requestId\":\"req-recovered\"");
+    }
+
+    private JsonNode awaitOutcome(String location, String token) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            String body = mockMvc.perform(get(location).header(HttpHeaders.AUTHORIZATION, token))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode node = objectMapper.readTree(body);
+            if (!"queued".equals(node.get("status").asText()) || System.currentTimeMillis() > deadline) {
+                return node;
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private void createAccount(String userId, long openingBalance) throws Exception {
+        mockMvc.perform(post("/v1/accounts")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, userId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Async Account\", \"accountType\": \"personal\"}"))
+                .andExpect(status().isCreated());
+        if (openingBalance > 0) {
+            TransactionDTO deposit = new TransactionDTO();
+            deposit.setType(TransactionType.DEPOSIT);
+            deposit.setAmount(openingBalance);
+            transactionService.createTransaction(userId, deposit);
+        }
+    }
+
+    private long balanceOf(String accountId) throws Exception {
+        String body = mockMvc.perform(get("/v1/accounts/" + accountId)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, accountId)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("balance").asLong();
+    }
+}
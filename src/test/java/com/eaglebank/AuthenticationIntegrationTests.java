@@ -0,0 +1,115 @@
+package com.eaglebank;
+
+import com.eaglebank.security.TokenService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class AuthenticationIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void missingOrInvalidToken_returnsUnauthorized() throws Exception {
+        String userId = createUser();
+        mockMvc.perform(get("/v1/users/" + userId))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().string(HttpHeaders.WWW_AUTHENTICATE, "Bearer"));
+
+        String token = tokenService.issue(userId, Set.of(), Duration.ofMinutes(10));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        mockMvc.perform(get("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, "Bearer " + tampered))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, "Bearer not-a-token"))
+                .andExpect(status().isUnauthorized());
+
+        String expired = tokenService.issue(userId, Set.of(), Duration.ofSeconds(-1));
+        mockMvc.perform(get("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, "Bearer " + expired))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void anotherUsersResource_returnsForbidden() throws Exception {
+        String owner = createUser();
+        String other = createUser();
+        mockMvc.perform(get("/v1/users/" + owner).header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, other)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/v1/users/" + owner).header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, owner)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void backoffice_requiresScope() throws Exception {
+        String userId = createUser();
+        mockMvc.perform(get("/v1/backoffice/users").header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, userId)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/v1/backoffice/users").header(HttpHeaders.AUTHORIZATION, TestTokens.backoffice(tokenService)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void startup_withoutSigningKey_fails() {
+        assertThatThrownBy(() -> new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--eaglebank.auth.hmac-secret=", "--eaglebank.scheduling.enabled=false", "--logging.level.root=OFF"))
+                .hasRootCauseMessage("eaglebank.auth.hmac-secret must be set, e.g. through EAGLEBANK_AUTH_SECRET");
+    }
+
+    @Test
+    public void reusedToken_isServedFromVerifiedCache() throws Exception {
+        String userId = createUser();
+        String token = TestTokens.bearer(tokenService, userId);
+        double hitsBefore = cacheHits();
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token))
+                    .andExpect(status().isOk());
+        }
+        assertThat(cacheHits() - hitsBefore).isEqualTo(2);
+    }
+
+    private double cacheHits() {
+        return meterRegistry.get("cache.gets").tag("cache", "verified-tokens").tag("result", "hit")
+                .functionCounter().count();
+    }
+
+    private String createUser() throws Exception {
+        String payload = "{\"name\": \"Token Holder\", \"email\": \"token@example.com\", \"phoneNumber\": \"07777000111\", " +
+                "\"address\": {\"line1\": \"1 Main St\", \"line2\": \"Suite 1\", \"town\": \"Townsville\", \"county\": \"Countyshire\", \"postcode\": \"AB12 3CD\"}}";
+        String body = mockMvc.perform(post("/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asText();
+    }
+}
@@ -0,0 +1,120 @@
+package com.eaglebank;
+
+import com.eaglebank.model.Account;
+import com.eaglebank.model.AccountType;
+import com.eaglebank.repository.AccountRepository;
+import com.eaglebank.repository.UserRepository;
+import com.eaglebank.security.TokenService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class BackofficeIntegrationTests {
+
+    private static final long BASE_BALANCE = 7_000_000L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    public void seedAccounts() {
+        if (accountRepository.existsById("usr-bo000")) {
+            return;
+        }
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            // pairs share a balance so the id tie-breaker is exercised
+            AccountType type = i % 3 == 0 ? AccountType.PERSONAL : AccountType.BUSINESS;
+            accounts.add(new Account(String.format("usr-bo%03d", i), String.format("990000%02d", i), String.format("99-00-%02d", i),
+                    "Backoffice " + i, type, BASE_BALANCE + (i / 2) * 10L, "GBP"));
+        }
+        accountRepository.saveAll(accounts);
+    }
+
+    @Test
+    public void listAccounts_byTypeAndBalanceRange_walksEveryMatchInOrder() throws Exception {
+        List<JsonNode> seen = walk(() -> backoffice("/v1/backoffice/accounts")
+                .param("accountType", "business")
+                .param("minBalance", String.valueOf(BASE_BALANCE + 20))
+                .param("maxBalance", String.valueOf(BASE_BALANCE + 120))
+                .param("limit", "4"));
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            long balance = BASE_BALANCE + (i / 2) * 10L;
+            if (i % 3 != 0 && balance >= BASE_BALANCE + 20 && balance <= BASE_BALANCE + 120) {
+                expected.add(String.format("usr-bo%03d", i));
+            }
+        }
+        assertThat(seen).extracting(n -> n.get("id").asText()).containsExactlyElementsOf(expected);
+        assertThat(seen).allMatch(n -> n.get("accountType").asText().equals("business"));
+    }
+
+    @Test
+    public void listUsers_walksAllUsersInIdOrder() throws Exception {
+        List<JsonNode> seen = walk(() -> backoffice("/v1/backoffice/users").param("limit", "3"));
+
+        List<String> ids = seen.stream().map(n -> n.get("id").asText()).toList();
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+        assertThat((long) ids.size()).isEqualTo(userRepository.count());
+    }
+
+    @Test
+    public void listAccounts_withInvalidCursorOrLimit_returnsBadRequest() throws Exception {
+        mockMvc.perform(backoffice("/v1/backoffice/accounts").param("cursor", "not a cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(backoffice("/v1/backoffice/accounts").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(backoffice("/v1/backoffice/accounts").param("minBalance", "10").param("maxBalance", "5"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private MockHttpServletRequestBuilder backoffice(String path) {
+        return get(path).header(HttpHeaders.AUTHORIZATION, TestTokens.backoffice(tokenService));
+    }
+
+    private List<JsonNode> walk(Supplier<MockHttpServletRequestBuilder> pageRequest) throws Exception {
+        List<JsonNode> items = new ArrayList<>();
+        MockHttpServletRequestBuilder request = pageRequest.get();
+        String cursor;
+        do {
+            String body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode page = objectMapper.readTree(body);
+            page.get("items").forEach(items::add);
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            request = pageRequest.get().param("cursor", cursor);
+        } while (cursor != null);
+        return items;
+    }
+}
@@ -0,0 +1,135 @@
+package com.eaglebank;
+
+import com.eaglebank.dto.AccountDTO;
+import com.eaglebank.dto.PageDTO;
+import com.eaglebank.model.AccountType;
+import com.eaglebank.service.AccountService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares keyset page latency at the start of the accounts table with pages
+ * near its end (2M accounts by default, override with
+ * {@code -Deaglebank.load.accounts}). An OFFSET query at the same depth is
+ * timed for reference.
+ */
+@Tag("load")
+public class BackofficeListingLoadTests {
+
+    private static final int ACCOUNTS = Integer.getInteger("eaglebank.load.accounts", 2_000_000);
+    private static final int SEED_BATCH = 10_000;
+    private static final int PAGE_SIZE = 100;
+    private static final int SAMPLES = 300;
+    private static final long MAX_BALANCE = 1_000_000L;
+    private static final Map<String, String> INDEXES = Map.of(
+            "idx_accounts_type_id", "account_type, id",
+            "idx_accounts_balance_id", "balance, id",
+            "idx_accounts_type_balance_id", "account_type, balance, id");
+
+    @Test
+    public void pageLatency_doesNotGrowWithDepth() throws Exception {
+        Path dir = Path.of("target", "load", "backoffice");
+        FileSystemUtils.deleteRecursively(dir);
+
+        try (ConfigurableApplicationContext context = LoadTestSupport.start(Map.of(
+                "spring.datasource.url", "jdbc:h2:file:./" + dir.resolve("db") + ";CACHE_SIZE=131072",
+                "spring.jpa.hibernate.ddl-auto", "create"))) {
+            AccountService accountService = context.getBean(AccountService.class);
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            seed(jdbc, context.getBean(TransactionTemplate.class));
+
+            // far enough from the end that even the type-filtered walk (half the rows) fills every sample
+            String deepId = id(ACCOUNTS - 3 * SAMPLES * PAGE_SIZE);
+            long deepBalance = MAX_BALANCE - MAX_BALANCE * 3L * SAMPLES * PAGE_SIZE / ACCOUNTS;
+
+            report("by id", accountService, after -> accountService.listAccounts(null, null, null, after, PAGE_SIZE),
+                    cursor(0, deepId));
+            report("by type", accountService, after -> accountService.listAccounts(AccountType.BUSINESS, null, null, after, PAGE_SIZE),
+                    cursor(0, deepId));
+            report("by balance", accountService, after -> accountService.listAccounts(null, 0L, MAX_BALANCE, after, PAGE_SIZE),
+                    cursor(deepBalance, ""));
+
+            long started = System.nanoTime();
+            jdbc.queryForList("select id from accounts order by id limit ? offset ?", PAGE_SIZE, ACCOUNTS - PAGE_SIZE);
+            System.out.printf("reference OFFSET %,d page: %d us%n", ACCOUNTS - PAGE_SIZE, (System.nanoTime() - started) / 1_000);
+        }
+    }
+
+    private static void report(String name, AccountService accountService,
+                               Function<String, PageDTO<AccountDTO>> page, String deepCursor) {
+        walk(page, null); // warm-up
+        long[] shallow = walk(page, null);
+        long[] deep = walk(page, deepCursor);
+        System.out.printf("%s: first pages p50=%d us p99=%d us, deep pages p50=%d us p99=%d us%n", name,
+                micros(shallow, 0.50), micros(shallow, 0.99), micros(deep, 0.50), micros(deep, 0.99));
+        assertThat(LoadTestSupport.percentile(deep, 0.50)).isLessThan(3 * LoadTestSupport.percentile(shallow, 0.50) + 1_000_000);
+    }
+
+    /** Times consecutive pages starting from {@code cursor}. */
+    private static long[] walk(Function<String, PageDTO<AccountDTO>> page, String cursor) {
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long started = System.nanoTime();
+            PageDTO<AccountDTO> result = page.apply(cursor);
+            samples[i] = System.nanoTime() - started;
+            assertThat(result.getItems()).hasSize(PAGE_SIZE);
+            cursor = result.getNextCursor();
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    private static void seed(JdbcTemplate jdbc, TransactionTemplate tx) {
+        long started = System.nanoTime();
+        // random balances would scatter every insert across the secondary indexes; build them once at the end
+        for (String index : INDEXES.keySet()) {
+            jdbc.execute("drop index " + index);
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        for (int from = 0; from < ACCOUNTS; from += SEED_BATCH) {
+            int batchStart = from;
+            int batchEnd = Math.min(ACCOUNTS, from + SEED_BATCH);
+            tx.executeWithoutResult(status -> {
+                List<Object[]> rows = new ArrayList<>(batchEnd - batchStart);
+                for (int i = batchStart; i < batchEnd; i++) {
+                    rows.add(new Object[]{id(i), String.format("%08d", i), String.format("%08d", i),
+                            i % 2 == 0 ? "PERSONAL" : "BUSINESS", random.nextLong(MAX_BALANCE + 1)});
+                }
+                jdbc.batchUpdate("insert into accounts (id, account_number, sort_code, name, account_type, balance, currency, version) " +
+                        "values (?, ?, ?, 'Seed Account', ?, ?, 'GBP', 0)", rows);
+            });
+        }
+        INDEXES.forEach((index, columns) -> jdbc.execute("create index " + index + " on accounts (" + columns + ")"));
+        System.out.printf("seeded %,d accounts in %.1f s%n", ACCOUNTS, (System.nanoTime() - started) / 1e9);
+    }
+
+    private static String id(int i) {
+        return String.format("acc-%08d", i);
+    }
+
+    /** Same encoding as the service's cursors, so the walk can start deep without paging there. */
+    private static String cursor(long sortValue, String id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((sortValue + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long micros(long[] sortedNanos, double p) {
+        return LoadTestSupport.percentile(sortedNanos, p) / 1_000;
+    }
+}
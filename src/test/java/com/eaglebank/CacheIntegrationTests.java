@@ -0,0 +1,138 @@
+package com.eaglebank;
+
+import com.eaglebank.config.CacheConfig;
+import com.eaglebank.security.TokenService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class CacheIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    public void getUser_isCached_andPatchInvalidates() throws Exception {
+        String id = createUser("Cached User");
+
+        mockMvc.perform(get("/v1/users/" + id).header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, id))).andExpect(status().isOk());
+        assertThat(cacheManager.getCache(CacheConfig.USERS).get(id)).isNotNull();
+
+        mockMvc.perform(patch("/v1/users/" + id)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, id))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Renamed User\"}"))
+                .andExpect(status().isOk());
+        assertThat(cacheManager.getCache(CacheConfig.USERS).get(id)).isNull();
+
+        String fetched = mockMvc.perform(get("/v1/users/" + id).header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, id)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readTree(fetched).get("name").asText()).isEqualTo("Renamed User");
+    }
+
+    @Test
+    public void deleteUser_evictsCachedEntry() throws Exception {
+        String id = createUser("Deleted User");
+
+        mockMvc.perform(get("/v1/users/" + id).header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, id))).andExpect(status().isOk());
+        mockMvc.perform(delete("/v1/users/" + id).header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, id))).andExpect(status().isNoContent());
+
+        assertThat(cacheManager.getCache(CacheConfig.USERS).get(id)).isNull();
+        mockMvc.perform(get("/v1/users/" + id).header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, id))).andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void getUser_forbiddenRequest_isNotServedFromCache() throws Exception {
+        String id = createUser("Guarded User");
+
+        mockMvc.perform(get("/v1/users/" + id).header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, id))).andExpect(status().isOk());
+        mockMvc.perform(get("/v1/users/" + id).header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-zzzzz"))).andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void balanceChange_evictsCachedAccount() throws Exception {
+        mockMvc.perform(post("/v1/accounts")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-cch01"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Cached Account\", \"accountType\": \"personal\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/v1/accounts/usr-cch01").header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-cch01"))).andExpect(status().isOk());
+
+        mockMvc.perform(post("/v1/accounts/usr-cch01/transactions")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-cch01"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 250, \"type\": \"deposit\"}"))
+                .andExpect(status().isCreated());
+
+        String fetched = mockMvc.perform(get("/v1/accounts/usr-cch01").header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-cch01")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readTree(fetched).get("balance").asLong()).isEqualTo(250L);
+    }
+
+    @Test
+    public void cacheCounters_areExposedAsMetrics() throws Exception {
+        String id = createUser("Metered User");
+        mockMvc.perform(get("/v1/users/" + id).header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, id))).andExpect(status().isOk());
+        mockMvc.perform(get("/v1/users/" + id).header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, id))).andExpect(status().isOk());
+
+        String hits = mockMvc.perform(get("/actuator/metrics/cache.gets").header(HttpHeaders.AUTHORIZATION, TestTokens.backoffice(tokenService))
+                        .param("tag", "cache:users")
+                        .param("tag", "result:hit"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readTree(hits).get("measurements").get(0).get("value").asDouble()).isGreaterThanOrEqualTo(1.0);
+
+        mockMvc.perform(get("/actuator/metrics/cache.evictions").header(HttpHeaders.AUTHORIZATION, TestTokens.backoffice(tokenService))
+                        .param("tag", "cache:accounts"))
+                .andExpect(status().isOk());
+    }
+
+    private String createUser(String name) throws Exception {
+        String payload = "{\n" +
+                "  \"name\": \"" + name + "\",\n" +
+                "  \"email\": \"cache@example.com\",\n" +
+                "  \"phoneNumber\": \"07777000010\",\n" +
+                "  \"address\": {\n" +
+                "    \"line1\": \"1 Cache Rd\",\n" +
+                "    \"line2\": \"Unit 1\",\n" +
+                "    \"town\": \"CacheTown\",\n" +
+                "    \"county\": \"CacheCounty\",\n" +
+                "    \"postcode\": \"CA1 1CH\"\n" +
+                "  }\n" +
+                "}";
+        String result = mockMvc.perform(post("/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode node = objectMapper.readTree(result);
+        return node.get("id").asText();
+    }
+}
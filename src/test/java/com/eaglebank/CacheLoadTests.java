@@ -0,0 +1,98 @@
+package com.eaglebank;
+
+import com.eaglebank.dto.AddressDTO;
+import com.eaglebank.dto.UserDTO;
+import com.eaglebank.security.TokenService;
+import com.eaglebank.service.UserService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares GET /v1/users/{id} latency with the read-through cache on and off.
+ */
+@Tag("load")
+public class CacheLoadTests {
+
+    private static final int USERS = 500;
+    private static final int CLIENTS = 16;
+    private static final int REQUESTS_PER_CLIENT = 1_000;
+
+    @Test
+    public void cachedReads_lowerTailLatency() throws Exception {
+        long[] uncached = run("none");
+        long[] cached = run("caffeine");
+
+        System.out.printf("cache off: p50=%d us, p99=%d us%n", micros(uncached, 0.50), micros(uncached, 0.99));
+        System.out.printf("cache on:  p50=%d us, p99=%d us%n", micros(cached, 0.50), micros(cached, 0.99));
+
+        assertThat(LoadTestSupport.percentile(cached, 0.50)).isLessThan(LoadTestSupport.percentile(uncached, 0.50));
+    }
+
+    private long[] run(String cacheType) throws Exception {
+        try (ConfigurableApplicationContext context = LoadTestSupport.start(Map.of("spring.cache.type", cacheType));
+             ExecutorService clients = Executors.newFixedThreadPool(CLIENTS)) {
+            UserService userService = context.getBean(UserService.class);
+            TokenService tokenService = context.getBean(TokenService.class);
+            List<String> ids = new ArrayList<>();
+            Map<String, String> tokens = new HashMap<>();
+            for (int i = 0; i < USERS; i++) {
+                String id = userService.createUser(new UserDTO(null, "Cache Load", "load@example.com",
+                        new AddressDTO("1 Load St", "Unit 1", null, "LoadTown", "LoadCounty", "LD1 1LD"), "07777000000")).getId();
+                ids.add(id);
+                tokens.put(id, TestTokens.bearer(tokenService, id));
+            }
+            HttpClient http = HttpClient.newHttpClient();
+            String base = "http://localhost:" + LoadTestSupport.port(context) + "/v1/users/";
+
+            load(clients, http, base, ids, tokens); // warm-up
+            long[] samples = load(clients, http, base, ids, tokens);
+            Arrays.sort(samples);
+            return samples;
+        }
+    }
+
+    private static long[] load(ExecutorService clients, HttpClient http, String base, List<String> ids,
+                               Map<String, String> tokens) throws Exception {
+        long[] samples = new long[CLIENTS * REQUESTS_PER_CLIENT];
+        List<Future<?>> futures = new ArrayList<>();
+        for (int c = 0; c < CLIENTS; c++) {
+            int offset = c * REQUESTS_PER_CLIENT;
+            futures.add(clients.submit(() -> {
+                for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                    String id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(base + id)).header("Authorization", tokens.get(id)).build();
+                    long started = System.nanoTime();
+                    HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+                    samples[offset + i] = System.nanoTime() - started;
+                    assertThat(response.statusCode()).isEqualTo(200);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get();
+        }
+        return samples;
+    }
+
+    private static long micros(long[] sortedNanos, double p) {
+        return LoadTestSupport.percentile(sortedNanos, p) / 1_000;
+    }
+}
@@ -0,0 +1,144 @@
+package com.eaglebank;
+
+import com.eaglebank.dto.AccountDTO;
+import com.eaglebank.dto.TransactionDTO;
+import com.eaglebank.model.AccountType;
+import com.eaglebank.model.TransactionType;
+import com.eaglebank.security.TokenService;
+import com.eaglebank.service.AccountService;
+import com.eaglebank.service.TransactionService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Clients polling GET /v1/accounts/{id} for balance changes, as dashboards do, once
+ * plainly and once revalidating with the last ETag they saw. Each client watches
+ * its own accounts and about 5% of polls follow a posting to one of them, so most
+ * conditional polls end in a 304. Prints response bytes and process CPU per poll
+ * for each; the CPU figure includes the in-process clients, which do the same work
+ * in both runs. The account cache is off so every poll reaches the database.
+ */
+@Tag("load")
+public class ConditionalPollingLoadTests {
+
+    private static final int ACCOUNTS = 200;
+    private static final int CLIENTS = 16;
+    private static final int POLLS_PER_CLIENT = 1_500;
+    private static final double WRITE_RATIO = 0.05;
+
+    @Test
+    public void conditionalPolling_savesBytesAndCpu() throws Exception {
+        try (ConfigurableApplicationContext context = LoadTestSupport.start(Map.of("spring.cache.type", "none"))) {
+            AccountService accounts = context.getBean(AccountService.class);
+            TransactionService transactions = context.getBean(TransactionService.class);
+            TokenService tokenService = context.getBean(TokenService.class);
+            List<String> ids = new ArrayList<>();
+            List<String> tokens = new ArrayList<>();
+            for (int a = 0; a < ACCOUNTS; a++) {
+                String id = String.format("usr-pl%03d", a);
+                accounts.createAccount(id, new AccountDTO(null, null, "Polled Account", AccountType.PERSONAL, 0L, null));
+                ids.add(id);
+                tokens.add(TestTokens.bearer(tokenService, id));
+            }
+            HttpClient http = HttpClient.newHttpClient();
+            String base = "http://localhost:" + LoadTestSupport.port(context) + "/v1/accounts/";
+
+            poll(http, base, ids, tokens, transactions, false); // warm-up
+            poll(http, base, ids, tokens, transactions, true);
+            Result plain = poll(http, base, ids, tokens, transactions, false);
+            Result conditional = poll(http, base, ids, tokens, transactions, true);
+
+            System.out.printf("plain polling:       %,d bytes/poll, %,d us CPU/poll, %.0f%% 304s%n",
+                    plain.bytesPerPoll(), plain.cpuMicrosPerPoll(), plain.notModifiedPercent());
+            System.out.printf("conditional polling: %,d bytes/poll, %,d us CPU/poll, %.0f%% 304s%n",
+                    conditional.bytesPerPoll(), conditional.cpuMicrosPerPoll(), conditional.notModifiedPercent());
+
+            assertThat(conditional.notModifiedPercent()).isGreaterThan(50);
+            assertThat(conditional.bytesPerPoll()).isLessThan(plain.bytesPerPoll() / 2);
+        }
+    }
+
+    private static Result poll(HttpClient http, String base, List<String> ids, List<String> tokens,
+                               TransactionService transactions, boolean conditional) throws Exception {
+        AtomicLong bytes = new AtomicLong();
+        AtomicLong notModified = new AtomicLong();
+        long cpuBefore = processCpuNanos();
+        try (ExecutorService clients = Executors.newFixedThreadPool(CLIENTS)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                int client = c;
+                SplittableRandom random = new SplittableRandom(c);
+                futures.add(clients.submit(() -> {
+                    // the last ETag this client saw for each account, as a browser cache would keep it
+                    String[] seen = new String[ids.size()];
+                    for (int i = 0; i < POLLS_PER_CLIENT; i++) {
+                        int a = random.nextInt(ids.size() / CLIENTS) * CLIENTS + client;
+                        if (random.nextDouble() < WRITE_RATIO) {
+                            transactions.createTransaction(ids.get(a), deposit());
+                        }
+                        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + ids.get(a)))
+                                .header("Authorization", tokens.get(a));
+                        if (conditional && seen[a] != null) {
+                            request.header("If-None-Match", seen[a]);
+                        }
+                        HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+                        assertThat(response.statusCode()).isIn(200, 304);
+                        bytes.addAndGet(response.body().length + headerBytes(response));
+                        if (response.statusCode() == 304) {
+                            notModified.incrementAndGet();
+                        }
+                        seen[a] = response.headers().firstValue("ETag").orElse(null);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get(5, TimeUnit.MINUTES);
+            }
+        }
+        long polls = (long) CLIENTS * POLLS_PER_CLIENT;
+        return new Result(bytes.get() / polls, (processCpuNanos() - cpuBefore) / 1_000 / polls, 100.0 * notModified.get() / polls);
+    }
+
+    private static long headerBytes(HttpResponse<?> response) {
+        long size = 0;
+        for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+            for (String value : header.getValue()) {
+                size += header.getKey().length() + 2 + value.length() + 2;
+            }
+        }
+        return size;
+    }
+
+    private static long processCpuNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean()).getProcessCpuTime();
+    }
+
+    private static TransactionDTO deposit() {
+        TransactionDTO dto = new TransactionDTO();
+        dto.setType(TransactionType.DEPOSIT);
+        dto.setAmount(1L);
+        return dto;
+    }
+
+    private record Result(long bytesPerPoll, long cpuMicrosPerPoll, double notModifiedPercent) {
+    }
+}
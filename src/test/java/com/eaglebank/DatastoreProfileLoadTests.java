@@ -0,0 +1,146 @@
+package com.eaglebank;
+
+import com.eaglebank.dto.TransferDTO;
+import com.eaglebank.exception.InsufficientFundsException;
+import com.eaglebank.service.AccountService;
+import com.eaglebank.service.TransferService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the same mix of transfers and account reads (10k operations by default,
+ * override with {@code -Deaglebank.load.operations}) against the default in-memory
+ * datastore and the file-backed {@code persistent} profile, then restarts the
+ * persistent one to check its data survived.
+ */
+@Tag("load")
+public class DatastoreProfileLoadTests {
+
+    private static final int OPERATIONS = Integer.getInteger("eaglebank.load.operations", 10_000);
+    private static final int ACCOUNTS = 256;
+    private static final int THREADS = 16;
+    private static final long OPENING_BALANCE = 100_000L;
+
+    @Test
+    public void compareInMemoryAndPersistentProfiles() throws Exception {
+        double inMemory;
+        try (ConfigurableApplicationContext context = LoadTestSupport.start(Map.of(
+                "spring.datasource.url", "jdbc:h2:mem:datastore-profile",
+                "eaglebank.scheduling.enabled", false))) {
+            inMemory = measure("in-memory", context);
+        }
+
+        Path dataDir = Path.of("target", "load", "datastore");
+        FileSystemUtils.deleteRecursively(dataDir);
+        Map<String, Object> persistent = new HashMap<>();
+        persistent.put("spring.profiles.active", "persistent");
+        persistent.put("eaglebank.data-dir", dataDir.toAbsolutePath());
+        persistent.put("eaglebank.scheduling.enabled", false);
+        double onDisk;
+        long transfers;
+        try (ConfigurableApplicationContext context = LoadTestSupport.start(persistent)) {
+            onDisk = measure("persistent", context);
+            transfers = context.getBean(JdbcTemplate.class).queryForObject("select count(*) from transfers", Long.class);
+        }
+        System.out.printf("persistent/in-memory throughput: %.2f%n", onDisk / inMemory);
+
+        try (ConfigurableApplicationContext context = LoadTestSupport.start(persistent)) {
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            assertThat(jdbc.queryForObject("select count(*) from transfers", Long.class)).isEqualTo(transfers);
+            assertThat(totalBalance(jdbc)).isEqualTo(ACCOUNTS * OPENING_BALANCE);
+        }
+    }
+
+    /** Seeds the accounts, runs the workload and returns operations per second. */
+    private static double measure(String profile, ConfigurableApplicationContext context) throws Exception {
+        TransferService transfers = context.getBean(TransferService.class);
+        AccountService accounts = context.getBean(AccountService.class);
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        seed(jdbc);
+        // untimed first pass, so the first profile doesn't also pay for JIT warm-up
+        run(transfers, accounts, OPERATIONS / 5);
+
+        double seconds = run(transfers, accounts, OPERATIONS);
+        long completed = (long) OPERATIONS / THREADS * THREADS;
+        System.out.printf("%s: %,d operations by %d threads in %.1f s: %,.0f ops/s%n",
+                profile, completed, THREADS, seconds, completed / seconds);
+        assertThat(totalBalance(jdbc)).isEqualTo(ACCOUNTS * OPENING_BALANCE);
+        return completed / seconds;
+    }
+
+    /** One transfer for every three account reads between random accounts; returns the elapsed seconds. */
+    private static double run(TransferService transfers, AccountService accounts, int operations) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            SplittableRandom random = new SplittableRandom(operations + t);
+            int count = operations / THREADS;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < count; i++) {
+                    int from = random.nextInt(ACCOUNTS);
+                    if (random.nextInt(4) == 0) {
+                        int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                        try {
+                            transfers.transfer(id(from), new TransferDTO(id(to), 1L + random.nextInt(5_000), null));
+                        } catch (InsufficientFundsException ignored) {
+                            // still a round trip to the datastore
+                        }
+                    } else {
+                        accounts.getAccountById(id(from));
+                    }
+                }
+                return null;
+            }));
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get(10, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+        return (System.nanoTime() - started) / 1e9;
+    }
+
+    private static void seed(JdbcTemplate jdbc) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> accounts = new ArrayList<>();
+        List<Object[]> openings = new ArrayList<>();
+        for (int a = 0; a < ACCOUNTS; a++) {
+            accounts.add(new Object[]{id(a), String.format("%08d", a), String.format("%08d", a), OPENING_BALANCE});
+            openings.add(new Object[]{a + 1L, id(a), OPENING_BALANCE, OPENING_BALANCE, now});
+        }
+        jdbc.batchUpdate("insert into accounts (id, account_number, sort_code, name, account_type, balance, currency, last_event_sequence, version) " +
+                "values (?, ?, ?, 'Datastore Account', 'PERSONAL', ?, 'GBP', 1, 0)", accounts);
+        jdbc.batchUpdate("insert into transactions (id, account_id, event_sequence, type, amount, balance_after, currency, created_timestamp) " +
+                "values (-?, ?, 1, 'DEPOSIT', ?, ?, 'GBP', ?)", openings);
+    }
+
+    private static long totalBalance(JdbcTemplate jdbc) {
+        return jdbc.queryForObject("select sum(balance) from accounts", Long.class);
+    }
+
+    private static String id(int i) {
+        return String.format("acc-%05d", i);
+    }
+}
@@ -0,0 +1,158 @@
+package com.eaglebank;
+
+import com.eaglebank.dto.TransactionDTO;
+import com.eaglebank.model.TransactionType;
+import com.eaglebank.security.TokenService;
+import com.eaglebank.service.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ETagIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Test
+    public void getUser_withCurrentETag_returnsNotModifiedWithoutBody() throws Exception {
+        String userId = createUser();
+        String token = TestTokens.bearer(tokenService, userId);
+
+        String etag = mockMvc.perform(get("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(jsonPath("$.version").doesNotExist())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).matches("\"\\d+\"");
+
+        mockMvc.perform(get("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"999999\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    @Test
+    public void patchUser_changesETag_andHonoursIfMatch() throws Exception {
+        String userId = createUser();
+        String token = TestTokens.bearer(tokenService, userId);
+        String original = mockMvc.perform(get("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        String patched = mockMvc.perform(patch("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token)
+                        .header(HttpHeaders.IF_MATCH, original)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Renamed\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Renamed"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(patched).isNotEqualTo(original);
+
+        // a poller holding the old tag gets the new representation
+        mockMvc.perform(get("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token)
+                        .header(HttpHeaders.IF_NONE_MATCH, original))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, patched))
+                .andExpect(jsonPath("$.name").value("Renamed"));
+
+        // a writer holding the old tag loses
+        mockMvc.perform(patch("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token)
+                        .header(HttpHeaders.IF_MATCH, original)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Lost Update\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(patch("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token)
+                        .header(HttpHeaders.IF_MATCH, "W/" + patched)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Weak Tag\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(jsonPath("$.name").value("Renamed"));
+
+        mockMvc.perform(patch("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token)
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Any Version\"}"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void getAccount_etagFollowsBalanceChanges() throws Exception {
+        String userId = "usr-et001";
+        String token = TestTokens.bearer(tokenService, userId);
+        mockMvc.perform(post("/v1/accounts").header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Tagged Account\", \"accountType\": \"personal\"}"))
+                .andExpect(status().isCreated());
+
+        String etag = mockMvc.perform(get("/v1/accounts/" + userId).header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/v1/accounts/" + userId).header(HttpHeaders.AUTHORIZATION, token)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        TransactionDTO deposit = new TransactionDTO();
+        deposit.setType(TransactionType.DEPOSIT);
+        deposit.setAmount(250L);
+        transactionService.createTransaction(userId, deposit);
+
+        MockHttpServletResponse response = mockMvc.perform(get("/v1/accounts/" + userId).header(HttpHeaders.AUTHORIZATION, token)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+        assertThat(objectMapper.readTree(response.getContentAsString()).get("balance").asLong()).isEqualTo(250L);
+    }
+
+    @Test
+    public void getUser_unknownUserWithIfNoneMatch_returnsNotFound() throws Exception {
+        mockMvc.perform(get("/v1/users/usr-zzzz8").header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-zzzz8"))
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotFound());
+    }
+
+    private String createUser() throws Exception {
+        String payload = "{\"name\": \"Tag Holder\", \"email\": \"tags@example.com\", \"phoneNumber\": \"07777000444\", " +
+                "\"address\": {\"line1\": \"1 Main St\", \"line2\": \"Suite 1\", \"town\": \"Townsville\", \"county\": \"Countyshire\", \"postcode\": \"AB12 3CD\"}}";
+        String body = mockMvc.perform(post("/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asText();
+    }
+}
@@ -0,0 +1,95 @@
+package com.eaglebank;
+
+import com.eaglebank.repository.IdSequenceRepository;
+import com.eaglebank.service.IdAllocationService;
+import com.eaglebank.service.IdBlockAllocator;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+public class IdAllocationServiceTests {
+
+    @Autowired
+    private IdSequenceRepository idSequenceRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void allocatorsOnSeveralNodes_neverHandOutTheSameId() throws Exception {
+        // two services stand in for two app nodes sharing the same sequence table
+        IdBlockAllocator nodeA = new IdAllocationService(idSequenceRepository, entityManager, transactionManager, meterRegistry, 7)
+                .allocator("test_multi_node", 1000L, Long.MAX_VALUE);
+        IdBlockAllocator nodeB = new IdAllocationService(idSequenceRepository, entityManager, transactionManager, meterRegistry, 7)
+                .allocator("test_multi_node", 1000L, Long.MAX_VALUE);
+
+        final int threads = 8;
+        final int idsPerThread = 500;
+        Set<Long> seen = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            IdBlockAllocator node = t % 2 == 0 ? nodeA : nodeB;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < idsPerThread; i++) {
+                    assertThat(seen.add(node.next())).isTrue();
+                }
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get(1, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        assertThat(seen).hasSize(threads * idsPerThread);
+        assertThat(seen).allMatch(id -> id >= 1000L);
+        assertThat(idSequenceRepository.findById("test_multi_node").orElseThrow().getNextValue())
+                .isGreaterThanOrEqualTo(1000L + threads * idsPerThread);
+    }
+
+    @Test
+    public void restartedNode_continuesAfterPersistedHighWaterMark() {
+        IdBlockAllocator before = new IdAllocationService(idSequenceRepository, entityManager, transactionManager, meterRegistry, 10)
+                .allocator("test_restart", 50L, Long.MAX_VALUE);
+        long first = before.next();
+
+        IdBlockAllocator after = new IdAllocationService(idSequenceRepository, entityManager, transactionManager, meterRegistry, 10)
+                .allocator("test_restart", 50L, Long.MAX_VALUE);
+
+        assertThat(first).isEqualTo(50L);
+        assertThat(after.next()).isEqualTo(60L);
+    }
+
+    @Test
+    public void exhaustedSequence_failsInsteadOfWrapping() {
+        IdBlockAllocator allocator = new IdAllocationService(idSequenceRepository, entityManager, transactionManager, meterRegistry, 2)
+                .allocator("test_exhausted", 0L, 3L);
+        allocator.next();
+        allocator.next();
+        allocator.next();
+
+        assertThatThrownBy(allocator::next).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,163 @@
+package com.eaglebank;
+
+import com.eaglebank.filter.IdempotencyFilter;
+import com.eaglebank.repository.UserRepository;
+import com.eaglebank.security.TokenService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class IdempotencyIntegrationTests {
+
+    private static final String USER_PAYLOAD = "{\"name\": \"Retry User\", \"email\": \"retry@example.com\", \"phoneNumber\": \"07777000111\", " +
+            "\"address\": {\"line1\": \"1 Main St\", \"line2\": \"Suite 1\", \"town\": \"Townsville\", \"county\": \"Countyshire\", \"postcode\": \"AB12 3CD\"}}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void createUser_retriedWithSameKey_replaysOriginalResponse() throws Exception {
+        long before = userRepository.count();
+
+        String first = mockMvc.perform(post("/v1/users")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "create-user-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(USER_PAYLOAD))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn().getResponse().getContentAsString();
+
+        String second = mockMvc.perform(post("/v1/users")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "create-user-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(USER_PAYLOAD))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(second).isEqualTo(first);
+        assertThat(userRepository.count()).isEqualTo(before + 1);
+    }
+
+    @Test
+    public void createUser_sameKeyDifferentBody_returnsUnprocessableEntity() throws Exception {
+        mockMvc.perform(post("/v1/users")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "create-user-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(USER_PAYLOAD))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/v1/users")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "create-user-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(USER_PAYLOAD.replace("Retry User", "Other User")))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    public void createAccount_sameKeyFromDifferentUsers_executesForEach() throws Exception {
+        String payload = "{\"name\": \"Keyed Account\", \"accountType\": \"personal\"}";
+
+        String first = mockMvc.perform(post("/v1/accounts")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-idem1"))
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "create-account")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        String replayed = mockMvc.perform(post("/v1/accounts")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-idem1"))
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "create-account")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        String other = mockMvc.perform(post("/v1/accounts")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-idem2"))
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "create-account")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn().getResponse().getContentAsString();
+
+        String accountNumber = objectMapper.readTree(first).get("accountNumber").asText();
+        assertThat(objectMapper.readTree(replayed).get("accountNumber").asText()).isEqualTo(accountNumber);
+        assertThat(objectMapper.readTree(other).get("accountNumber").asText()).isNotEqualTo(accountNumber);
+    }
+
+    @Test
+    public void createUser_keyedBodyOverTheLimit_returnsPayloadTooLarge() throws Exception {
+        long before = userRepository.count();
+        String oversized = USER_PAYLOAD.replace("Retry User", "R".repeat(64 * 1024));
+
+        mockMvc.perform(post("/v1/users")
+                        .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "create-user-oversized")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(oversized))
+                .andExpect(status().isPayloadTooLarge());
+        assertThat(userRepository.count()).isEqualTo(before);
+    }
+
+    @Test
+    public void createUser_concurrentDuplicates_executeOnce() throws Exception {
+        long before = userRepository.count();
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<MockHttpServletResponse>> calls = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                calls.add(() -> mockMvc.perform(post("/v1/users")
+                                .header(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "create-user-concurrent")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(USER_PAYLOAD))
+                        .andReturn().getResponse());
+            }
+            Set<String> ids = new HashSet<>();
+            for (Future<MockHttpServletResponse> future : pool.invokeAll(calls)) {
+                MockHttpServletResponse response = future.get();
+                assertThat(response.getStatus()).isEqualTo(201);
+                JsonNode node = objectMapper.readTree(response.getContentAsString());
+                ids.add(node.get("id").asText());
+            }
+            assertThat(ids).hasSize(1);
+            assertThat(userRepository.count()).isEqualTo(before + 1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
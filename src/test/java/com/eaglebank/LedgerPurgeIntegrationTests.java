@@ -0,0 +1,94 @@
+package com.eaglebank;
+
+import com.eaglebank.security.TokenService;
+import com.eaglebank.service.LedgerPurger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// the purger is run by hand here, so it must not run on its own
+@SpringBootTest(properties = {
+        "eaglebank.ledger-purge.mode=async",
+        "eaglebank.ledger-purge.batch-size=1000",
+        "eaglebank.ledger-purge.interval=1h"
+})
+@AutoConfigureMockMvc
+public class LedgerPurgeIntegrationTests {
+
+    private static final long ID_OFFSET = 1L << 40;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private LedgerPurger ledgerPurger;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void asyncMode_deletesTheAccountAtOnce_andTheLedgerInChunksLater() throws Exception {
+        String id = createUser();
+        String token = TestTokens.bearer(tokenService, id);
+        createAccount(token).andExpect(status().isCreated());
+        jdbc.update("insert into transactions (id, account_id, event_sequence, type, amount, balance_after, currency, reference, created_timestamp) " +
+                "select ? + x, ?, x, case when mod(x, 2) = 1 then 'DEPOSIT' else 'WITHDRAWAL' end, 1, mod(x, 2), 'GBP', null, current_timestamp " +
+                "from system_range(1, 2500)", ID_OFFSET, id);
+
+        mockMvc.perform(delete("/v1/users/" + id).header(HttpHeaders.AUTHORIZATION, token)).andExpect(status().isNoContent());
+        assertThat(jdbc.queryForObject("select count(*) from accounts where id = ?", Integer.class, id)).isZero();
+        assertThat(jdbc.queryForObject("select count(*) from transactions where account_id = ?", Integer.class, id)).isEqualTo(2500);
+        assertThat(jdbc.queryForObject("select count(*) from ledger_purges where account_id = ?", Integer.class, id)).isOne();
+
+        // the id cannot be reused while its old ledger is still there
+        createAccount(token).andExpect(status().isConflict());
+
+        double before = meterRegistry.get("eaglebank.ledger.purged").counter().count();
+        ledgerPurger.purge();
+        assertThat(meterRegistry.get("eaglebank.ledger.purged").counter().count() - before).isEqualTo(2500);
+        assertThat(jdbc.queryForObject("select count(*) from transactions where account_id = ?", Integer.class, id)).isZero();
+        assertThat(jdbc.queryForObject("select count(*) from ledger_purges where account_id = ?", Integer.class, id)).isZero();
+
+        createAccount(token).andExpect(status().isCreated());
+    }
+
+    private ResultActions createAccount(String token) throws Exception {
+        return mockMvc.perform(post("/v1/accounts")
+                .header(HttpHeaders.AUTHORIZATION, token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Long History\", \"accountType\": \"personal\"}"));
+    }
+
+    private String createUser() throws Exception {
+        String payload = "{\"name\": \"Long History\", \"email\": \"history@example.com\", \"phoneNumber\": \"07777000777\", " +
+                "\"address\": {\"line1\": \"1 Main St\", \"line2\": \"Suite 1\", \"town\": \"Townsville\", \"county\": \"Countyshire\", \"postcode\": \"AB12 3CD\"}}";
+        String body = mockMvc.perform(post("/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asText();
+    }
+}
@@ -0,0 +1,141 @@
+package com.eaglebank;
+
+import com.eaglebank.service.AccountProjectionService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replays a large ledger (10M events by default, override with
+ * {@code -Deaglebank.load.events}) spread over accounts of
+ * {@value #EVENTS_PER_ACCOUNT} events each: a full audit, a full rebuild, and a
+ * rebuild from snapshots after a short tail of further events.
+ */
+@Tag("load")
+public class LedgerReplayLoadTests {
+
+    private static final long EVENTS = Long.getLong("eaglebank.load.events", 10_000_000L);
+    private static final int EVENTS_PER_ACCOUNT = 100;
+    private static final int TAIL_EVENTS = 5;
+    private static final int SEED_BATCH = 10_000;
+    private static final String INSERT_EVENT = "insert into transactions " +
+            "(id, account_id, event_sequence, type, amount, balance_after, currency, created_timestamp) " +
+            "values (?, ?, ?, 'DEPOSIT', ?, ?, 'GBP', ?)";
+
+    @Test
+    public void replay_takesSecondsAndSnapshotsBoundIt() throws Exception {
+        Path dir = Path.of("target", "load", "ledger");
+        FileSystemUtils.deleteRecursively(dir);
+
+        try (ConfigurableApplicationContext context = LoadTestSupport.start(Map.of(
+                "spring.datasource.url", "jdbc:h2:file:./" + dir.resolve("db") + ";CACHE_SIZE=262144",
+                "spring.jpa.hibernate.ddl-auto", "create",
+                "eaglebank.scheduling.enabled", false,
+                "eaglebank.snapshots.min-events", EVENTS_PER_ACCOUNT))) {
+            AccountProjectionService projections = context.getBean(AccountProjectionService.class);
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            TransactionTemplate tx = context.getBean(TransactionTemplate.class);
+            int accounts = (int) (EVENTS / EVENTS_PER_ACCOUNT);
+
+            long[] balances = seed(jdbc, tx, accounts);
+
+            List<String> diverging = timed("audit (full replay)", projections::audit);
+            assertThat(diverging).isEmpty();
+
+            jdbc.update("update accounts set balance = 0, last_event_sequence = 0");
+            long started = System.nanoTime();
+            int rebuilt = timed("rebuild without snapshots", projections::rebuildAll);
+            long withoutSnapshots = System.nanoTime() - started;
+            assertThat(rebuilt).isEqualTo(accounts);
+            assertThat(projections.audit()).isEmpty();
+
+            int snapshotted = timed("snapshot", projections::takeSnapshots);
+            assertThat(snapshotted).isEqualTo(accounts);
+
+            appendTail(jdbc, tx, accounts, balances);
+            jdbc.update("update accounts set balance = 0, last_event_sequence = 0");
+            started = System.nanoTime();
+            timed("rebuild from snapshots", projections::rebuildAll);
+            long fromSnapshots = System.nanoTime() - started;
+            assertThat(projections.audit()).isEmpty();
+
+            assertThat(fromSnapshots).isLessThan(withoutSnapshots);
+        }
+    }
+
+    private static long[] seed(JdbcTemplate jdbc, TransactionTemplate tx, int accounts) {
+        long started = System.nanoTime();
+        long[] balances = new long[accounts];
+        SplittableRandom random = new SplittableRandom(42);
+        Timestamp now = Timestamp.from(Instant.now());
+        int accountsPerBatch = SEED_BATCH / EVENTS_PER_ACCOUNT;
+        for (int from = 0; from < accounts; from += accountsPerBatch) {
+            int batchStart = from;
+            int batchEnd = Math.min(accounts, from + accountsPerBatch);
+            tx.executeWithoutResult(status -> {
+                List<Object[]> accountRows = new ArrayList<>();
+                List<Object[]> events = new ArrayList<>(SEED_BATCH);
+                for (int a = batchStart; a < batchEnd; a++) {
+                    long balance = 0;
+                    for (int seq = 1; seq <= EVENTS_PER_ACCOUNT; seq++) {
+                        long amount = 1 + random.nextInt(10_000);
+                        balance += amount;
+                        events.add(new Object[]{(long) a * (EVENTS_PER_ACCOUNT + TAIL_EVENTS) + seq, id(a), seq, amount, balance, now});
+                    }
+                    balances[a] = balance;
+                    accountRows.add(new Object[]{id(a), String.format("%08d", a), String.format("%08d", a), balance, EVENTS_PER_ACCOUNT});
+                }
+                jdbc.batchUpdate("insert into accounts (id, account_number, sort_code, name, account_type, balance, currency, last_event_sequence, version) " +
+                        "values (?, ?, ?, 'Ledger Account', 'PERSONAL', ?, 'GBP', ?, 0)", accountRows);
+                jdbc.batchUpdate(INSERT_EVENT, events);
+            });
+        }
+        System.out.printf("seeded %,d events over %,d accounts in %.1f s%n", (long) accounts * EVENTS_PER_ACCOUNT, accounts,
+                (System.nanoTime() - started) / 1e9);
+        return balances;
+    }
+
+    private static void appendTail(JdbcTemplate jdbc, TransactionTemplate tx, int accounts, long[] balances) {
+        Timestamp now = Timestamp.from(Instant.now());
+        int accountsPerBatch = SEED_BATCH / TAIL_EVENTS;
+        for (int from = 0; from < accounts; from += accountsPerBatch) {
+            int batchStart = from;
+            int batchEnd = Math.min(accounts, from + accountsPerBatch);
+            tx.executeWithoutResult(status -> {
+                List<Object[]> events = new ArrayList<>(SEED_BATCH);
+                for (int a = batchStart; a < batchEnd; a++) {
+                    for (int seq = EVENTS_PER_ACCOUNT + 1; seq <= EVENTS_PER_ACCOUNT + TAIL_EVENTS; seq++) {
+                        balances[a] += 7;
+                        events.add(new Object[]{(long) a * (EVENTS_PER_ACCOUNT + TAIL_EVENTS) + seq, id(a), seq, 7L, balances[a], now});
+                    }
+                }
+                jdbc.batchUpdate(INSERT_EVENT, events);
+            });
+        }
+    }
+
+    private static <T> T timed(String name, Supplier<T> step) {
+        long started = System.nanoTime();
+        T result = step.get();
+        System.out.printf("%s: %.2f s%n", name, (System.nanoTime() - started) / 1e9);
+        return result;
+    }
+
+    private static String id(int i) {
+        return String.format("acc-%08d", i);
+    }
+}
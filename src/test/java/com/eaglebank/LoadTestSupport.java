@@ -0,0 +1,67 @@
+package com.eaglebank;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Helpers shared by the {@code @Tag("load")} suites, which boot full applications
+ * on random ports so they can compare configurations side by side.
+ */
+final class LoadTestSupport {
+
+    private LoadTestSupport() {
+    }
+
+    static ConfigurableApplicationContext start(Map<String, Object> properties, Class<?>... extraSources) {
+        Class<?>[] sources = Arrays.copyOf(new Class<?>[]{DemoApplication.class}, 1 + extraSources.length);
+        System.arraycopy(extraSources, 0, sources, 1, extraSources.length);
+        // passed as command-line arguments so they win over application.properties
+        List<String> args = new ArrayList<>();
+        args.add("--server.port=0");
+        args.add("--logging.level.root=WARN");
+        properties.forEach((key, value) -> args.add("--" + key + "=" + value));
+        return new SpringApplicationBuilder(sources).run(args.toArray(String[]::new));
+    }
+
+    static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    /** Sorted-sample percentile in nanoseconds, e.g. {@code percentile(samples, 0.99)}. */
+    static long percentile(long[] sortedNanos, double p) {
+        if (sortedNanos.length == 0) return 0L;
+        int idx = (int) Math.ceil(p * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, Math.min(idx, sortedNanos.length - 1))];
+    }
+
+    /** Tracks the number of requests inside a handler and the highest value seen. */
+    static final class InFlight {
+        private final AtomicInteger current = new AtomicInteger();
+        private final AtomicInteger peak = new AtomicInteger();
+
+        void enter() {
+            int now = current.incrementAndGet();
+            peak.accumulateAndGet(now, Math::max);
+        }
+
+        void exit() {
+            current.decrementAndGet();
+        }
+
+        int peak() {
+            return peak.get();
+        }
+
+        void reset() {
+            current.set(0);
+            peak.set(0);
+        }
+    }
+}
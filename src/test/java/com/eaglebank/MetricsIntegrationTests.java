@@ -0,0 +1,68 @@
+package com.eaglebank;
+
+import com.eaglebank.security.TokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class MetricsIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Test
+    public void prometheusEndpoint_exposesEndpointServicePoolAndHibernateMetrics() throws Exception {
+        mockMvc.perform(post("/v1/accounts")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-met01"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Metered Account\", \"accountType\": \"personal\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/v1/accounts/usr-met01").header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-met01")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-met01")))
+                .andExpect(status().isForbidden());
+        String scrape = mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, TestTokens.backoffice(tokenService)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape).contains("http_server_requests_seconds_bucket{");
+        assertThat(scrape).contains("uri=\"/v1/accounts/{accountId}\"");
+        assertThat(scrape).contains("eaglebank_service_seconds_bucket{");
+        assertThat(scrape).contains("class=\"com.eaglebank.service.AccountService\"", "method=\"createAccount\"");
+        assertThat(scrape).contains("eaglebank_id_blocks_reserved_total{");
+        assertThat(scrape).contains("hikaricp_connections_active");
+        assertThat(scrape).contains("hibernate_statements_total");
+        // bound once, by Boot, rather than a second time under another tag
+        assertThat(scrape).doesNotContain("entityManagerFactory=\"default\"");
+        // the read caches and the token cache share the cache_* names, so they need the same tag keys
+        assertThat(scrape).contains("cache_gets_total{cache=\"users\"", "cache_gets_total{cache=\"accounts\"",
+                "cache_gets_total{cache=\"verified-tokens\"");
+    }
+
+    @Test
+    public void actuator_keepsHealthOpen_andCachesOffTheWeb() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mockMvc.perform(delete("/actuator/caches")).andExpect(status().isUnauthorized());
+        mockMvc.perform(delete("/actuator/caches").header(HttpHeaders.AUTHORIZATION, TestTokens.backoffice(tokenService)))
+                .andExpect(status().isNotFound());
+    }
+}
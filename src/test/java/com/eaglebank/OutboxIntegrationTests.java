@@ -0,0 +1,172 @@
+package com.eaglebank;
+
+import com.eaglebank.model.OutboxEvent;
+import com.eaglebank.repository.OutboxEventRepository;
+import com.eaglebank.security.TokenService;
+import com.eaglebank.service.OutboxSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "eaglebank.outbox.poll-interval=50ms")
+@AutoConfigureMockMvc
+public class OutboxIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RecordingSink sink;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void userAndAccountChanges_areRelayedInOrderPerAggregate() throws Exception {
+        String userId = createUser("Outbox Owner");
+        String token = TestTokens.bearer(tokenService, userId);
+        mockMvc.perform(patch("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Renamed Once\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Renamed Twice\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/v1/accounts").header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Outbox Account\", \"accountType\": \"personal\"}"))
+                .andExpect(status().isCreated());
+
+        // rejected writes leave nothing behind
+        mockMvc.perform(patch("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Stale\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(post("/v1/accounts").header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Second Account\", \"accountType\": \"personal\"}"))
+                .andExpect(status().isConflict());
+
+        String deletedId = createUser("Short Lived");
+        mockMvc.perform(delete("/v1/users/" + deletedId).header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, deletedId)))
+                .andExpect(status().isNoContent());
+
+        await(() -> sink.eventsFor(deletedId).size() == 2 && sink.eventsFor(userId).size() == 4);
+        assertThat(sink.eventsFor(userId)).extracting(e -> e.getAggregateType() + ":" + e.getEventType())
+                .containsExactly("user:UserCreated", "user:UserUpdated", "user:UserUpdated", "account:AccountCreated");
+        List<OutboxEvent> userEvents = sink.eventsFor(userId);
+        assertThat(objectMapper.readTree(userEvents.get(2).getPayload()).get("name").asText()).isEqualTo("Renamed Twice");
+        assertThat(objectMapper.readTree(userEvents.get(3).getPayload()).get("accountNumber").asText()).isNotBlank();
+        assertThat(sink.eventsFor(deletedId)).extracting(OutboxEvent::getEventType).containsExactly("UserCreated", "UserDeleted");
+
+        await(() -> outboxEventRepository.count() == 0);
+    }
+
+    @Test
+    public void failingSink_getsTheSameBatchAgain_andLagIsReported() throws Exception {
+        sink.failNext(Integer.MAX_VALUE);
+        String userId = createUser("Redelivered");
+        mockMvc.perform(patch("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, userId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"again@example.com\"}"))
+                .andExpect(status().isOk());
+
+        await(() -> sink.attemptsFailed() >= 3 && meterRegistry.get("eaglebank.outbox.lag").gauge().value() > 0);
+        assertThat(sink.eventsFor(userId)).isEmpty();
+
+        sink.failNext(0);
+        await(() -> sink.eventsFor(userId).size() == 2);
+        assertThat(sink.eventsFor(userId)).extracting(OutboxEvent::getEventType).containsExactly("UserCreated", "UserUpdated");
+        assertThat(sink.attemptsFailed()).isGreaterThanOrEqualTo(3);
+        assertThat(meterRegistry.get("eaglebank.outbox.failures").counter().count()).isGreaterThanOrEqualTo(3);
+
+        await(() -> meterRegistry.get("eaglebank.outbox.lag").gauge().value() == 0);
+    }
+
+    private String createUser(String name) throws Exception {
+        String payload = "{\"name\": \"" + name + "\", \"email\": \"outbox@example.com\", \"phoneNumber\": \"07777000555\", " +
+                "\"address\": {\"line1\": \"1 Main St\", \"line2\": \"Suite 1\", \"town\": \"Townsville\", \"county\": \"Countyshire\", \"postcode\": \"AB12 3CD\"}}";
+        String body = mockMvc.perform(post("/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asText();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within 10s").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    /** Records delivered events and fails on demand, like a broker that is briefly down. */
+    static class RecordingSink implements OutboxSink {
+        private final List<OutboxEvent> delivered = new ArrayList<>();
+        private final AtomicInteger failuresLeft = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+
+        @Override
+        public synchronized void publish(List<OutboxEvent> events) {
+            if (failuresLeft.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                failed.incrementAndGet();
+                throw new IllegalStateException("sink unavailable");
+            }
+            delivered.addAll(events);
+        }
+
+        synchronized List<OutboxEvent> eventsFor(String aggregateId) {
+            return delivered.stream().filter(e -> e.getAggregateId().equals(aggregateId)).toList();
+        }
+
+        void failNext(int times) {
+            failuresLeft.set(times);
+        }
+
+        int attemptsFailed() {
+            return failed.get();
+        }
+    }
+
+    @TestConfiguration
+    static class SinkConfig {
+        @Bean
+        @Primary
+        RecordingSink recordingSink() {
+            return new RecordingSink();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.eaglebank;
+
+import com.eaglebank.dto.AddressDTO;
+import com.eaglebank.dto.UserDTO;
+import com.eaglebank.repository.OutboxEventRepository;
+import com.eaglebank.service.OutboxRelay;
+import com.eaglebank.service.UserService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Creates users from many threads while the relay drains the outbox to the file
+ * sink, and prints creation latency, the highest relay lag seen and how long the
+ * relay took to catch up once writes stopped. Every event must reach the file.
+ */
+@Tag("load")
+public class OutboxLoadTests {
+
+    private static final int THREADS = 16;
+    private static final int USERS_PER_THREAD = 1_000;
+
+    @Test
+    public void relayKeepsUpWithWrites() throws Exception {
+        Path file = Files.createTempFile("outbox-load-", ".ndjson");
+        try (ConfigurableApplicationContext context = LoadTestSupport.start(Map.of(
+                "eaglebank.outbox.sink", "file",
+                "eaglebank.outbox.file", file.toString()))) {
+            UserService users = context.getBean(UserService.class);
+            OutboxRelay relay = context.getBean(OutboxRelay.class);
+            OutboxEventRepository outbox = context.getBean(OutboxEventRepository.class);
+
+            long[] latencies = new long[THREADS * USERS_PER_THREAD];
+            AtomicLong maxLagMillis = new AtomicLong();
+            ExecutorService pool = Executors.newFixedThreadPool(THREADS + 1);
+            List<Future<?>> writers = new ArrayList<>();
+            long started = System.nanoTime();
+            for (int t = 0; t < THREADS; t++) {
+                int offset = t * USERS_PER_THREAD;
+                writers.add(pool.submit(() -> {
+                    for (int i = 0; i < USERS_PER_THREAD; i++) {
+                        long begin = System.nanoTime();
+                        users.createUser(new UserDTO(null, "Outbox Load", "load@example.com",
+                                new AddressDTO("1 Load St", "Unit 1", null, "LoadTown", "LoadCounty", "LD1 1LD"), "07777000000"));
+                        latencies[offset + i] = System.nanoTime() - begin;
+                    }
+                    return null;
+                }));
+            }
+            Future<?> watcher = pool.submit(() -> {
+                while (!writers.stream().allMatch(Future::isDone)) {
+                    maxLagMillis.accumulateAndGet(relay.lag().toMillis(), Math::max);
+                    Thread.sleep(10);
+                }
+                return null;
+            });
+            for (Future<?> f : writers) {
+                f.get(10, TimeUnit.MINUTES);
+            }
+            long writing = System.nanoTime() - started;
+            watcher.get();
+
+            long drainStarted = System.nanoTime();
+            while (outbox.count() > 0) {
+                Thread.sleep(10);
+            }
+            long draining = System.nanoTime() - drainStarted;
+            pool.shutdown();
+
+            Arrays.sort(latencies);
+            System.out.printf("%,d users in %.1f s (%,.0f/s): create p50=%d us, p99=%d us; max relay lag %,d ms, caught up %,d ms after the last write%n",
+                    latencies.length, writing / 1e9, latencies.length / (writing / 1e9),
+                    LoadTestSupport.percentile(latencies, 0.50) / 1_000, LoadTestSupport.percentile(latencies, 0.99) / 1_000,
+                    maxLagMillis.get(), draining / 1_000_000);
+            try (var lines = Files.lines(file)) {
+                assertThat(lines.count()).isEqualTo(latencies.length);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.eaglebank;
+
+import com.eaglebank.filter.TokenBucket;
+import com.eaglebank.security.TokenService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "eaglebank.rate-limit.ip.per-second=0.01",
+        "eaglebank.rate-limit.ip.burst=3",
+        "eaglebank.rate-limit.user.per-second=0.01",
+        "eaglebank.rate-limit.user.burst=2"
+})
+@AutoConfigureMockMvc
+public class RateLimitIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void createUser_overIpLimit_returnsTooManyRequests() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(createUser().with(from("10.0.0.1"))).andExpect(status().isCreated());
+        }
+        mockMvc.perform(createUser().with(from("10.0.0.1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+        // other clients and other endpoints are unaffected
+        mockMvc.perform(createUser().with(from("10.0.0.2"))).andExpect(status().isCreated());
+        assertThat(rejected("ip")).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    public void createAccount_overUserLimit_returnsTooManyRequests() throws Exception {
+        String body = mockMvc.perform(createUser().with(from("10.0.1.1")))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String userId = objectMapper.readTree(body).get("id").asText();
+        String token = TestTokens.bearer(tokenService, userId);
+
+        // each caller gets its own bucket, even when spreading requests over addresses
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(createAccount(token).with(from("10.0.2." + i)));
+        }
+        mockMvc.perform(createAccount(token).with(from("10.0.2.9")))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(get("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token).with(from("10.0.2.9")))
+                .andExpect(status().isOk());
+        assertThat(rejected("user")).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    public void refusedByIpLimit_keepsTheCallersOwnQuota() throws Exception {
+        String body = mockMvc.perform(createUser().with(from("10.0.4.1")))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String token = TestTokens.bearer(tokenService, objectMapper.readTree(body).get("id").asText());
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(createUser().with(from("10.0.4.1"))).andExpect(status().isCreated());
+        }
+
+        // more refusals than the caller's burst, all from the exhausted address
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(createAccount(token).with(from("10.0.4.1"))).andExpect(status().isTooManyRequests());
+        }
+        mockMvc.perform(createAccount(token).with(from("10.0.4.2"))).andExpect(status().isCreated());
+    }
+
+    @Test
+    public void tokenBucket_releaseGivesTheTokenBack() {
+        long now = System.nanoTime();
+        TokenBucket bucket = new TokenBucket(0.001, 1, now);
+        assertThat(bucket.tryAcquire(now)).isZero();
+        assertThat(bucket.tryAcquire(now)).isPositive();
+        bucket.release();
+        assertThat(bucket.tryAcquire(now)).isZero();
+    }
+
+    @Test
+    public void tokenBucket_grantsExactlyItsCapacityUnderContention() throws Exception {
+        long now = System.nanoTime();
+        TokenBucket bucket = new TokenBucket(0.001, 1000, now);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(pool.submit(() -> {
+                    int granted = 0;
+                    for (int i = 0; i < 500; i++) {
+                        if (bucket.tryAcquire(now) == 0) {
+                            granted++;
+                        }
+                    }
+                    return granted;
+                }));
+            }
+            int granted = 0;
+            for (Future<Integer> result : results) {
+                granted += result.get();
+            }
+            assertThat(granted).isEqualTo(1000);
+        } finally {
+            pool.shutdownNow();
+        }
+        // refills at the configured rate
+        assertThat(bucket.tryAcquire(now + TimeUnit.SECONDS.toNanos(1000))).isZero();
+        assertThat(bucket.tryAcquire(now + TimeUnit.SECONDS.toNanos(1000))).isPositive();
+    }
+
+    private double rejected(String limit) {
+        return meterRegistry.get("eaglebank.ratelimit.rejected").tag("limit", limit).counter().count();
+    }
+
+    private static RequestPostProcessor from(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+
+    private static MockHttpServletRequestBuilder createUser() {
+        String payload = "{\"name\": \"Throttled\", \"email\": \"throttled@example.com\", \"phoneNumber\": \"07777000111\", " +
+                "\"address\": {\"line1\": \"1 Main St\", \"line2\": \"Suite 1\", \"town\": \"Townsville\", \"county\": \"Countyshire\", \"postcode\": \"AB12 3CD\"}}";
+        return post("/v1/users").contentType(MediaType.APPLICATION_JSON).content(payload);
+    }
+
+    private static MockHttpServletRequestBuilder createAccount(String token) {
+        return post("/v1/accounts")
+                .header(HttpHeaders.AUTHORIZATION, token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\": \"Throttled Account\", \"accountType\": \"personal\"}");
+    }
+}
@@ -0,0 +1,79 @@
+package com.eaglebank;
+
+import com.eaglebank.dto.AccountDTO;
+import com.eaglebank.dto.AddressDTO;
+import com.eaglebank.dto.UserDTO;
+import com.eaglebank.model.AccountType;
+import com.eaglebank.security.TokenService;
+import com.eaglebank.service.AccountService;
+import com.eaglebank.service.UserService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prints the bytes the server allocates per GET /v1/users/{id} and
+ * GET /v1/accounts/{id}, with the read-through cache off (every request loads and
+ * maps the row) and on. Counted on the request-handling threads only, so the HTTP
+ * client and background jobs don't add to the figures.
+ */
+@Tag("load")
+public class ReadPathAllocationLoadTests {
+
+    private static final int WARM_UP = 5_000;
+    private static final int REQUESTS = 20_000;
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    public void bytesAllocatedPerRead() throws Exception {
+        for (String cacheType : new String[] {"none", "caffeine"}) {
+            try (ConfigurableApplicationContext context = LoadTestSupport.start(Map.of("spring.cache.type", cacheType))) {
+                String id = context.getBean(UserService.class).createUser(new UserDTO(null, "Allocation Probe", "probe@example.com",
+                        new AddressDTO("1 Probe St", "Unit 1", null, "ProbeTown", "ProbeCounty", "PR1 1PR"), "07777000000")).getId();
+                context.getBean(AccountService.class).createAccount(id,
+                        new AccountDTO(null, null, "Probe Account", AccountType.PERSONAL, 0L, null));
+                String token = TestTokens.bearer(context.getBean(TokenService.class), id);
+                String base = "http://localhost:" + LoadTestSupport.port(context);
+
+                long user = bytesPerRequest(base + "/v1/users/" + id, token);
+                long account = bytesPerRequest(base + "/v1/accounts/" + id, token);
+                System.out.printf("cache %-8s: GET user %,d B/request, GET account %,d B/request%n", cacheType, user, account);
+                assertThat(user).isPositive();
+            }
+        }
+    }
+
+    private static long bytesPerRequest(String url, String token) throws Exception {
+        HttpClient http = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).header("Authorization", token).build();
+        for (int i = 0; i < WARM_UP; i++) {
+            assertThat(http.send(request, HttpResponse.BodyHandlers.ofByteArray()).statusCode()).isEqualTo(200);
+        }
+        long before = serverAllocatedBytes();
+        for (int i = 0; i < REQUESTS; i++) {
+            http.send(request, HttpResponse.BodyHandlers.discarding());
+        }
+        return (serverAllocatedBytes() - before) / REQUESTS;
+    }
+
+    /** Bytes allocated so far by Tomcat's request threads. */
+    private static long serverAllocatedBytes() {
+        long total = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("http-nio-")) {
+                total += Math.max(0, THREADS.getThreadAllocatedBytes(thread.threadId()));
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,120 @@
+package com.eaglebank;
+
+import com.eaglebank.security.TokenService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Two unconnected H2 databases stand in for a primary and its replica. Nothing is
+ * replicated, so which one served a request shows in whether the row is found.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadReplicaIntegrationTests.PRIMARY_URL,
+        "eaglebank.datasource.replica.url=" + ReadReplicaIntegrationTests.REPLICA_URL,
+        "eaglebank.datasource.replica.max-lag=300ms",
+        "spring.cache.type=none"
+})
+@AutoConfigureMockMvc
+public class ReadReplicaIntegrationTests {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:replica-routing-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:replica-routing-replica;DB_CLOSE_DELAY=-1";
+
+    static {
+        // a real replica gets its schema from the primary
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primary;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replica;
+
+    @Test
+    public void getUser_isServedByTheReplica() throws Exception {
+        new JdbcTemplate(replica).update("insert into users (id, name, email, version) values ('usr-rep01', 'Replica Only', 'r@example.com', 0)");
+
+        mockMvc.perform(get("/v1/users/usr-rep01")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-rep01")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Replica Only"));
+    }
+
+    @Test
+    public void createdUser_isWrittenToPrimary_andReadBackFromItUntilTheLagWindowPasses() throws Exception {
+        String result = mockMvc.perform(post("/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Fresh User\",\"email\":\"fresh@example.com\",\"phoneNumber\":\"07777555444\"," +
+                                "\"address\":{\"line1\":\"1 Main St\",\"line2\":\"Flat 2\",\"town\":\"Townsville\"," +
+                                "\"county\":\"Countyshire\",\"postcode\":\"AB12 3CD\"}}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String userId = objectMapper.readTree(result).get("id").asText();
+        String token = TestTokens.bearer(tokenService, userId);
+
+        assertThat(count(primary, userId)).isEqualTo(1);
+        assertThat(count(replica, userId)).isZero();
+
+        // read-your-writes: the replica hasn't got the row, so this came from the primary
+        mockMvc.perform(get("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Fresh User"));
+
+        // once the window has passed reads go back to the replica, which never got the row
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        int status;
+        do {
+            Thread.sleep(50);
+            status = mockMvc.perform(get("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token))
+                    .andReturn().getResponse().getStatus();
+        } while (status == 200 && System.nanoTime() < deadline);
+        assertThat(status).isEqualTo(404);
+    }
+
+    @Test
+    public void createdAccount_isReadBackFromPrimary() throws Exception {
+        String token = TestTokens.bearer(tokenService, "usr-rep02");
+        mockMvc.perform(post("/v1/accounts")
+                        .header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Primary Account\",\"accountType\":\"personal\"}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/v1/accounts/usr-rep02").header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Primary Account"));
+    }
+
+    private static int count(DataSource dataSource, String userId) {
+        return new JdbcTemplate(dataSource).queryForObject("select count(*) from users where id = ?", Integer.class, userId);
+    }
+}
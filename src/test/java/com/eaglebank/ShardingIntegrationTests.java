@@ -0,0 +1,316 @@
+package com.eaglebank;
+
+import com.eaglebank.dto.TransactionDTO;
+import com.eaglebank.model.TransactionType;
+import com.eaglebank.security.TokenService;
+import com.eaglebank.service.AccountProjectionService;
+import com.eaglebank.service.AccountShards;
+import com.eaglebank.service.CrossShardRecovery;
+import com.eaglebank.service.TransactionService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sharding-global;DB_CLOSE_DELAY=-1",
+        "eaglebank.sharding.urls=" + ShardingIntegrationTests.SHARD_0 + "," + ShardingIntegrationTests.SHARD_1 + "," + ShardingIntegrationTests.SHARD_2
+})
+@AutoConfigureMockMvc
+public class ShardingIntegrationTests {
+
+    static final String SHARD_0 = "jdbc:h2:mem:sharding-0;DB_CLOSE_DELAY=-1";
+    static final String SHARD_1 = "jdbc:h2:mem:sharding-1;DB_CLOSE_DELAY=-1";
+    static final String SHARD_2 = "jdbc:h2:mem:sharding-2;DB_CLOSE_DELAY=-1";
+    private static final List<JdbcTemplate> SHARDS = List.of(jdbc(SHARD_0), jdbc(SHARD_1), jdbc(SHARD_2));
+    private static final JdbcTemplate GLOBAL = jdbc("jdbc:h2:mem:sharding-global;DB_CLOSE_DELAY=-1");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AccountShards accountShards;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private AccountProjectionService accountProjectionService;
+
+    @Autowired
+    private CrossShardRecovery crossShardRecovery;
+
+    @Test
+    public void startup_withShardsAndReplica_fails() {
+        assertThatThrownBy(() -> new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:sharding-replica-global;DB_CLOSE_DELAY=-1",
+                        "--eaglebank.sharding.urls=jdbc:h2:mem:sharding-replica-0;DB_CLOSE_DELAY=-1",
+                        "--eaglebank.datasource.replica.url=jdbc:h2:mem:sharding-replica-r;DB_CLOSE_DELAY=-1",
+                        "--eaglebank.scheduling.enabled=false", "--logging.level.root=OFF"))
+                .hasRootCauseMessage("eaglebank.sharding.urls and eaglebank.datasource.replica.url cannot both be set: " +
+                        "sharded reads do not use replicas");
+    }
+
+    @Test
+    public void accounts_areStoredOnTheirShard_withGloballyUniqueNumbers() throws Exception {
+        Set<String> accountNumbers = new HashSet<>();
+        Set<Integer> shardsUsed = new HashSet<>();
+        for (int i = 0; i < 12; i++) {
+            String userId = String.format("usr-sa%03d", i);
+            JsonNode account = createAccount(userId, 0);
+            accountNumbers.add(account.get("accountNumber").asText());
+
+            int shard = accountShards.shardOf(userId);
+            shardsUsed.add(shard);
+            for (int s = 0; s < SHARDS.size(); s++) {
+                assertThat(countAccounts(SHARDS.get(s), userId)).as("account %s on shard %d", userId, s).isEqualTo(s == shard ? 1 : 0);
+            }
+            assertThat(countAccounts(GLOBAL, userId)).isZero();
+        }
+        assertThat(accountNumbers).hasSize(12);
+        assertThat(shardsUsed).hasSizeGreaterThan(1);
+    }
+
+    @Test
+    public void listAccounts_mergesShardsInIdOrder() throws Exception {
+        List<String> created = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            String userId = String.format("usr-sl%03d", i);
+            createAccount(userId, 100L * (9 - i));
+            created.add(userId);
+        }
+
+        List<String> listed = new ArrayList<>();
+        String cursor = null;
+        do {
+            String url = "/v1/backoffice/accounts?limit=4&minBalance=100&maxBalance=900" + (cursor != null ? "&cursor=" + cursor : "");
+            JsonNode page = objectMapper.readTree(mockMvc.perform(get(url)
+                            .header(HttpHeaders.AUTHORIZATION, TestTokens.backoffice(tokenService)))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            page.get("items").forEach(item -> {
+                if (item.get("id").asText().startsWith("usr-sl")) {
+                    listed.add(item.get("id").asText());
+                }
+            });
+            cursor = page.hasNonNull("nextCursor") ? page.get("nextCursor").asText() : null;
+        } while (cursor != null);
+
+        // ordered by balance, which runs opposite to the ids here
+        assertThat(listed).containsExactlyElementsOf(created.reversed());
+    }
+
+    @Test
+    public void transferBetweenShards_postsBothSidesOrNeither() throws Exception {
+        String from = "usr-st000";
+        String to = null;
+        for (int i = 1; to == null; i++) {
+            String candidate = String.format("usr-st%03d", i);
+            if (!accountShards.sameShard(from, candidate)) {
+                to = candidate;
+            }
+        }
+        createAccount(from, 1_000);
+        createAccount(to, 0);
+        String token = TestTokens.bearer(tokenService, from);
+
+        JsonNode transfer = objectMapper.readTree(mockMvc.perform(post("/v1/transfers")
+                        .header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"toAccountId\": \"" + to + "\", \"amount\": 400}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString());
+        mockMvc.perform(get("/v1/accounts/" + to + "/transactions/" + transfer.get("creditTransactionId").asText())
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, to)))
+                .andExpect(status().isOk());
+        JdbcTemplate sourceShard = SHARDS.get(accountShards.shardOf(from));
+        assertThat(sourceShard.queryForObject("select count(*) from transfers where from_account_id = ?", Integer.class, from)).isEqualTo(1);
+
+        // the debit fails on one shard, so the credit on the other is rolled back too
+        mockMvc.perform(post("/v1/transfers")
+                        .header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"toAccountId\": \"" + to + "\", \"amount\": 601}"))
+                .andExpect(status().isUnprocessableEntity());
+        assertThat(balanceOf(from)).isEqualTo(600L);
+        assertThat(balanceOf(to)).isEqualTo(400L);
+
+        // transfers both ways at once must not deadlock across the two databases
+        String[] pair = {from, to};
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            String source = pair[t % 2];
+            String target = pair[(t + 1) % 2];
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 20; i++) {
+                    mockMvc.perform(post("/v1/transfers")
+                                    .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, source))
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content("{\"toAccountId\": \"" + target + "\", \"amount\": 5}"))
+                            .andExpect(status().isCreated());
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        assertThat(balanceOf(from) + balanceOf(to)).isEqualTo(1_000L);
+        assertThat(accountProjectionService.audit()).doesNotContain(from, to);
+    }
+
+    @Test
+    public void transferLegsLeftBehind_areDroppedOrReversed() throws Exception {
+        String from = "usr-sr000";
+        String to = null;
+        for (int i = 1; to == null; i++) {
+            String candidate = String.format("usr-sr%03d", i);
+            if (!accountShards.sameShard(from, candidate)) {
+                to = candidate;
+            }
+        }
+        createAccount(from, 1_000);
+        createAccount(to, 0);
+        JdbcTemplate destinationShard = SHARDS.get(accountShards.shardOf(to));
+
+        // the credit is the nested side here, as the destination has the larger id; its record goes once both committed
+        JsonNode transfer = objectMapper.readTree(mockMvc.perform(post("/v1/transfers")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, from))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"toAccountId\": \"" + to + "\", \"amount\": 300}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString());
+        assertThat(countLegs(destinationShard, to)).isZero();
+
+        // as if the node died before dropping the record: the debit is there, so the credit stands
+        recordLeg(destinationShard, transactionId(transfer.get("creditTransactionId")), to, from, transactionId(transfer.get("debitTransactionId")));
+        // and a credit whose debit never committed, which must be taken back
+        TransactionDTO credit = new TransactionDTO();
+        credit.setType(TransactionType.DEPOSIT);
+        credit.setAmount(200L);
+        long orphan = Long.parseLong(transactionService.createTransaction(to, credit).getId().substring("tan-".length()));
+        recordLeg(destinationShard, orphan, to, from, Long.MAX_VALUE);
+
+        crossShardRecovery.recover();
+
+        assertThat(countLegs(destinationShard, to)).isZero();
+        assertThat(balanceOf(from)).isEqualTo(700L);
+        assertThat(balanceOf(to)).isEqualTo(300L);
+        assertThat(destinationShard.queryForObject("select count(*) from transactions where account_id = ? and type = 'WITHDRAWAL' and amount = 200 and reference = ?",
+                Integer.class, to, "Reversal of tan-" + orphan)).isOne();
+        assertThat(accountProjectionService.audit()).doesNotContain(from, to);
+    }
+
+    @Test
+    public void deleteUser_removesTheAccountAndLedgerFromItsShard() throws Exception {
+        String body = mockMvc.perform(post("/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Sharded User\", \"email\": \"sharded@example.com\", \"phoneNumber\": \"07777000888\", " +
+                                "\"address\": {\"line1\": \"1 Main St\", \"line2\": \"Suite 1\", \"town\": \"Townsville\", \"county\": \"Countyshire\", \"postcode\": \"AB12 3CD\"}}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String userId = objectMapper.readTree(body).get("id").asText();
+        createAccount(userId, 300);
+        JdbcTemplate shard = SHARDS.get(accountShards.shardOf(userId));
+
+        // refused on the shard, so the user in the global database stays too
+        mockMvc.perform(delete("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, userId)))
+                .andExpect(status().isConflict());
+        assertThat(GLOBAL.queryForObject("select count(*) from users where id = ?", Integer.class, userId)).isOne();
+
+        TransactionDTO withdrawal = new TransactionDTO();
+        withdrawal.setType(TransactionType.WITHDRAWAL);
+        withdrawal.setAmount(300L);
+        transactionService.createTransaction(userId, withdrawal);
+        mockMvc.perform(delete("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, userId)))
+                .andExpect(status().isNoContent());
+
+        assertThat(GLOBAL.queryForObject("select count(*) from users where id = ?", Integer.class, userId)).isZero();
+        assertThat(countAccounts(shard, userId)).isZero();
+        assertThat(shard.queryForObject("select count(*) from transactions where account_id = ?", Integer.class, userId)).isZero();
+    }
+
+    private JsonNode createAccount(String userId, long openingBalance) throws Exception {
+        String body = mockMvc.perform(post("/v1/accounts")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, userId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Sharded Account\", \"accountType\": \"personal\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        if (openingBalance > 0) {
+            TransactionDTO deposit = new TransactionDTO();
+            deposit.setType(TransactionType.DEPOSIT);
+            deposit.setAmount(openingBalance);
+            transactionService.createTransaction(userId, deposit);
+        }
+        return objectMapper.readTree(body);
+    }
+
+    private long balanceOf(String accountId) throws Exception {
+        String body = mockMvc.perform(get("/v1/accounts/" + accountId)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, accountId)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("balance").asLong();
+    }
+
+    private static int countLegs(JdbcTemplate jdbc, String accountId) {
+        return jdbc.queryForObject("select count(*) from cross_shard_legs where account_id = ?", Integer.class, accountId);
+    }
+
+    private static void recordLeg(JdbcTemplate jdbc, long transactionId, String accountId, String counterpartAccountId, long counterpartTransactionId) {
+        jdbc.update("insert into cross_shard_legs (transaction_id, account_id, counterpart_account_id, counterpart_transaction_id, transfer_id, created_at) " +
+                "values (?, ?, ?, ?, null, dateadd('HOUR', -1, current_timestamp))", transactionId, accountId, counterpartAccountId, counterpartTransactionId);
+    }
+
+    private static long transactionId(JsonNode id) {
+        return Long.parseLong(id.asText().substring("tan-".length()));
+    }
+
+    private static int countAccounts(JdbcTemplate jdbc, String accountId) {
+        return jdbc.queryForObject("select count(*) from accounts where id = ?", Integer.class, accountId);
+    }
+
+    private static JdbcTemplate jdbc(String url) {
+        return new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+    }
+}
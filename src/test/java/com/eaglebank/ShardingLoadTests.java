@@ -0,0 +1,124 @@
+package com.eaglebank;
+
+import com.eaglebank.dto.AccountDTO;
+import com.eaglebank.dto.TransactionDTO;
+import com.eaglebank.exception.InsufficientFundsException;
+import com.eaglebank.model.AccountType;
+import com.eaglebank.model.TransactionType;
+import com.eaglebank.service.AccountService;
+import com.eaglebank.service.TransactionService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the same stream of postings and uncached account reads (20k by default,
+ * override with {@code -Deaglebank.load.operations}) against 1, 2 and 4 account
+ * shards and prints the throughput of each. Every shard is a separate in-memory
+ * H2 database, so the gain shows how far a single database's commit path was the
+ * limit on this machine.
+ */
+@Tag("load")
+public class ShardingLoadTests {
+
+    private static final int OPERATIONS = Integer.getInteger("eaglebank.load.operations", 20_000);
+    private static final int ACCOUNTS = 256;
+    private static final int THREADS = 32;
+
+    @Test
+    public void throughputByShardCount() throws Exception {
+        Map<Integer, Double> throughput = new LinkedHashMap<>();
+        for (int shards : new int[]{1, 2, 4}) {
+            Map<String, Object> properties = new LinkedHashMap<>();
+            properties.put("spring.datasource.url", "jdbc:h2:mem:sharding-load-" + shards + "-global");
+            properties.put("spring.cache.type", "none");
+            properties.put("eaglebank.scheduling.enabled", false);
+            if (shards > 1) {
+                List<String> urls = new ArrayList<>();
+                for (int s = 0; s < shards; s++) {
+                    urls.add("jdbc:h2:mem:sharding-load-" + shards + "-" + s + ";DB_CLOSE_DELAY=-1");
+                }
+                properties.put("eaglebank.sharding.urls", String.join(",", urls));
+            }
+            try (ConfigurableApplicationContext context = LoadTestSupport.start(properties)) {
+                throughput.put(shards, measure(context));
+            }
+        }
+        throughput.forEach((shards, opsPerSecond) -> System.out.printf("%d shard(s): %,.0f ops/s (%.2fx one shard)%n",
+                shards, opsPerSecond, opsPerSecond / throughput.get(1)));
+    }
+
+    private static double measure(ConfigurableApplicationContext context) throws Exception {
+        AccountService accounts = context.getBean(AccountService.class);
+        TransactionService transactions = context.getBean(TransactionService.class);
+        for (int a = 0; a < ACCOUNTS; a++) {
+            accounts.createAccount(id(a), new AccountDTO(null, null, "Load Account", AccountType.PERSONAL, 0L, null));
+            transactions.createTransaction(id(a), posting(TransactionType.DEPOSIT, 1_000_000L));
+        }
+        run(accounts, transactions, OPERATIONS / 5);
+
+        long started = System.nanoTime();
+        run(accounts, transactions, OPERATIONS);
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long completed = (long) OPERATIONS / THREADS * THREADS;
+        assertThat(accounts.getAccountById(id(0)).getBalance()).isPositive();
+        return completed / seconds;
+    }
+
+    /** Half postings, half reads of random accounts, from all threads. */
+    private static void run(AccountService accounts, TransactionService transactions, int operations) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            SplittableRandom random = new SplittableRandom(operations + t);
+            int count = operations / THREADS;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < count; i++) {
+                    String accountId = id(random.nextInt(ACCOUNTS));
+                    if (random.nextBoolean()) {
+                        TransactionType type = random.nextBoolean() ? TransactionType.DEPOSIT : TransactionType.WITHDRAWAL;
+                        try {
+                            transactions.createTransaction(accountId, posting(type, 1L + random.nextInt(1_000)));
+                        } catch (InsufficientFundsException ignored) {
+                            // still a round trip
+                        }
+                    } else {
+                        accounts.getAccountById(accountId);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get(10, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+    }
+
+    private static TransactionDTO posting(TransactionType type, long amount) {
+        TransactionDTO dto = new TransactionDTO();
+        dto.setType(type);
+        dto.setAmount(amount);
+        return dto;
+    }
+
+    private static String id(int i) {
+        return String.format("usr-%05d", i);
+    }
+}
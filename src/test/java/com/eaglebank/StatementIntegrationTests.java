@@ -0,0 +1,153 @@
+package com.eaglebank;
+
+import com.eaglebank.dto.TransactionDTO;
+import com.eaglebank.model.TransactionType;
+import com.eaglebank.security.TokenService;
+import com.eaglebank.service.TransactionService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class StatementIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Test
+    public void statement_csv_listsEventsInOrderWithQuotedReferences() throws Exception {
+        String accountId = createAccount("usr-stm01");
+        postTransaction(accountId, TransactionType.DEPOSIT, 500, "Salary, March");
+        postTransaction(accountId, TransactionType.WITHDRAWAL, 120, "Shop \"A\"");
+        postTransaction(accountId, TransactionType.WITHDRAWAL, 30, "=HYPERLINK(\"x\")");
+        postTransaction(accountId, TransactionType.DEPOSIT, 5, null);
+        postTransaction(accountId, TransactionType.DEPOSIT, 1, "\t=1+1");
+
+        String body = mockMvc.perform(get("/v1/accounts/" + accountId + "/statement")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, accountId)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv;charset=UTF-8"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"statement-" + accountId + ".csv\""))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(6);
+        assertThat(lines.get(0)).isEqualTo("id,createdTimestamp,type,amount,currency,balance,reference");
+        assertThat(lines.get(1)).matches("tan-\\d+,[^,]+Z,deposit,500,GBP,500,\"Salary, March\"");
+        assertThat(lines.get(2)).endsWith(",withdrawal,120,GBP,380,\"Shop \"\"A\"\"\"");
+        assertThat(lines.get(3)).endsWith(",withdrawal,30,GBP,350,\"'=HYPERLINK(\"\"x\"\")\"");
+        assertThat(lines.get(4)).endsWith(",deposit,5,GBP,355,");
+        assertThat(lines.get(5)).endsWith(",deposit,1,GBP,356,\"'\t=1+1\"");
+    }
+
+    @Test
+    public void statement_ndjson_gzipped_andLimitedToRange() throws Exception {
+        String accountId = createAccount("usr-stm02");
+        postTransaction(accountId, TransactionType.DEPOSIT, 100, "first");
+        Instant from = Instant.now();
+        Thread.sleep(5);
+        postTransaction(accountId, TransactionType.DEPOSIT, 200, "second");
+        postTransaction(accountId, TransactionType.WITHDRAWAL, 50, "third");
+
+        MockHttpServletResponse response = mockMvc.perform(get("/v1/accounts/" + accountId + "/statement")
+                        .param("format", "ndjson")
+                        .param("from", from.toString())
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, accountId)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE + ";charset=UTF-8"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse();
+
+        byte[] unzipped;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            unzipped = in.readAllBytes();
+        }
+        List<JsonNode> lines = new String(unzipped, StandardCharsets.UTF_8).lines().map(this::readTree).toList();
+        assertThat(lines).extracting(n -> n.get("reference").asText()).containsExactly("second", "third");
+        assertThat(lines.get(1).get("type").asText()).isEqualTo("withdrawal");
+        assertThat(lines.get(1).get("balance").asLong()).isEqualTo(250L);
+        assertThat(lines.get(1).get("id").asText()).startsWith("tan-");
+
+        // the ids in a statement are the ones the transactions API serves
+        mockMvc.perform(get("/v1/accounts/" + accountId + "/transactions/" + lines.get(0).get("id").asText())
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, accountId)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void statement_errors() throws Exception {
+        String accountId = createAccount("usr-stm03");
+        String token = TestTokens.bearer(tokenService, accountId);
+
+        mockMvc.perform(get("/v1/accounts/usr-stm04/statement")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-stm04")))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_DISPOSITION));
+        mockMvc.perform(get("/v1/accounts/" + accountId + "/statement")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-stm04")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/v1/accounts/" + accountId + "/statement").param("format", "pdf")
+                        .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v1/accounts/" + accountId + "/statement")
+                        .param("from", "2026-02-01T00:00:00Z").param("to", "2026-01-01T00:00:00Z")
+                        .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String createAccount(String userId) throws Exception {
+        mockMvc.perform(post("/v1/accounts")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, userId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Statement Account\", \"accountType\": \"personal\"}"))
+                .andExpect(status().isCreated());
+        return userId;
+    }
+
+    private void postTransaction(String accountId, TransactionType type, long amount, String reference) {
+        TransactionDTO dto = new TransactionDTO();
+        dto.setType(type);
+        dto.setAmount(amount);
+        dto.setReference(reference);
+        transactionService.createTransaction(accountId, dto);
+    }
+
+    private JsonNode readTree(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (Exception ex) {
+            throw new AssertionError(line, ex);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.eaglebank;
+
+import com.eaglebank.dto.AccountDTO;
+import com.eaglebank.model.AccountType;
+import com.eaglebank.security.TokenService;
+import com.eaglebank.service.AccountService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Streams statements of a growing ledger (100k events, then 10x that by default;
+ * override with {@code -Deaglebank.load.statement-events}) over HTTP and prints the
+ * time to first byte, throughput and the most heap left live after any GC during
+ * the download. That figure should stay flat as the ledger grows tenfold.
+ */
+@Tag("load")
+public class StatementLoadTests {
+
+    private static final int EVENTS = Integer.getInteger("eaglebank.load.statement-events", 1_000_000);
+    // above the ids the sequence hands out during the test
+    private static final long ID_OFFSET = 1L << 40;
+    private static final List<MemoryPoolMXBean> POOLS = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> pool.getType() == MemoryType.HEAP && pool.getCollectionUsage() != null)
+            .toList();
+
+    @Test
+    public void statementMemory_doesNotGrowWithLedger() throws Exception {
+        try (ConfigurableApplicationContext context = LoadTestSupport.start(Map.of())) {
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            String token = createAccount(context, "usr-big01");
+            String url = "http://localhost:" + LoadTestSupport.port(context) + "/v1/accounts/usr-big01/statement?format=";
+            HttpClient http = HttpClient.newHttpClient();
+
+            append(jdbc, "usr-big01", 0, EVENTS / 10);
+            fetch(http, url + "csv", token); // warm-up
+            Result small = fetch(http, url + "csv", token);
+            append(jdbc, "usr-big01", EVENTS / 10, EVENTS);
+            fetch(http, url + "csv", token); // lets H2 settle the bulk insert before measuring
+            Result largeCsv = fetch(http, url + "csv", token);
+            Result largeNdjson = fetch(http, url + "ndjson", token);
+
+            print(EVENTS / 10, "csv", small);
+            print(EVENTS, "csv", largeCsv);
+            print(EVENTS, "ndjson", largeNdjson);
+
+            assertThat(small.lines()).isEqualTo(EVENTS / 10 + 1);
+            assertThat(largeCsv.lines()).isEqualTo(EVENTS + 1);
+            assertThat(largeNdjson.lines()).isEqualTo(EVENTS);
+            // the body is far larger than any growth in heap
+            assertThat(largeCsv.liveHeapGrowth()).isLessThan(largeCsv.bytes() / 2);
+        }
+    }
+
+    private static String createAccount(ConfigurableApplicationContext context, String accountId) {
+        context.getBean(AccountService.class).createAccount(accountId,
+                new AccountDTO(null, null, "Busy Business", AccountType.PERSONAL, 0L, null));
+        return TestTokens.bearer(context.getBean(TokenService.class), accountId);
+    }
+
+    /** Appends events {@code from + 1 .. to} straight into the ledger, bypassing the posting path. */
+    private static void append(JdbcTemplate jdbc, String accountId, int from, int to) {
+        jdbc.update("insert into transactions (id, account_id, event_sequence, type, amount, balance_after, currency, reference, created_timestamp) " +
+                "select ? + x, ?, x, 'DEPOSIT', 1, x, 'GBP', 'Card payment ' || x, current_timestamp from system_range(?, ?)",
+                ID_OFFSET, accountId, from + 1, to);
+    }
+
+    private static Result fetch(HttpClient http, String url, String token) throws Exception {
+        System.gc();
+        long baseline = liveHeap();
+        AtomicLong peak = new AtomicLong(baseline);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+            while (running.get()) {
+                peak.accumulateAndGet(liveHeap(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException ex) {
+                    return;
+                }
+            }
+        });
+
+        long started = System.nanoTime();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).header("Authorization", token).build();
+        HttpResponse<InputStream> response = http.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        assertThat(response.statusCode()).isEqualTo(200);
+        long firstByte = 0;
+        long bytes = 0;
+        long lines = 0;
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream body = response.body()) {
+            for (int n; (n = body.read(buffer)) >= 0; ) {
+                if (firstByte == 0) {
+                    firstByte = System.nanoTime() - started;
+                }
+                bytes += n;
+                for (int i = 0; i < n; i++) {
+                    if (buffer[i] == '\n') lines++;
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+        running.set(false);
+        sampler.join();
+        return new Result(lines, bytes, firstByte, elapsed, peak.get() - baseline);
+    }
+
+    /** Heap in use just after the most recent collection, so garbage not yet collected doesn't count. */
+    private static long liveHeap() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : POOLS) {
+            used += pool.getCollectionUsage().getUsed();
+        }
+        return used;
+    }
+
+    private static void print(int events, String format, Result r) {
+        System.out.printf("%,9d events as %-6s: %,d MB, first byte after %,d ms, %,.0f events/s, live heap growth %,d MB%n",
+                events, format, r.bytes() >> 20, r.firstByteNanos() / 1_000_000, events / (r.elapsedNanos() / 1e9),
+                r.liveHeapGrowth() >> 20);
+    }
+
+    private record Result(long lines, long bytes, long firstByteNanos, long elapsedNanos, long liveHeapGrowth) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.eaglebank;
+
+import com.eaglebank.security.TokenService;
+
+import java.time.Duration;
+import java.util.Set;
+
+/** Authorization header values for tests, signed with the application's own key. */
+final class TestTokens {
+
+    private TestTokens() {
+    }
+
+    static String bearer(TokenService tokenService, String userId) {
+        return "Bearer " + tokenService.issue(userId, Set.of(), Duration.ofMinutes(10));
+    }
+
+    static String backoffice(TokenService tokenService) {
+        return "Bearer " + tokenService.issue("usr-ops00", Set.of(TokenService.BACKOFFICE_SCOPE), Duration.ofMinutes(10));
+    }
+}
@@ -0,0 +1,169 @@
+package com.eaglebank;
+
+import com.eaglebank.dto.TransactionDTO;
+import com.eaglebank.model.TransactionType;
+import com.eaglebank.repository.TransactionRepository;
+import com.eaglebank.security.TokenService;
+import com.eaglebank.service.TransactionService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class TransactionControllerIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    public void deposit_thenWithdraw_updatesBalance() throws Exception {
+        createAccount("usr-txn01");
+
+        String deposit = mockMvc.perform(post("/v1/accounts/usr-txn01/transactions")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-txn01"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 1500, \"currency\": \"GBP\", \"type\": \"deposit\", \"reference\": \"salary\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode depositNode = objectMapper.readTree(deposit);
+        assertThat(depositNode.get("id").asText()).startsWith("tan-");
+        assertThat(depositNode.get("type").asText()).isEqualTo("deposit");
+        assertThat(depositNode.get("balance").asLong()).isEqualTo(1500L);
+
+        String withdrawal = mockMvc.perform(post("/v1/accounts/usr-txn01/transactions")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-txn01"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 400, \"type\": \"withdrawal\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(objectMapper.readTree(withdrawal).get("balance").asLong()).isEqualTo(1100L);
+
+        String account = mockMvc.perform(get("/v1/accounts/usr-txn01")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-txn01")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readTree(account).get("balance").asLong()).isEqualTo(1100L);
+
+        mockMvc.perform(get("/v1/accounts/usr-txn01/transactions/" + depositNode.get("id").asText())
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-txn01")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void withdraw_moreThanBalance_returnsUnprocessableEntity() throws Exception {
+        createAccount("usr-txn02");
+
+        mockMvc.perform(post("/v1/accounts/usr-txn02/transactions")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-txn02"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 1, \"type\": \"withdrawal\"}"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    public void createTransaction_mismatchedUserId_returnsForbidden() throws Exception {
+        createAccount("usr-txn03");
+
+        mockMvc.perform(post("/v1/accounts/usr-txn03/transactions")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-oth03"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 10, \"type\": \"deposit\"}"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void createTransaction_unknownAccount_returnsNotFound() throws Exception {
+        mockMvc.perform(post("/v1/accounts/usr-none4/transactions")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-none4"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 10, \"type\": \"deposit\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void concurrentPostings_onOneAccount_keepExactBalance() throws Exception {
+        createAccount("usr-txn05");
+
+        final int threads = 16;
+        final int depositsPerThread = 100;
+        final int withdrawalsPerThread = 25;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < depositsPerThread; i++) {
+                    transactionService.createTransaction("usr-txn05", request(TransactionType.DEPOSIT, 3));
+                    if (i < withdrawalsPerThread) {
+                        transactionService.createTransaction("usr-txn05", request(TransactionType.WITHDRAWAL, 2));
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        long expected = (long) threads * (depositsPerThread * 3L - withdrawalsPerThread * 2L);
+        String account = mockMvc.perform(get("/v1/accounts/usr-txn05")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-txn05")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(objectMapper.readTree(account).get("balance").asLong()).isEqualTo(expected);
+        assertThat(transactionRepository.countByAccountId("usr-txn05"))
+                .isEqualTo((long) threads * (depositsPerThread + withdrawalsPerThread));
+    }
+
+    private void createAccount(String userId) throws Exception {
+        mockMvc.perform(post("/v1/accounts")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, userId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Ledger Account\", \"accountType\": \"personal\"}"))
+                .andExpect(status().isCreated());
+    }
+
+    private static TransactionDTO request(TransactionType type, long amount) {
+        TransactionDTO dto = new TransactionDTO();
+        dto.setType(type);
+        dto.setAmount(amount);
+        return dto;
+    }
+}
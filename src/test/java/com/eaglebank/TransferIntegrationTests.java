@@ -0,0 +1,174 @@
+package com.eaglebank;
+
+import com.eaglebank.dto.TransactionDTO;
+import com.eaglebank.dto.TransferDTO;
+import com.eaglebank.model.TransactionType;
+import com.eaglebank.repository.AccountRepository;
+import com.eaglebank.repository.TransactionRepository;
+import com.eaglebank.security.TokenService;
+import com.eaglebank.service.TransactionService;
+import com.eaglebank.service.TransferService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class TransferIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    public void transfer_movesMoneyAndReturnsRecord() throws Exception {
+        createAccount("usr-trf01", 1000);
+        createAccount("usr-trf02", 0);
+        // cache the destination so the transfer has to evict it
+        balanceOf("usr-trf02");
+
+        String body = mockMvc.perform(post("/v1/transfers")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-trf01"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"toAccountId\": \"usr-trf02\", \"amount\": 250, \"reference\": \"rent\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode transfer = objectMapper.readTree(body);
+        assertThat(transfer.get("id").asText()).startsWith("trf-");
+        assertThat(transfer.get("fromAccountId").asText()).isEqualTo("usr-trf01");
+        assertThat(transfer.get("toAccountId").asText()).isEqualTo("usr-trf02");
+        assertThat(transfer.get("amount").asLong()).isEqualTo(250L);
+        assertThat(transfer.get("currency").asText()).isEqualTo("GBP");
+        assertThat(balanceOf("usr-trf01")).isEqualTo(750L);
+        assertThat(balanceOf("usr-trf02")).isEqualTo(250L);
+
+        mockMvc.perform(get("/v1/accounts/usr-trf02/transactions/" + transfer.get("creditTransactionId").asText())
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-trf02")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void transfer_invalidRequests_areRejected() throws Exception {
+        createAccount("usr-trf03", 100);
+        createAccount("usr-trf04", 0);
+        String token = TestTokens.bearer(tokenService, "usr-trf03");
+
+        mockMvc.perform(post("/v1/transfers").header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"toAccountId\": \"usr-trf04\", \"amount\": 101}"))
+                .andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(post("/v1/transfers").header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"toAccountId\": \"usr-trf03\", \"amount\": 1}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/v1/transfers").header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"toAccountId\": \"usr-none0\", \"amount\": 1}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/v1/transfers").header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"toAccountId\": \"usr-trf04\", \"amount\": 0}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/v1/transfers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"toAccountId\": \"usr-trf04\", \"amount\": 1}"))
+                .andExpect(status().isUnauthorized());
+
+        // nothing moved
+        assertThat(balanceOf("usr-trf03")).isEqualTo(100L);
+        assertThat(balanceOf("usr-trf04")).isEqualTo(0L);
+    }
+
+    @Test
+    public void opposingConcurrentTransfers_doNotDeadlockAndConserveMoney() throws Exception {
+        createAccount("usr-trf05", 10_000);
+        createAccount("usr-trf06", 10_000);
+
+        final int threads = 8;
+        final int transfersPerThread = 100;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            boolean forward = t % 2 == 0;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < transfersPerThread; i++) {
+                    transferService.transfer(forward ? "usr-trf05" : "usr-trf06",
+                            new TransferDTO(forward ? "usr-trf06" : "usr-trf05", 7L, null));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        // as many transfers ran each way, so both accounts end where they started
+        assertThat(balanceOf("usr-trf05")).isEqualTo(10_000L);
+        assertThat(balanceOf("usr-trf06")).isEqualTo(10_000L);
+        assertThat(transactionRepository.countByAccountId("usr-trf05")).isEqualTo(1L + threads * transfersPerThread);
+        assertThat(accountRepository.findIdsDivergingFromLedger()).doesNotContain("usr-trf05", "usr-trf06");
+    }
+
+    private void createAccount(String userId, long openingBalance) throws Exception {
+        mockMvc.perform(post("/v1/accounts")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, userId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Transfer Account\", \"accountType\": \"personal\"}"))
+                .andExpect(status().isCreated());
+        if (openingBalance > 0) {
+            TransactionDTO deposit = new TransactionDTO();
+            deposit.setType(TransactionType.DEPOSIT);
+            deposit.setAmount(openingBalance);
+            transactionService.createTransaction(userId, deposit);
+        }
+    }
+
+    private long balanceOf(String accountId) throws Exception {
+        String body = mockMvc.perform(get("/v1/accounts/" + accountId)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, accountId)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("balance").asLong();
+    }
+}
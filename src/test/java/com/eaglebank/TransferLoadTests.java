@@ -0,0 +1,182 @@
+package com.eaglebank;
+
+import com.eaglebank.dto.TransferDTO;
+import com.eaglebank.exception.InsufficientFundsException;
+import com.eaglebank.exception.TransferQueueFullException;
+import com.eaglebank.service.AccountProjectionService;
+import com.eaglebank.service.TransferService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires random transfers (20k by default, override with {@code -Deaglebank.load.transfers})
+ * from many threads between a small set of accounts, so most transfers collide with
+ * others on the same accounts in both directions. Money must be conserved, every
+ * account must agree with its ledger, and nothing may deadlock. Runs once through
+ * the synchronous path and once through the batching async engine.
+ */
+@Tag("load")
+public class TransferLoadTests {
+
+    private static final int TRANSFERS = Integer.getInteger("eaglebank.load.transfers", 20_000);
+    private static final int ACCOUNTS = 64;
+    private static final int THREADS = 32;
+    private static final long OPENING_BALANCE = 100_000L;
+
+    @Test
+    public void randomConcurrentTransfers_conserveMoney() throws Exception {
+        try (ConfigurableApplicationContext context = LoadTestSupport.start(Map.of(
+                "spring.datasource.url", "jdbc:h2:mem:transfers",
+                "eaglebank.scheduling.enabled", false))) {
+            TransferService transfers = context.getBean(TransferService.class);
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            seed(jdbc);
+            long total = totalBalance(jdbc);
+
+            AtomicLong refused = new AtomicLong();
+            double seconds = run((from, to, amount) -> {
+                try {
+                    transfers.transfer(from, new TransferDTO(to, amount, null));
+                } catch (InsufficientFundsException ex) {
+                    refused.incrementAndGet();
+                }
+            });
+
+            long completed = jdbc.queryForObject("select count(*) from transfers", Long.class);
+            System.out.printf("sync: %,d transfers (%,d refused for funds) over %d accounts by %d threads in %.1f s: %,.0f transfers/s%n",
+                    completed, refused.get(), ACCOUNTS, THREADS, seconds, completed / seconds);
+            assertThat(completed + refused.get()).isEqualTo((long) TRANSFERS / THREADS * THREADS);
+            assertThat(totalBalance(jdbc)).isEqualTo(total);
+            assertThat(context.getBean(AccountProjectionService.class).audit()).isEmpty();
+        }
+    }
+
+    @Test
+    public void randomConcurrentAsyncTransfers_conserveMoney() throws Exception {
+        Path journal = Path.of("target", "load", "transfer-journal.log");
+        Files.deleteIfExists(journal);
+        try (ConfigurableApplicationContext context = LoadTestSupport.start(Map.of(
+                "spring.datasource.url", "jdbc:h2:mem:async-transfers",
+                "eaglebank.scheduling.enabled", false,
+                "eaglebank.transfers.async.enabled", true,
+                "eaglebank.transfers.async.journal", journal,
+                "eaglebank.transfers.async.queue-capacity", 2_000))) {
+            TransferService transfers = context.getBean(TransferService.class);
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            DistributionSummary batches = context.getBean(MeterRegistry.class).get("eaglebank.transfers.async.batch.size").summary();
+            seed(jdbc);
+            long total = totalBalance(jdbc);
+
+            AtomicLong queueFull = new AtomicLong();
+            long submitted = (long) TRANSFERS / THREADS * THREADS;
+            double seconds = run((from, to, amount) -> {
+                while (true) {
+                    try {
+                        transfers.submit(from, new TransferDTO(to, amount, null));
+                        return;
+                    } catch (TransferQueueFullException ex) {
+                        queueFull.incrementAndGet();
+                        Thread.sleep(5);
+                    }
+                }
+            }, () -> {
+                while (batches.totalAmount() < submitted) {
+                    Thread.sleep(10);
+                }
+            });
+
+            long completed = jdbc.queryForObject("select count(*) from transfers", Long.class);
+            System.out.printf("async: %,d transfers (%,d refused for funds) in %.1f s: %,.0f transfers/s, " +
+                            "%,d flushes of %.0f on average, %,d submissions bounced off the full queue%n",
+                    completed, submitted - completed, seconds, submitted / seconds,
+                    batches.count(), batches.mean(), queueFull.get());
+            assertThat(totalBalance(jdbc)).isEqualTo(total);
+            assertThat(context.getBean(AccountProjectionService.class).audit()).isEmpty();
+        }
+    }
+
+    private interface TransferCall {
+        void transfer(String from, String to, long amount) throws Exception;
+    }
+
+    private interface Completion {
+        void await() throws Exception;
+    }
+
+    private static double run(TransferCall call) throws Exception {
+        return run(call, () -> {
+        });
+    }
+
+    /** Runs the transfers from all threads and returns the seconds until {@code completion} returns. */
+    private static double run(TransferCall call, Completion completion) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            SplittableRandom random = new SplittableRandom(t);
+            int count = TRANSFERS / THREADS;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < count; i++) {
+                    int from = random.nextInt(ACCOUNTS);
+                    int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                    call.transfer(id(from), id(to), 1L + random.nextInt(5_000));
+                }
+                return null;
+            }));
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get(10, TimeUnit.MINUTES);
+        }
+        completion.await();
+        pool.shutdown();
+        return (System.nanoTime() - started) / 1e9;
+    }
+
+    private static void seed(JdbcTemplate jdbc) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> accounts = new ArrayList<>();
+        List<Object[]> openings = new ArrayList<>();
+        for (int a = 0; a < ACCOUNTS; a++) {
+            accounts.add(new Object[]{id(a), String.format("%08d", a), String.format("%08d", a), OPENING_BALANCE});
+            openings.add(new Object[]{a + 1L, id(a), OPENING_BALANCE, OPENING_BALANCE, now});
+        }
+        jdbc.batchUpdate("insert into accounts (id, account_number, sort_code, name, account_type, balance, currency, last_event_sequence, version) " +
+                "values (?, ?, ?, 'Transfer Account', 'PERSONAL', ?, 'GBP', 1, 0)", accounts);
+        // ids below the sequence's first value, so they can't collide with generated ones
+        jdbc.batchUpdate("insert into transactions (id, account_id, event_sequence, type, amount, balance_after, currency, created_timestamp) " +
+                "values (-?, ?, 1, 'DEPOSIT', ?, ?, 'GBP', ?)", openings);
+    }
+
+    private static long totalBalance(JdbcTemplate jdbc) {
+        return jdbc.queryForObject("select sum(balance) from accounts", Long.class);
+    }
+
+    private static String id(int i) {
+        return String.format("acc-%05d", i);
+    }
+}
@@ -1,14 +1,20 @@
 package com.eaglebank;
 
+import com.eaglebank.security.TokenService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -22,9 +28,15 @@ public class UserControllerIntegrationTests {
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private TokenService tokenService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private JdbcTemplate jdbc;
+
     @Test
     public void createUser_withAddressAndPhone_returnsCreatedAndContainsFields() throws Exception {
         String payload = "{\n" +
@@ -83,7 +95,7 @@ public class UserControllerIntegrationTests {
         JsonNode created = objectMapper.readTree(createResult);
         String id = created.get("id").asText();
 
-        // Now patch only the postcode; include user-id header matching the created id
+        // Now patch only the postcode, authenticated as the created user
         String patchPayload = "{\n" +
                 "  \"address\": {\n" +
                 "    \"postcode\": \"NEW 9ZZ\"\n" +
@@ -91,7 +103,7 @@ public class UserControllerIntegrationTests {
                 "}";
 
         String patchResult = mockMvc.perform(patch("/v1/users/" + id)
-                        .header("user-id", id)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, id))
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(patchPayload))
                 .andExpect(status().isOk())
@@ -133,7 +145,7 @@ public class UserControllerIntegrationTests {
         String id = created.get("id").asText();
 
         String getResult = mockMvc.perform(get("/v1/users/" + id)
-                        .header("user-id", id))
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, id)))
                 .andExpect(status().isOk())
                 .andReturn().getResponse().getContentAsString();
 
@@ -142,6 +154,25 @@ public class UserControllerIntegrationTests {
         assertThat(fetched.get("name").asText()).isEqualTo("Fetch User");
     }
 
+    @Test
+    public void getUser_withoutAddressColumns_hasTheSameShapeAsPatch() throws Exception {
+        // users created before the address was required have none
+        jdbc.update("insert into users (id, name, email, phone_number, version) values ('usr-noaddr1', 'No Address', 'n@example.com', '07777000111', 0)");
+        String token = TestTokens.bearer(tokenService, "usr-noaddr1");
+
+        JsonNode read = objectMapper.readTree(mockMvc.perform(get("/v1/users/usr-noaddr1").header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        JsonNode patched = objectMapper.readTree(mockMvc.perform(patch("/v1/users/usr-noaddr1").header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"phoneNumber\": \"07777000111\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        assertThat(read.get("address").isNull()).isTrue();
+        assertThat(read).isEqualTo(patched);
+    }
+
     @Test
     public void getUser_mismatchedHeader_returnsForbidden() throws Exception {
         String payload = "{\n" +
@@ -167,7 +198,7 @@ public class UserControllerIntegrationTests {
         String id = created.get("id").asText();
 
         mockMvc.perform(get("/v1/users/" + id)
-                        .header("user-id", "usr-xxxxx"))
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-xxxxx")))
                 .andExpect(status().isForbidden());
     }
 
@@ -200,9 +231,89 @@ public class UserControllerIntegrationTests {
                 "}";
 
         mockMvc.perform(patch("/v1/users/" + id)
-                        .header("user-id", "usr-xxxxx")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-xxxxx"))
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(patchPayload))
                 .andExpect(status().isForbidden());
     }
+
+    @Test
+    public void createUser_assignsDistinctServerGeneratedIds() throws Exception {
+        String payload = "{\n" +
+                "  \"name\": \"Id User\",\n" +
+                "  \"email\": \"ids@example.com\",\n" +
+                "  \"phoneNumber\": \"07777000004\",\n" +
+                "  \"address\": {\n" +
+                "    \"line1\": \"4 Id St\",\n" +
+                "    \"line2\": \"Flat 1\",\n" +
+                "    \"town\": \"IdTown\",\n" +
+                "    \"county\": \"IdCounty\",\n" +
+                "    \"postcode\": \"ID1 1ID\"\n" +
+                "  }\n" +
+                "}";
+
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 20; i++) {
+            String result = mockMvc.perform(post("/v1/users")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(payload))
+                    .andExpect(status().isCreated())
+                    .andReturn().getResponse().getContentAsString();
+            ids.add(objectMapper.readTree(result).get("id").asText());
+        }
+
+        assertThat(ids).hasSize(20);
+        assertThat(ids).allMatch(id -> id.matches("^usr-[A-Za-z0-9]{5}$"));
+    }
+
+    @Test
+    public void bulkCreateUsers_ndjson_returnsResultPerRecord() throws Exception {
+        String valid = "{\"name\": \"Bulk One\", \"email\": \"bulk1@example.com\", \"phoneNumber\": \"07777000101\", " +
+                "\"address\": {\"line1\": \"1 Bulk St\", \"line2\": \"Flat 1\", \"town\": \"BulkTown\", \"county\": \"BulkCounty\", \"postcode\": \"BK1 1BK\"}}";
+        String invalid = "{\"name\": \"B\", \"email\": \"not-an-email\", \"phoneNumber\": \"07777000102\", " +
+                "\"address\": {\"line1\": \"2 Bulk St\", \"line2\": \"Flat 2\", \"town\": \"BulkTown\", \"county\": \"BulkCounty\", \"postcode\": \"BK1 1BK\"}}";
+
+        String result = mockMvc.perform(post("/v1/users/bulk")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.backoffice(tokenService))
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(valid + "\n" + invalid + "\n" + valid + "\n"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = result.split("\n");
+        assertThat(lines).hasSize(3);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("index").asInt()).isEqualTo(0);
+        assertThat(first.get("status").asText()).isEqualTo("created");
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertThat(second.get("status").asText()).isEqualTo("invalid");
+        assertThat(second.get("errors").toString()).contains("email", "name");
+        JsonNode third = objectMapper.readTree(lines[2]);
+        assertThat(third.get("status").asText()).isEqualTo("created");
+
+        String id = first.get("id").asText();
+        mockMvc.perform(get("/v1/users/" + id).header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, id)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void bulkCreateUsers_jsonArray_isAccepted() throws Exception {
+        String payload = "[" +
+                "{\"name\": \"Array One\", \"email\": \"arr1@example.com\", \"phoneNumber\": \"07777000201\", " +
+                "\"address\": {\"line1\": \"1 Array St\", \"line2\": \"Flat 1\", \"town\": \"ArrTown\", \"county\": \"ArrCounty\", \"postcode\": \"AR1 1AR\"}}," +
+                "{\"name\": \"Array Two\", \"email\": \"arr2@example.com\", \"phoneNumber\": \"07777000202\", " +
+                "\"address\": {\"line1\": \"2 Array St\", \"line2\": \"Flat 2\", \"town\": \"ArrTown\", \"county\": \"ArrCounty\", \"postcode\": \"AR1 1AR\"}}" +
+                "]";
+
+        String result = mockMvc.perform(post("/v1/users/bulk")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.backoffice(tokenService))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = result.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines).allMatch(line -> line.contains("\"status\":\"created\""));
+    }
 }
@@ -0,0 +1,166 @@
+package com.eaglebank;
+
+import com.eaglebank.config.CacheConfig;
+import com.eaglebank.dto.TransactionDTO;
+import com.eaglebank.model.TransactionType;
+import com.eaglebank.security.TokenService;
+import com.eaglebank.service.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// background jobs would add their statements to the counts
+@SpringBootTest(properties = "eaglebank.scheduling.enabled=false")
+@AutoConfigureMockMvc
+public class UserDeleteIntegrationTests {
+
+    // above the ids the sequence hands out during the tests
+    private static final long ID_OFFSET = 1L << 40;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void deleteUser_removesAccountAndLedger_inTheSameStatementsForAnyLedgerSize() throws Exception {
+        String small = createUserWithAccount();
+        append(small, 0, 10);
+        String large = createUserWithAccount();
+        append(large, 100, 5_100);
+        jdbc.update("insert into account_snapshots (account_id, event_sequence, balance, taken_at) values (?, 5000, 0, current_timestamp)", large);
+
+        long smallStatements = deleteCountingStatements(small);
+        long largeStatements = deleteCountingStatements(large);
+
+        // user, account, snapshot and ledger deletes and the two outbox events; nothing is loaded
+        assertThat(smallStatements).isEqualTo(6);
+        assertThat(largeStatements).isEqualTo(smallStatements);
+        for (String id : new String[] {small, large}) {
+            assertThat(count("users", "id", id)).isZero();
+            assertThat(count("accounts", "id", id)).isZero();
+            assertThat(count("transactions", "account_id", id)).isZero();
+            assertThat(count("account_snapshots", "account_id", id)).isZero();
+        }
+        assertThat(jdbc.queryForList("select event_type from outbox_events where aggregate_id = ? order by id", String.class, large))
+                .containsSubsequence("UserDeleted", "AccountClosed");
+    }
+
+    @Test
+    public void deleteUser_evictsCachedUserAndAccount() throws Exception {
+        String id = createUserWithAccount();
+        String token = TestTokens.bearer(tokenService, id);
+        mockMvc.perform(get("/v1/users/" + id).header(HttpHeaders.AUTHORIZATION, token)).andExpect(status().isOk());
+        mockMvc.perform(get("/v1/accounts/" + id).header(HttpHeaders.AUTHORIZATION, token)).andExpect(status().isOk());
+        assertThat(cacheManager.getCache(CacheConfig.ACCOUNTS).get(id)).isNotNull();
+
+        mockMvc.perform(delete("/v1/users/" + id).header(HttpHeaders.AUTHORIZATION, token)).andExpect(status().isNoContent());
+
+        assertThat(cacheManager.getCache(CacheConfig.USERS).get(id)).isNull();
+        assertThat(cacheManager.getCache(CacheConfig.ACCOUNTS).get(id)).isNull();
+        mockMvc.perform(get("/v1/accounts/" + id).header(HttpHeaders.AUTHORIZATION, token)).andExpect(status().isNotFound());
+        mockMvc.perform(delete("/v1/users/" + id).header(HttpHeaders.AUTHORIZATION, token)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void deleteUser_withMoneyInTheAccount_isRefusedAndKeepsEverything() throws Exception {
+        String id = createUserWithAccount();
+        String token = TestTokens.bearer(tokenService, id);
+        TransactionDTO deposit = new TransactionDTO();
+        deposit.setType(TransactionType.DEPOSIT);
+        deposit.setAmount(250L);
+        transactionService.createTransaction(id, deposit);
+
+        mockMvc.perform(delete("/v1/users/" + id).header(HttpHeaders.AUTHORIZATION, token)).andExpect(status().isConflict());
+        assertThat(count("users", "id", id)).isOne();
+        assertThat(count("accounts", "id", id)).isOne();
+        assertThat(count("transactions", "account_id", id)).isOne();
+
+        TransactionDTO withdrawal = new TransactionDTO();
+        withdrawal.setType(TransactionType.WITHDRAWAL);
+        withdrawal.setAmount(250L);
+        transactionService.createTransaction(id, withdrawal);
+        mockMvc.perform(delete("/v1/users/" + id).header(HttpHeaders.AUTHORIZATION, token)).andExpect(status().isNoContent());
+        assertThat(count("transactions", "account_id", id)).isZero();
+    }
+
+    @Test
+    public void deleteUser_withoutAccount_deletesTheUser() throws Exception {
+        String id = createUser();
+        mockMvc.perform(delete("/v1/users/" + id).header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, id)))
+                .andExpect(status().isNoContent());
+        assertThat(count("users", "id", id)).isZero();
+    }
+
+    private long deleteCountingStatements(String userId) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long before = statistics.getPrepareStatementCount();
+        mockMvc.perform(delete("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, userId)))
+                .andExpect(status().isNoContent());
+        return statistics.getPrepareStatementCount() - before;
+    }
+
+    /** Appends events {@code from + 1 .. to} that net to nothing, straight into the ledger. */
+    private void append(String accountId, int from, int to) {
+        jdbc.update("insert into transactions (id, account_id, event_sequence, type, amount, balance_after, currency, reference, created_timestamp) " +
+                "select ? + x, ?, x - ?, case when mod(x, 2) = 1 then 'DEPOSIT' else 'WITHDRAWAL' end, 1, mod(x, 2), 'GBP', null, current_timestamp " +
+                "from system_range(?, ?)", ID_OFFSET, accountId, from, from + 1, to);
+    }
+
+    private int count(String table, String column, String id) {
+        return jdbc.queryForObject("select count(*) from " + table + " where " + column + " = ?", Integer.class, id);
+    }
+
+    private String createUserWithAccount() throws Exception {
+        String id = createUser();
+        mockMvc.perform(post("/v1/accounts")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, id))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Closing Account\", \"accountType\": \"personal\"}"))
+                .andExpect(status().isCreated());
+        return id;
+    }
+
+    private String createUser() throws Exception {
+        String payload = "{\"name\": \"Leaving User\", \"email\": \"leaving@example.com\", \"phoneNumber\": \"07777000666\", " +
+                "\"address\": {\"line1\": \"1 Main St\", \"line2\": \"Suite 1\", \"town\": \"Townsville\", \"county\": \"Countyshire\", \"postcode\": \"AB12 3CD\"}}";
+        String body = mockMvc.perform(post("/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asText();
+    }
+}
@@ -0,0 +1,132 @@
+package com.eaglebank;
+
+import com.eaglebank.dto.AddressDTO;
+import com.eaglebank.dto.UserDTO;
+import com.eaglebank.service.PermutedSequenceUserIdGenerator;
+import com.eaglebank.service.UserIdGenerator;
+import com.eaglebank.service.UserService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures {@code UserService.createUser} latency on an empty users table and
+ * again after it has been filled with existing users (10M by default, override
+ * with {@code -Deaglebank.load.existing-users}). Ids come from the same
+ * permutation the service uses, so the table looks like a real, dense keyspace.
+ */
+@Tag("load")
+public class UserIdGeneratorLoadTests {
+
+    private static final long EXISTING_USERS = Long.getLong("eaglebank.load.existing-users", 10_000_000L);
+    private static final int SAMPLES = 2_000;
+    private static final int SEED_BATCH = 10_000;
+
+    @Test
+    public void createUserLatency_staysFlatAsTableFills() throws Exception {
+        Path dir = Path.of("target", "load", "user-ids");
+        FileSystemUtils.deleteRecursively(dir);
+
+        long[] empty;
+        try (ConfigurableApplicationContext context = LoadTestSupport.start(Map.of(
+                "spring.datasource.url", "jdbc:h2:file:./" + dir.resolve("db") + ";CACHE_SIZE=131072",
+                "spring.jpa.hibernate.ddl-auto", "create",
+                "eaglebank.id-allocator.block-size", 1000))) {
+            UserService userService = context.getBean(UserService.class);
+            PermutedSequenceUserIdGenerator generator = context.getBean(PermutedSequenceUserIdGenerator.class);
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            TransactionTemplate tx = context.getBean(TransactionTemplate.class);
+
+            measure(userService); // warm-up
+            empty = measure(userService);
+
+            // reserve the range we are about to seed so the service continues after it
+            long seedStart = jdbc.queryForObject("select next_value from id_sequences where name = 'user_id'", Long.class);
+            jdbc.update("update id_sequences set next_value = ? where name = 'user_id'", seedStart + EXISTING_USERS);
+            long seedStarted = System.nanoTime();
+            // insert in key order: permuted ids arrive in random order, which would make seeding crawl
+            long[] keys = new long[(int) EXISTING_USERS];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = pack(generator.format(seedStart + i));
+            }
+            Arrays.sort(keys);
+            for (int from = 0; from < keys.length; from += SEED_BATCH) {
+                int batchStart = from;
+                int batchEnd = Math.min(keys.length, from + SEED_BATCH);
+                tx.executeWithoutResult(status -> {
+                    List<Object[]> rows = new ArrayList<>(batchEnd - batchStart);
+                    for (int i = batchStart; i < batchEnd; i++) {
+                        rows.add(new Object[]{unpack(keys[i]), "Seed User", "seed@example.com"});
+                    }
+                    jdbc.batchUpdate("insert into users (id, name, email, version) values (?, ?, ?, 0)", rows);
+                });
+            }
+            System.out.printf("seeded %,d users in %.1f s%n", EXISTING_USERS, (System.nanoTime() - seedStarted) / 1e9);
+        }
+
+        // restart so the node drops its in-memory block and reserves one after the seeded range
+        try (ConfigurableApplicationContext context = LoadTestSupport.start(Map.of(
+                "spring.datasource.url", "jdbc:h2:file:./" + dir.resolve("db") + ";CACHE_SIZE=131072",
+                "spring.jpa.hibernate.ddl-auto", "none",
+                "eaglebank.id-allocator.block-size", 1000))) {
+            UserService userService = context.getBean(UserService.class);
+            long users = context.getBean(JdbcTemplate.class).queryForObject("select count(*) from users", Long.class);
+
+            measure(userService); // warm-up
+            long[] full = measure(userService);
+
+            System.out.printf("createUser at %,d users: p50=%d us, p99=%d us%n", 0, micros(empty, 0.50), micros(empty, 0.99));
+            System.out.printf("createUser at %,d users: p50=%d us, p99=%d us%n", users, micros(full, 0.50), micros(full, 0.99));
+
+            assertThat(users).isGreaterThanOrEqualTo(EXISTING_USERS);
+            // latency is independent of table size apart from the B-tree depth of the primary key
+            assertThat(LoadTestSupport.percentile(full, 0.50)).isLessThan(3 * LoadTestSupport.percentile(empty, 0.50) + 200_000);
+        }
+    }
+
+    private static long[] measure(UserService userService) {
+        long[] samples = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            UserDTO dto = new UserDTO(null, "Load User", "load@example.com",
+                    new AddressDTO("1 Load St", "Unit 1", null, "LoadTown", "LoadCounty", "LD1 1LD"), "07777000000");
+            long started = System.nanoTime();
+            userService.createUser(dto);
+            samples[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    /** Packs the ASCII suffix of an id into a long whose numeric order matches the string order. */
+    private static long pack(String id) {
+        long key = 0;
+        for (int i = UserIdGenerator.ID_PREFIX.length(); i < id.length(); i++) {
+            key = (key << 8) | id.charAt(i);
+        }
+        return key;
+    }
+
+    private static String unpack(long key) {
+        char[] suffix = new char[5];
+        for (int i = suffix.length - 1; i >= 0; i--) {
+            suffix[i] = (char) (key & 0xFF);
+            key >>>= 8;
+        }
+        return UserIdGenerator.ID_PREFIX + new String(suffix);
+    }
+
+    private static long micros(long[] sortedNanos, double p) {
+        return LoadTestSupport.percentile(sortedNanos, p) / 1_000;
+    }
+}
@@ -0,0 +1,79 @@
+package com.eaglebank;
+
+import com.eaglebank.security.TokenService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Streams 100k generated users through POST /v1/users/bulk. The request body is
+ * produced lazily and the response consumed line by line, so neither side ever
+ * holds the whole payload.
+ */
+@Tag("load")
+public class UserImportLoadTests {
+
+    private static final int USERS = 100_000;
+
+    @Test
+    public void bulkImport_reaches100kUsersPerMinute() throws Exception {
+        try (ConfigurableApplicationContext context = LoadTestSupport.start(Map.of())) {
+            HttpClient http = HttpClient.newHttpClient();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + LoadTestSupport.port(context) + "/v1/users/bulk"))
+                    .header("Content-Type", "application/x-ndjson")
+                    .header("Authorization", TestTokens.backoffice(context.getBean(TokenService.class)))
+                    .POST(HttpRequest.BodyPublishers.ofInputStream(() -> new GeneratedUsers(USERS)))
+                    .build();
+
+            long started = System.nanoTime();
+            HttpResponse<Stream<String>> response = http.send(request, HttpResponse.BodyHandlers.ofLines());
+            long created;
+            try (Stream<String> lines = response.body()) {
+                created = lines.filter(line -> line.contains("\"status\":\"created\"")).count();
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            System.out.printf("imported %,d users in %.1f s (%,.0f users/min)%n", created, seconds, created / seconds * 60);
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(created).isEqualTo(USERS);
+            assertThat(seconds).isLessThan(60.0);
+        }
+    }
+
+    /** NDJSON body generated on demand, one record at a time. */
+    private static final class GeneratedUsers extends InputStream {
+        private final int total;
+        private int next;
+        private byte[] line = new byte[0];
+        private int pos;
+
+        private GeneratedUsers(int total) {
+            this.total = total;
+        }
+
+        @Override
+        public int read() {
+            if (pos == line.length) {
+                if (next == total) return -1;
+                line = ("{\"name\": \"Import User " + next + "\", \"email\": \"import" + next + "@example.com\", " +
+                        "\"phoneNumber\": \"07777000000\", \"address\": {\"line1\": \"" + next + " Import Rd\", " +
+                        "\"line2\": \"Unit 1\", \"town\": \"ImportTown\", \"county\": \"ImportCounty\", \"postcode\": \"IM1 1IM\"}}\n")
+                        .getBytes(StandardCharsets.UTF_8);
+                pos = 0;
+                next++;
+            }
+            return line[pos++] & 0xFF;
+        }
+    }
+}
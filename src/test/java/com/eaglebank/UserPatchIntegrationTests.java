@@ -0,0 +1,116 @@
+package com.eaglebank;
+
+import com.eaglebank.model.User;
+import com.eaglebank.repository.UserRepository;
+import com.eaglebank.security.TokenService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// background jobs such as the outbox relay would add their statements to the counts
+@SpringBootTest(properties = "eaglebank.scheduling.enabled=false")
+@AutoConfigureMockMvc
+public class UserPatchIntegrationTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void patchUser_issuesOneStatementInsteadOfLoadAndSave() throws Exception {
+        String userId = createUser();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // the previous implementation: load the entity, change it, save it
+        long before = statistics.getPrepareStatementCount();
+        User loaded = userRepository.findById(userId).orElseThrow();
+        loaded.setPhoneNumber("07777000222");
+        userRepository.save(loaded);
+        long loadAndSave = statistics.getPrepareStatementCount() - before;
+
+        before = statistics.getPrepareStatementCount();
+        String body = mockMvc.perform(patch("/v1/users/" + userId)
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, userId))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"phoneNumber\": \"07777000333\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long patched = statistics.getPrepareStatementCount() - before;
+
+        assertThat(loadAndSave).isGreaterThanOrEqualTo(2);
+        // the column update itself, plus the outbox event written in the same transaction
+        assertThat(patched).isEqualTo(2);
+
+        JsonNode node = objectMapper.readTree(body);
+        assertThat(node.get("phoneNumber").asText()).isEqualTo("07777000333");
+        assertThat(node.get("name").asText()).isEqualTo("Patch Engine");
+        assertThat(node.get("address").get("postcode").asText()).isEqualTo("AB12 3CD");
+    }
+
+    @Test
+    public void patchColumns_bumpsVersionAndChecksExpectedVersion() throws Exception {
+        String userId = createUser();
+        User stale = userRepository.findById(userId).orElseThrow();
+        long version = stale.getVersion();
+
+        User updated = userRepository.patchColumns(userId, Map.of("address_town", "Newtown"), version).orElseThrow();
+        assertThat(updated.getVersion()).isEqualTo(version + 1);
+        assertThat(updated.getAddress().getTown()).isEqualTo("Newtown");
+        assertThat(updated.getAddress().getLine1()).isEqualTo("1 Main St");
+
+        assertThat(userRepository.patchColumns(userId, Map.of("name", "Lost Update"), version)).isEmpty();
+
+        // a writer still holding the old version is rejected too
+        stale.setName("Stale Writer");
+        assertThatThrownBy(() -> userRepository.save(stale)).isInstanceOf(OptimisticLockingFailureException.class);
+    }
+
+    @Test
+    public void patchUser_unknownUser_returnsNotFound() throws Exception {
+        mockMvc.perform(patch("/v1/users/usr-zzzz9")
+                        .header(HttpHeaders.AUTHORIZATION, TestTokens.bearer(tokenService, "usr-zzzz9"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Nobody\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    private String createUser() throws Exception {
+        String payload = "{\"name\": \"Patch Engine\", \"email\": \"engine@example.com\", \"phoneNumber\": \"07777000111\", " +
+                "\"address\": {\"line1\": \"1 Main St\", \"line2\": \"Suite 1\", \"town\": \"Townsville\", \"county\": \"Countyshire\", \"postcode\": \"AB12 3CD\"}}";
+        String body = mockMvc.perform(post("/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payload))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asText();
+    }
+}
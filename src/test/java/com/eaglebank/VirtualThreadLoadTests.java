@@ -0,0 +1,104 @@
+package com.eaglebank;
+
+import com.eaglebank.repository.UserRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares how many requests the Tomcat request path can hold in flight with
+ * platform threads and with virtual threads. The probe endpoint does one JPA
+ * read and then blocks for a fixed time to stand in for downstream I/O.
+ */
+@Tag("load")
+public class VirtualThreadLoadTests {
+
+    private static final int TOMCAT_MAX_THREADS = 32;
+    private static final int CLIENTS = 400;
+    private static final long BLOCKING_MILLIS = 100;
+
+    static final LoadTestSupport.InFlight IN_FLIGHT = new LoadTestSupport.InFlight();
+
+    @Test
+    public void virtualThreads_raiseConcurrencyCeiling() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("platform threads: peak in-flight=%d, %.0f req/s%n", platform.peak, platform.throughput);
+        System.out.printf("virtual threads:  peak in-flight=%d, %.0f req/s%n", virtual.peak, virtual.throughput);
+
+        assertThat(platform.peak).isLessThanOrEqualTo(TOMCAT_MAX_THREADS);
+        assertThat(virtual.peak).isGreaterThan(TOMCAT_MAX_THREADS);
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        IN_FLIGHT.reset();
+        try (ConfigurableApplicationContext context = LoadTestSupport.start(Map.of(
+                "spring.threads.virtual.enabled", virtualThreads,
+                "server.tomcat.threads.max", TOMCAT_MAX_THREADS,
+                // keep the pool out of the way so the request path is what gets measured
+                "spring.datasource.hikari.maximum-pool-size", 64), BlockingProbeController.class);
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient http = HttpClient.newBuilder().executor(clients).build();
+            URI uri = URI.create("http://localhost:" + LoadTestSupport.port(context) + "/load/blocking");
+
+            // first round warms up connections and JIT on both sides
+            burst(http, uri);
+            IN_FLIGHT.reset();
+
+            long started = System.nanoTime();
+            burst(http, uri);
+            double seconds = (System.nanoTime() - started) / 1e9;
+            return new Result(IN_FLIGHT.peak(), CLIENTS / seconds);
+        }
+    }
+
+    private static void burst(HttpClient http, URI uri) throws Exception {
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            responses.add(http.sendAsync(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofString()));
+        }
+        for (CompletableFuture<HttpResponse<String>> r : responses) {
+            assertThat(r.get().statusCode()).isEqualTo(200);
+        }
+    }
+
+    private record Result(int peak, double throughput) {
+    }
+
+    @RestController
+    static class BlockingProbeController {
+        private final UserRepository userRepository;
+
+        BlockingProbeController(UserRepository userRepository) {
+            this.userRepository = userRepository;
+        }
+
+        @GetMapping("/load/blocking")
+        public long blocking() throws InterruptedException {
+            IN_FLIGHT.enter();
+            try {
+                long users = userRepository.count();
+                Thread.sleep(BLOCKING_MILLIS);
+                return users;
+            } finally {
+                IN_FLIGHT.exit();
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.eaglebank;
+
+import com.eaglebank.security.TokenService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.endsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class WireFormatIntegrationTests {
+
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final CBORMapper cborMapper = new CBORMapper();
+    private final SmileMapper smileMapper = new SmileMapper();
+
+    @Test
+    public void createUser_inCbor_andReadItBackInEachFormat() throws Exception {
+        byte[] request = cborMapper.writeValueAsBytes(objectMapper.readTree(userPayload("Binary User")));
+        MockHttpServletResponse created = mockMvc.perform(post("/v1/users")
+                        .contentType(CBOR)
+                        .accept(CBOR)
+                        .content(request))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(CBOR))
+                .andReturn().getResponse();
+        String userId = cborMapper.readTree(created.getContentAsByteArray()).get("id").asText();
+        String token = TestTokens.bearer(tokenService, userId);
+
+        MockHttpServletResponse json = mockMvc.perform(get("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse();
+        MockHttpServletResponse cbor = mockMvc.perform(get("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token).accept(CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CBOR))
+                .andReturn().getResponse();
+        MockHttpServletResponse smile = mockMvc.perform(get("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token).accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn().getResponse();
+
+        JsonNode expected = objectMapper.readTree(json.getContentAsByteArray());
+        assertThat(expected.get("name").asText()).isEqualTo("Binary User");
+        assertThat(expected.get("address").get("postcode").asText()).isEqualTo("AB12 3CD");
+        assertThat(cborMapper.readTree(cbor.getContentAsByteArray())).isEqualTo(expected);
+        assertThat(smileMapper.readTree(smile.getContentAsByteArray())).isEqualTo(expected);
+        assertThat(cbor.getContentAsByteArray().length).isLessThan(json.getContentAsByteArray().length);
+        // the same version, but different bytes, so each encoding has its own tag
+        String jsonTag = json.getHeader(HttpHeaders.ETAG);
+        String cborTag = cbor.getHeader(HttpHeaders.ETAG);
+        assertThat(cborTag).isEqualTo(jsonTag.replaceFirst("\"$", "-cbor\""));
+        assertThat(smile.getHeader(HttpHeaders.ETAG)).isEqualTo(jsonTag.replaceFirst("\"$", "-smile\""));
+
+        mockMvc.perform(get("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token).accept(CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, jsonTag))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CBOR))
+                .andExpect(header().string(HttpHeaders.ETAG, cborTag));
+        mockMvc.perform(get("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token).accept(CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, cborTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, cborTag));
+        mockMvc.perform(get("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token)
+                        .header(HttpHeaders.IF_NONE_MATCH, cborTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, jsonTag));
+
+        // any of the tags names the version a patch must apply to
+        mockMvc.perform(patch("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token)
+                        .header(HttpHeaders.IF_MATCH, cborTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(CBOR)
+                        .content("{\"name\": \"Renamed Binary User\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, endsWith("-cbor\"")));
+        mockMvc.perform(patch("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token)
+                        .header(HttpHeaders.IF_MATCH, cborTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Too Late\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    public void json_staysTheDefault() throws Exception {
+        String userId = objectMapper.readTree(mockMvc.perform(post("/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(userPayload("Default User")))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString()).get("id").asText();
+        String token = TestTokens.bearer(tokenService, userId);
+
+        mockMvc.perform(get("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token).accept(MediaType.ALL))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+        mockMvc.perform(get("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token)
+                        .header(HttpHeaders.ACCEPT, "application/cbor;q=0.5, application/json"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+        mockMvc.perform(get("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token).accept(MediaType.APPLICATION_XML))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    @Test
+    public void accountEndpoints_speakSmile() throws Exception {
+        String userId = objectMapper.readTree(mockMvc.perform(post("/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(userPayload("Smile User")))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString()).get("id").asText();
+        String token = TestTokens.bearer(tokenService, userId);
+
+        byte[] request = smileMapper.writeValueAsBytes(objectMapper.readTree("{\"name\": \"Smile Account\", \"accountType\": \"business\"}"));
+        MockHttpServletResponse created = mockMvc.perform(post("/v1/accounts").header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType(SMILE)
+                        .accept(SMILE)
+                        .content(request))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(SMILE))
+                .andReturn().getResponse();
+        JsonNode account = smileMapper.readTree(created.getContentAsByteArray());
+        assertThat(account.get("accountType").asText()).isEqualTo("business");
+        assertThat(account.get("balance").asLong()).isZero();
+
+        byte[] fetched = mockMvc.perform(get("/v1/accounts/" + userId).header(HttpHeaders.AUTHORIZATION, token).accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(smileMapper.readTree(fetched)).isEqualTo(account);
+
+        // patches can be binary too
+        mockMvc.perform(patch("/v1/users/" + userId).header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType(CBOR)
+                        .content(cborMapper.writeValueAsBytes(objectMapper.readTree("{\"name\": \"Renamed In Cbor\"}"))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    private static String userPayload(String name) {
+        return "{\"name\": \"" + name + "\", \"email\": \"binary@example.com\", \"phoneNumber\": \"07777000999\", " +
+                "\"address\": {\"line1\": \"1 Main St\", \"line2\": \"Suite 1\", \"town\": \"Townsville\", \"county\": \"Countyshire\", \"postcode\": \"AB12 3CD\"}}";
+    }
+}
@@ -0,0 +1,50 @@
+package com.eaglebank.benchmark;
+
+import com.eaglebank.dto.AddressDTO;
+import com.eaglebank.dto.UserDTO;
+import com.eaglebank.model.AccountType;
+import com.eaglebank.model.Address;
+import com.eaglebank.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity/DTO mapping and enum parsing done on every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MappingBenchmark {
+
+    private User user;
+    private AddressDTO addressDTO;
+
+    @State(Scope.Benchmark)
+    public static class AccountTypeInput {
+        @Param({"personal", " Business "})
+        public String value;
+    }
+
+    @Setup
+    public void setUp() {
+        Address address = new Address("1 Bench St", "Unit 2", "Block C", "BenchTown", "BenchCounty", "BN1 1BN");
+        user = new User("usr-bench", "Bench User", "bench@example.com", address, "07777000000");
+        addressDTO = address.toDTO();
+    }
+
+    @Benchmark
+    public UserDTO userToDTO() {
+        return user.toDTO();
+    }
+
+    @Benchmark
+    public Address addressFromDTO() {
+        return Address.fromDTO(addressDTO);
+    }
+
+    @Benchmark
+    public AccountType accountTypeFromValue(AccountTypeInput input) {
+        return AccountType.fromValue(input.value);
+    }
+}
@@ -0,0 +1,43 @@
+package com.eaglebank.benchmark;
+
+import com.eaglebank.filter.TokenBucket;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a rate-limit decision, uncontended and with every thread hitting the same bucket.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RateLimitBenchmark {
+
+    private TokenBucket shared;
+
+    @State(Scope.Thread)
+    public static class PerThread {
+        private TokenBucket bucket;
+
+        @Setup
+        public void setUp() {
+            bucket = new TokenBucket(1_000_000_000, Integer.MAX_VALUE / 2, System.nanoTime());
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        shared = new TokenBucket(1_000_000_000, Integer.MAX_VALUE / 2, System.nanoTime());
+    }
+
+    @Benchmark
+    public long ownBucket(PerThread state) {
+        return state.bucket.tryAcquire(System.nanoTime());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long sharedBucket() {
+        return shared.tryAcquire(System.nanoTime());
+    }
+}
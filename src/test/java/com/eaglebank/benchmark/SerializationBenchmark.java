@@ -0,0 +1,69 @@
+package com.eaglebank.benchmark;
+
+import com.eaglebank.dto.AccountDTO;
+import com.eaglebank.dto.AddressDTO;
+import com.eaglebank.dto.UserDTO;
+import com.eaglebank.model.AccountType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the response DTOs, and reading them back as a calling
+ * service would, in each wire format the API negotiates. Payload sizes are printed
+ * once per fork; run with {@code -prof gc} for bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SerializationBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectMapper objectMapper;
+    private UserDTO userDTO;
+    private AccountDTO accountDTO;
+    private byte[] userBytes;
+    private byte[] accountBytes;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = switch (format) {
+            case "json" -> JsonMapper.builder().findAndAddModules().build();
+            case "cbor" -> CBORMapper.builder().findAndAddModules().build();
+            case "smile" -> SmileMapper.builder().findAndAddModules().build();
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+        userDTO = new UserDTO("usr-bench", "Bench User", "bench@example.com",
+                new AddressDTO("1 Bench St", "Unit 2", "Block C", "BenchTown", "BenchCounty", "BN1 1BN"), "07777000000");
+        accountDTO = new AccountDTO("01234567", "10-10-10", "Bench Account", AccountType.PERSONAL, 12_345L, "GBP");
+        userBytes = objectMapper.writeValueAsBytes(userDTO);
+        accountBytes = objectMapper.writeValueAsBytes(accountDTO);
+        System.out.printf("%n%s payloads: user %d bytes, account %d bytes%n", format, userBytes.length, accountBytes.length);
+    }
+
+    @Benchmark
+    public byte[] serializeUser() throws Exception {
+        return objectMapper.writeValueAsBytes(userDTO);
+    }
+
+    @Benchmark
+    public byte[] serializeAccount() throws Exception {
+        return objectMapper.writeValueAsBytes(accountDTO);
+    }
+
+    @Benchmark
+    public UserDTO deserializeUser() throws Exception {
+        return objectMapper.readValue(userBytes, UserDTO.class);
+    }
+
+    @Benchmark
+    public AccountDTO deserializeAccount() throws Exception {
+        return objectMapper.readValue(accountBytes, AccountDTO.class);
+    }
+}
@@ -0,0 +1,65 @@
+package com.eaglebank.benchmark;
+
+import com.eaglebank.DemoApplication;
+import com.eaglebank.dto.AccountDTO;
+import com.eaglebank.model.AccountType;
+import com.eaglebank.service.AccountService;
+import com.eaglebank.service.UserIdGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service-level hot paths measured against a real application context and H2.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ServiceBenchmark {
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private UserIdGenerator userIdGenerator;
+    private final AtomicLong accountOwners = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--logging.level.root=WARN");
+        accountService = context.getBean(AccountService.class);
+        userIdGenerator = context.getBean(UserIdGenerator.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public AccountDTO createAccount() {
+        AccountDTO dto = new AccountDTO(null, null, "Benchmark Account", AccountType.PERSONAL, 0L, null);
+        return accountService.createAccount(nextOwner(), dto);
+    }
+
+    @Benchmark
+    public String generateUserId() {
+        return userIdGenerator.nextId();
+    }
+
+    /** Each account needs a distinct owner id; walk the usr-xxxxx space in order. */
+    private String nextOwner() {
+        long n = accountOwners.getAndIncrement();
+        char[] suffix = new char[5];
+        for (int i = 4; i >= 0; i--) {
+            suffix[i] = ALPHABET.charAt((int) (n % ALPHABET.length()));
+            n /= ALPHABET.length();
+        }
+        return "usr-" + new String(suffix);
+    }
+}